@@ -17,13 +17,16 @@ package org.alfresco.extension_inspector.analyser.checker;
 
 import static java.util.Collections.emptySet;
 import static java.util.Map.entry;
-import static java.util.stream.Collectors.toUnmodifiableMap;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 import static org.alfresco.extension_inspector.analyser.checker.Checker.isInAllowedList;
 import static org.alfresco.extension_inspector.model.Resource.Type.ALFRESCO_PUBLIC_API;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.alfresco.extension_inspector.analyser.result.AlfrescoInternalUsageConflict;
@@ -31,10 +34,8 @@ import org.alfresco.extension_inspector.analyser.result.Conflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionCodeAnalysisService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
-import org.alfresco.extension_inspector.model.AbstractResource;
-import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.ClasspathElementResource;
-import org.alfresco.extension_inspector.model.InventoryReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,6 +54,7 @@ import org.springframework.stereotype.Component;
 public class AlfrescoInternalUsageChecker implements Checker
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(AlfrescoInternalUsageChecker.class);
+    private static final BitSet EMPTY_VERSIONS = new BitSet();
 
     @Autowired
     private ConfigService configService;
@@ -62,29 +64,29 @@ public class AlfrescoInternalUsageChecker implements Checker
     private ExtensionCodeAnalysisService extensionCodeAnalysisService;
 
     @Override
-    public Stream<Conflict> processInternal(final InventoryReport warInventory, final String alfrescoVersion)
+    public Stream<Conflict> process(final MultiVersionInventory warInventories)
     {
         Set<String> allowedInternalClasses = configService.getInternalClassAllowedList();
-        
-        // Create a Map of the AlfrescoPublicApi with the class_id as the key and whether or not it is deprecated as the value
-        final Map<String, Boolean> publicApis = warInventory
-            .getResources().get(ALFRESCO_PUBLIC_API)
-            .stream()
-            .map(r -> (AlfrescoPublicApiResource) r)
-            .collect(toUnmodifiableMap(
-                AbstractResource::getId,
-                AlfrescoPublicApiResource::isDeprecated
-            ));
+
+        // the versions in which each AlfrescoPublicApi class_id is not deprecated
+        final Map<String, BitSet> validPublicApiVersions = new HashMap<>();
+        warInventories.getResources(ALFRESCO_PUBLIC_API).forEach((r, versions) -> {
+            final BitSet validVersions = validPublicApiVersions.computeIfAbsent(r.getId(), k -> new BitSet());
+            final BitSet notDeprecated = (BitSet) versions.clone();
+            notDeprecated.andNot(warInventories.getDeprecatedVersions(r));
+            validVersions.or(notDeprecated);
+        });
 
         final Map<String, Set<ClasspathElementResource>> extensionClassesById =
             extensionResourceInfoService.retrieveClasspathElementsById();
+        final List<String> versions = warInventories.getVersions();
 
         // go through the AMP dependencies and search for conflicts
         return extensionCodeAnalysisService
             .retrieveDependenciesPerClass()
             .entrySet()
             .stream()
-            // map to (class_name -> {alfresco_dependencies_not_marked_as_PublicAPI})
+            // map to (class_name -> {alfresco_dependencies}), which doesn't depend on the version
             .map(e -> entry(
                 e.getKey(),
                 e.getValue()
@@ -93,23 +95,28 @@ public class AlfrescoInternalUsageChecker implements Checker
                     .filter(d -> !extensionClassesById.containsKey(d)) // Not defined inside the AMP
                     .filter(d -> !isInAllowedList(d, allowedInternalClasses)) // Not Allowed Internal Class
                     .map(d -> d.substring(1).replaceAll("/", ".").replace(".class", ""))
-                    .filter(d -> (!publicApis.containsKey(d) || publicApis.get(d))) // Not PublicAPI or Deprecated_PublicAPI
                     .collect(toUnmodifiableSet())
             ))
-            .filter(e -> !e.getValue().isEmpty()) // strip entries without invalid dependencies
+            .filter(e -> !e.getValue().isEmpty())
+            // then, for each version, keep the dependencies that are not PublicAPI (or are deprecated) in it
+            .flatMap(e -> IntStream
+                .range(0, versions.size())
+                .mapToObj(i -> entry(
+                    e.getKey(),
+                    entry(
+                        versions.get(i),
+                        e.getValue()
+                            .stream()
+                            .filter(d -> !validPublicApiVersions.getOrDefault(d, EMPTY_VERSIONS).get(i))
+                            .collect(toUnmodifiableSet())))))
+            .filter(e -> !e.getValue().getValue().isEmpty()) // strip entries without invalid dependencies
             .flatMap(e -> extensionClassesById
                 .getOrDefault(e.getKey(), emptySet()) // a class can be provided by multiple jars
                 .stream()
                 .map(r -> new AlfrescoInternalUsageConflict(
                     r,
-                    e.getValue(),
-                    alfrescoVersion
+                    e.getValue().getValue(),
+                    e.getValue().getKey()
                 )));
     }
-
-    @Override
-    public boolean canProcess(final InventoryReport warInventory, final String alfrescoVersion)
-    {
-        return true;
-    }
 }
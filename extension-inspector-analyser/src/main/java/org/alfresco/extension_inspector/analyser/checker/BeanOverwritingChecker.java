@@ -15,7 +15,7 @@
  */
 package org.alfresco.extension_inspector.analyser.checker;
 
-import static java.util.Collections.emptySet;
+import static java.util.stream.Stream.empty;
 import static org.alfresco.extension_inspector.model.Resource.Type.BEAN;
 
 import java.util.Map;
@@ -26,8 +26,8 @@ import org.alfresco.extension_inspector.analyser.result.BeanOverwriteConflict;
 import org.alfresco.extension_inspector.analyser.result.Conflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.BeanResource;
-import org.alfresco.extension_inspector.model.InventoryReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -47,25 +47,25 @@ public class BeanOverwritingChecker implements Checker
     private ExtensionResourceInfoService extensionResourceInfoService;
 
     @Override
-    public Stream<Conflict> processInternal(final InventoryReport warInventory, final String alfrescoVersion)
+    public Stream<Conflict> process(final MultiVersionInventory warInventories)
     {
+        if (configService.getBeanOverrideAllowedList() == null)
+        {
+            return empty();
+        }
         final Map<String, Set<BeanResource>> resourcesById = extensionResourceInfoService.retrieveBeanOverridesById();
 
-        // Find a list of possible conflicts (there's no way to know for sure) for each amp bean resource
-        return warInventory
-            .getResources().getOrDefault(BEAN, emptySet())
+        // each distinct WAR bean is checked once, and is in conflict in all the versions that contain it
+        return warInventories
+            .getResources(BEAN)
+            .entrySet()
             .stream()
-            .map(r -> (BeanResource) r)
-            .filter(wr -> resourcesById.containsKey(wr.getId()))
-            .flatMap(wr -> resourcesById
-                .get(wr.getId())
+            .filter(e -> resourcesById.containsKey(e.getKey().getId()))
+            .flatMap(e -> resourcesById
+                .get(e.getKey().getId())
                 .stream()
-                .map(r -> new BeanOverwriteConflict(r, wr, alfrescoVersion)));
-    }
-
-    @Override
-    public boolean canProcess(final InventoryReport warInventory, final String alfrescoVersion)
-    {
-        return configService.getBeanOverrideAllowedList() != null;
+                .flatMap(r -> warInventories
+                    .getVersions(e.getValue())
+                    .map(version -> new BeanOverwriteConflict(r, (BeanResource) e.getKey(), version))));
     }
 }
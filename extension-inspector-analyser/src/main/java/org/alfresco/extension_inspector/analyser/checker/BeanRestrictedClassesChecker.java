@@ -15,11 +15,11 @@
  */
 package org.alfresco.extension_inspector.analyser.checker;
 
-import static java.util.Collections.emptySet;
-import static java.util.stream.Collectors.toUnmodifiableSet;
 import static org.alfresco.extension_inspector.analyser.checker.Checker.isInAllowedList;
 import static org.alfresco.extension_inspector.model.Resource.Type.ALFRESCO_PUBLIC_API;
 
+import java.util.BitSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -27,7 +27,7 @@ import org.alfresco.extension_inspector.analyser.result.BeanRestrictedClassConfl
 import org.alfresco.extension_inspector.analyser.result.Conflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
-import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,32 +48,25 @@ public class BeanRestrictedClassesChecker implements Checker
     private ExtensionResourceInfoService extensionResourceInfoService;
 
     @Override
-    public Stream<Conflict> processInternal(final InventoryReport warInventory, final String alfrescoVersion)
+    public Stream<Conflict> process(final MultiVersionInventory warInventories)
     {
         final Set<String> extensionClassesById = extensionResourceInfoService
             .retrieveClasspathElementsById().keySet();
 
         final Set<String> allowedList = configService.getInternalClassAllowedList();
-        final Set<String> publicApis = // By default, add the ALFRESCO_PUBLIC_API classes that we found in the war to the publicApis.
-            warInventory.getResources().getOrDefault(ALFRESCO_PUBLIC_API, emptySet())
-                .stream()
-                .map(Resource::getId)
-                .collect(toUnmodifiableSet());
+        final Map<String, BitSet> publicApiVersions = warInventories.getVersionsById(ALFRESCO_PUBLIC_API);
 
+        // a bean is in conflict in the versions in which its class is not a public API
         return extensionResourceInfoService
             .retrieveBeansOfAlfrescoTypes()
             .stream()
-            .filter(r -> !publicApis.contains(r.getBeanClass()))
             .filter(r -> !extensionClassesById
                 .contains("/" + r.getBeanClass().replace(".", "/") + ".class"))
             .filter(r -> !isInAllowedList(
                 "/" + r.getBeanClass().replace(".", "/") + ".class", allowedList))
-            .map(r -> new BeanRestrictedClassConflict(r, alfrescoVersion));
-    }
-
-    @Override
-    public boolean canProcess(final InventoryReport warInventory, final String alfrescoVersion)
-    {
-        return true;
+            .flatMap(r -> warInventories
+                .getVersions(warInventories.getOtherVersions(
+                    publicApiVersions.getOrDefault(r.getBeanClass(), new BitSet())))
+                .map(version -> new BeanRestrictedClassConflict(r, version)));
     }
 }
@@ -15,12 +15,14 @@
  */
 package org.alfresco.extension_inspector.analyser.checker;
 
-import static java.util.stream.Stream.empty;
-
+import java.util.BitSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import org.alfresco.extension_inspector.analyser.result.Conflict;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.InventoryReport;
 
 /**
@@ -30,18 +32,22 @@ import org.alfresco.extension_inspector.model.InventoryReport;
  */
 public interface Checker
 {
+    /**
+     * Finds the conflicts with the inventory of a single version, as {@link #process(MultiVersionInventory)}
+     * would with that version only.
+     */
     default Stream<Conflict> process(InventoryReport warInventory, String alfrescoVersion)
     {
-        if (canProcess(warInventory, alfrescoVersion))
-        {
-            return processInternal(warInventory, alfrescoVersion);
-        }
-        return empty();
+        final MultiVersionInventory warInventories = new MultiVersionInventory();
+        warInventories.add(alfrescoVersion, warInventory);
+        return process(warInventories);
     }
 
-    Stream<Conflict> processInternal(InventoryReport warInventory, String alfrescoVersion);
-
-    boolean canProcess(InventoryReport warInventory, String alfrescoVersion);
+    /**
+     * Finds the conflicts with the inventories of several versions at once. The checkers should evaluate
+     * what the versions have in common only once, and then give the conflicts of each version.
+     */
+    Stream<Conflict> process(MultiVersionInventory warInventories);
 
     /**
      * This method checks whether or not the provided className (in `/package/name/ClassName.class` format)
@@ -51,6 +57,33 @@ public interface Checker
      * @return
      */
     static boolean isInAllowedList(String className, Set<String> allowedList)
+    {
+        return anyPackageMatches(className, allowedList::contains);
+    }
+
+    /**
+     * The multi-version counterpart of {@link #isInAllowedList(String, Set)}, for an allowed list that
+     * differs between the versions.
+     *
+     * @param className a class name in `/package/name/ClassName.class` format
+     * @param allowedListVersions the set of the versions in which each pattern is allowed
+     * @return a new set of the versions in which the class is matched by the allowed list
+     */
+    static BitSet versionsInAllowedList(String className, Map<String, BitSet> allowedListVersions)
+    {
+        final BitSet versions = new BitSet();
+        anyPackageMatches(className, pack -> {
+            final BitSet packVersions = allowedListVersions.get(pack);
+            if (packVersions != null)
+            {
+                versions.or(packVersions);
+            }
+            return false;
+        });
+        return versions;
+    }
+
+    private static boolean anyPackageMatches(String className, Predicate<String> predicate)
     {
         final String[] packs = className.split("[./]");
         if (packs.length < 3)
@@ -60,13 +93,13 @@ public interface Checker
         StringBuilder pack = new StringBuilder(packs[1]).append('/').append(packs[2]);
         for (int i = 3; i < packs.length - 1; i++)
         {
-            if (allowedList.contains(pack.toString()))
+            if (predicate.test(pack.toString()))
             {
                 return true;
             }
             pack.append("/").append(packs[i]);
         }
 
-        return allowedList.contains(pack.toString());
+        return predicate.test(pack.toString());
     }
 }
@@ -15,9 +15,8 @@
  */
 package org.alfresco.extension_inspector.analyser.checker;
 
-import static java.util.Collections.emptySet;
+import static java.util.stream.Stream.empty;
 import static org.alfresco.extension_inspector.model.Resource.Type.CLASSPATH_ELEMENT;
-import static org.apache.commons.lang3.ObjectUtils.isEmpty;
 
 import java.util.Map;
 import java.util.Set;
@@ -27,8 +26,8 @@ import org.alfresco.extension_inspector.analyser.result.ClasspathConflict;
 import org.alfresco.extension_inspector.analyser.result.Conflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.ClasspathElementResource;
-import org.alfresco.extension_inspector.model.InventoryReport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -41,26 +40,26 @@ public class ClasspathConflictsChecker implements Checker
     private ExtensionResourceInfoService extensionResourceInfoService;
 
     @Override
-    public Stream<Conflict> processInternal(final InventoryReport warInventory, final String alfrescoVersion)
+    public Stream<Conflict> process(final MultiVersionInventory warInventories)
     {
+        if (configService.getExtensionResources(CLASSPATH_ELEMENT).isEmpty())
+        {
+            return empty();
+        }
         final Map<String, Set<ClasspathElementResource>> elementsById =
             extensionResourceInfoService.retrieveClasspathElementsById();
 
-        return warInventory
-            .getResources().getOrDefault(CLASSPATH_ELEMENT, emptySet())
+        // each distinct WAR element is checked once, and is in conflict in all the versions that contain it
+        return warInventories
+            .getResources(CLASSPATH_ELEMENT)
+            .entrySet()
             .stream()
-            .map(r -> (ClasspathElementResource) r)
-            .filter(wr -> elementsById.containsKey(wr.getId()))
-            .flatMap(wr -> elementsById
-                .get(wr.getId())
+            .filter(e -> elementsById.containsKey(e.getKey().getId()))
+            .flatMap(e -> elementsById
+                .get(e.getKey().getId())
                 .stream()
-                .map(r -> new ClasspathConflict(r, wr, alfrescoVersion)));
-    }
-
-    @Override
-    public boolean canProcess(final InventoryReport warInventory, final String alfrescoVersion)
-    {
-        return !configService.getExtensionResources(CLASSPATH_ELEMENT).isEmpty() &&
-               !isEmpty(warInventory.getResources().get(CLASSPATH_ELEMENT));
+                .flatMap(r -> warInventories
+                    .getVersions(e.getValue())
+                    .map(version -> new ClasspathConflict(r, (ClasspathElementResource) e.getKey(), version))));
     }
 }
@@ -15,8 +15,8 @@
  */
 package org.alfresco.extension_inspector.analyser.checker;
 
-import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonMap;
+import static java.util.stream.Stream.empty;
 import static org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService.findMostSpecificMapping;
 import static org.alfresco.extension_inspector.model.Resource.Type.FILE;
 
@@ -27,8 +27,8 @@ import org.alfresco.extension_inspector.analyser.result.Conflict;
 import org.alfresco.extension_inspector.analyser.result.FileOverwriteConflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.FileResource;
-import org.alfresco.extension_inspector.model.InventoryReport;
 import org.codehaus.plexus.util.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,27 +50,6 @@ public class FileOverwritingChecker implements Checker
     @Autowired
     private ExtensionResourceInfoService extensionResourceInfoService;
 
-    @Override
-    public Stream<Conflict> processInternal(final InventoryReport warInventory, final String alfrescoVersion)
-    {
-        final Map<String, String> fileMappings = configService.getFileMappings();
-
-        final Map<String, FileResource> resourcesByDestination =
-            extensionResourceInfoService.retrieveFilesByDestination();
-
-        return warInventory
-            .getResources().getOrDefault(FILE, emptySet())
-            .stream()
-            .map(r -> (FileResource) r)
-            .filter(wr -> resourcesByDestination.containsKey(wr.getId()))
-            .map(wr -> new FileOverwriteConflict(
-                resourcesByDestination.get(wr.getId()),
-                wr,
-                computeMapping(resourcesByDestination.get(wr.getId()), fileMappings),
-                alfrescoVersion
-            ));
-    }
-
     private static Map<String, String> computeMapping(final FileResource resource,
         final Map<String, String> fileMappings)
     {
@@ -83,9 +62,29 @@ public class FileOverwritingChecker implements Checker
     }
 
     @Override
-    public boolean canProcess(final InventoryReport warInventory, final String alfrescoVersion)
+    public Stream<Conflict> process(final MultiVersionInventory warInventories)
     {
-        return "amp".equalsIgnoreCase(FileUtils.getExtension(configService.getExtensionPath())) &&
-               !configService.getFileMappings().isEmpty();
+        final Map<String, String> fileMappings = configService.getFileMappings();
+        if (!"amp".equalsIgnoreCase(FileUtils.getExtension(configService.getExtensionPath())) || fileMappings.isEmpty())
+        {
+            return empty();
+        }
+
+        final Map<String, FileResource> resourcesByDestination =
+            extensionResourceInfoService.retrieveFilesByDestination();
+
+        // each distinct WAR file is checked once, and is in conflict in all the versions that contain it
+        return warInventories
+            .getResources(FILE)
+            .entrySet()
+            .stream()
+            .filter(e -> resourcesByDestination.containsKey(e.getKey().getId()))
+            .flatMap(e -> {
+                final FileResource resource = resourcesByDestination.get(e.getKey().getId());
+                final Map<String, String> mapping = computeMapping(resource, fileMappings);
+                return warInventories
+                    .getVersions(e.getValue())
+                    .map(version -> new FileOverwriteConflict(resource, (FileResource) e.getKey(), mapping, version));
+            });
     }
 }
@@ -17,14 +17,16 @@ package org.alfresco.extension_inspector.analyser.checker;
 
 import static java.util.Collections.emptySet;
 import static java.util.Map.entry;
+import static java.util.stream.Collectors.toUnmodifiableMap;
 import static java.util.stream.Collectors.toUnmodifiableSet;
-
+import static java.util.stream.Stream.empty;
 import static org.alfresco.extension_inspector.model.Resource.Type.CLASSPATH_ELEMENT;
-import static org.apache.commons.lang3.ObjectUtils.isEmpty;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.alfresco.extension_inspector.analyser.result.Conflict;
@@ -32,8 +34,8 @@ import org.alfresco.extension_inspector.analyser.result.JakartaMigrationConflict
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionCodeAnalysisService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.ClasspathElementResource;
-import org.alfresco.extension_inspector.model.InventoryReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,74 +52,100 @@ public class JakartaMigrationChecker implements Checker
     private ExtensionCodeAnalysisService extensionCodeAnalysisService;
 
     @Override
-    public Stream<Conflict> processInternal(final InventoryReport warInventory, final String alfrescoVersion)
+    public Stream<Conflict> process(final MultiVersionInventory warInventories)
     {
+        if (configService.getExtensionResources(CLASSPATH_ELEMENT).isEmpty())
+        {
+            return empty();
+        }
         final Set<String> jakartaMigrationClassList = configService.getJakartaMigrationClassList();
 
-        Set<String> inventoryAcsClasspathElements = warInventory.getResources().getOrDefault(CLASSPATH_ELEMENT, emptySet())
-                .stream()
-                .map(r -> r.getId())
-                .filter(s -> Checker.isInAllowedList(s, jakartaMigrationClassList))
-                .map(c -> c.substring(1).replace(".class", ""))
-                .collect(Collectors.toSet());
-
-        final Set<String> acsClasspathElements = adjustForProvidedDependencies(inventoryAcsClasspathElements);
+        // the versions in which each element is in the ACS classpath
+        final Map<String, BitSet> acsClasspathElementVersions = new HashMap<>();
+        warInventories.getResources(CLASSPATH_ELEMENT).forEach((r, versions) -> {
+            if (Checker.isInAllowedList(r.getId(), jakartaMigrationClassList))
+            {
+                acsClasspathElementVersions
+                    .computeIfAbsent(r.getId().substring(1).replace(".class", ""), k -> new BitSet())
+                    .or(versions);
+            }
+        });
+        adjustForProvidedDependencies(acsClasspathElementVersions);
 
+        final BitSet versionsWithClasspathElements = warInventories.getVersions(CLASSPATH_ELEMENT);
         final Map<String, Set<ClasspathElementResource>> extensionClassesById =
                 extensionResourceInfoService.retrieveClasspathElementsById();
+        final List<String> versions = warInventories.getVersions();
 
         return extensionCodeAnalysisService
                 .retrieveDependenciesPerClass()
                 .entrySet()
                 .stream()
-                // map to (class_name -> {alfresco_dependencies})
+                // map to (class_name -> {alfresco_dependencies -> versions_in_which_they_are_not_provided})
                 .map(e -> entry(
                         e.getKey(),
                         e.getValue()
                          .stream()
                          .filter(d -> !extensionClassesById.containsKey(d)) // Not defined inside the AMP
                          .filter(d -> Checker.isInAllowedList(d, jakartaMigrationClassList))
-                         .filter(d -> !Checker.isInAllowedList(d, acsClasspathElements))
-                         .map(d -> d.substring(1).replaceAll("/", ".").replace(".class", ""))
-                         .collect(toUnmodifiableSet())
+                         .collect(toUnmodifiableMap(
+                                 d -> d.substring(1).replaceAll("/", ".").replace(".class", ""),
+                                 d -> {
+                                     final BitSet conflictVersions = (BitSet) versionsWithClasspathElements.clone();
+                                     conflictVersions.andNot(
+                                             Checker.versionsInAllowedList(d, acsClasspathElementVersions));
+                                     return conflictVersions;
+                                 },
+                                 (a, b) -> a))
                                ))
-                .filter(e -> !e.getValue().isEmpty()) // strip entries without invalid dependencies
+                .filter(e -> !e.getValue().isEmpty())
+                // then, for each version, keep the dependencies not provided in it
+                .flatMap(e -> versionsWithClasspathElements
+                        .stream()
+                        .mapToObj(i -> entry(
+                                e.getKey(),
+                                entry(
+                                        versions.get(i),
+                                        e.getValue()
+                                         .entrySet()
+                                         .stream()
+                                         .filter(d -> d.getValue().get(i))
+                                         .map(Map.Entry::getKey)
+                                         .collect(toUnmodifiableSet())))))
+                .filter(e -> !e.getValue().getValue().isEmpty()) // strip entries without invalid dependencies
                 .flatMap(e -> extensionClassesById
                         .getOrDefault(e.getKey(), emptySet()) // a class can be provided by multiple jars
                         .stream()
                         .map(r -> new JakartaMigrationConflict(
                                 r,
-                                e.getValue(),
-                                alfrescoVersion
+                                e.getValue().getValue(),
+                                e.getValue().getKey()
                         )));
     }
 
-    @Override
-    public boolean canProcess(final InventoryReport warInventory, final String alfrescoVersion)
-    {
-        return !configService.getExtensionResources(CLASSPATH_ELEMENT).isEmpty() &&
-                !isEmpty(warInventory.getResources().get(CLASSPATH_ELEMENT));
-    }
-
     /* Provided dependencies are not included in the ACS inventory report, which causes javax/jakarta servlet usage to
        be flagged as a conflict. To prevent this an assumption is made that if javax.mail or jakarta.mail exists in the
        inventory then the corresponding javax.servlet or jakarta.servlet can also be added to the acs inventory.
      */
-    private Set<String> adjustForProvidedDependencies(Set<String> classpathElements)
+    private static void adjustForProvidedDependencies(Map<String, BitSet> classpathElementVersions)
     {
-        if (isLibraryInClasspathElements("javax/mail/", classpathElements))
-        {
-            classpathElements.add("javax/servlet");
-        }
-        if (isLibraryInClasspathElements("jakarta/mail/", classpathElements))
-        {
-            classpathElements.add("jakarta/servlet");
-        }
-        return classpathElements;
+        addLibraryVersions("javax/mail/", "javax/servlet", classpathElementVersions);
+        addLibraryVersions("jakarta/mail/", "jakarta/servlet", classpathElementVersions);
     }
 
-    private static boolean isLibraryInClasspathElements(String libraryName, Set<String> elements)
+    private static void addLibraryVersions(String libraryName, String providedLibraryName,
+        Map<String, BitSet> classpathElementVersions)
     {
-        return elements.stream().anyMatch(s -> s.startsWith(libraryName));
+        final BitSet libraryVersions = new BitSet();
+        classpathElementVersions.forEach((s, versions) -> {
+            if (s.startsWith(libraryName))
+            {
+                libraryVersions.or(versions);
+            }
+        });
+        if (!libraryVersions.isEmpty())
+        {
+            classpathElementVersions.computeIfAbsent(providedLibraryName, k -> new BitSet()).or(libraryVersions);
+        }
     }
 }
@@ -17,13 +17,18 @@ package org.alfresco.extension_inspector.analyser.checker;
 
 import static java.util.Collections.emptySet;
 import static java.util.Map.entry;
-import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toUnmodifiableList;
 import static java.util.stream.Collectors.toUnmodifiableSet;
+import static java.util.stream.Stream.empty;
 import static org.alfresco.extension_inspector.analyser.checker.Checker.isInAllowedList;
 import static org.alfresco.extension_inspector.model.Resource.Type.CLASSPATH_ELEMENT;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.alfresco.extension_inspector.analyser.result.Conflict;
@@ -31,8 +36,8 @@ import org.alfresco.extension_inspector.analyser.result.WarLibraryUsageConflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionCodeAnalysisService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.ClasspathElementResource;
-import org.alfresco.extension_inspector.model.InventoryReport;
 import org.alfresco.extension_inspector.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,62 +57,68 @@ public class WarLibraryUsageChecker implements Checker
     private ConfigService configService;
 
     @Override
-    public Stream<Conflict> processInternal(final InventoryReport warInventory, final String alfrescoVersion)
+    public Stream<Conflict> process(final MultiVersionInventory warInventories)
     {
+        if (extensionCodeAnalysisService.retrieveDependenciesPerClass().isEmpty())
+        {
+            return empty();
+        }
         final Set<String> allExtensionDependencies = extensionCodeAnalysisService.retrieveAllDependencies();
         final Set<String> thirdPartyAllowedList = configService.getThirdPartyAllowedList();
 
-        // Iterate through the WAR classpath elements and keep the ones that could be dependencies of the extension.
-        // We keep this intermediate data structure (Set), so that we don't hash the entire War inventory
-        final Map<String, Set<Resource>> resourcesInWar = warInventory
-            .getResources().getOrDefault(CLASSPATH_ELEMENT, emptySet())
-            .stream()
-            .filter(s -> s.getId().endsWith(".class"))
-            .filter(s -> !s.getId().startsWith("/org/alfresco/")) // strip Alfresco Classes
-            .filter(s -> !s.getId().startsWith("/javax/")) // strip JavaX Classes
-            .filter(s -> allExtensionDependencies.contains(s.getId())) // keep if the WAR entry could be a dependency of the extension
-            .collect(groupingBy(Resource::getId,toUnmodifiableSet()));
-        final Set<String> classesInWar = resourcesInWar.keySet();
-        
+        // Keep the WAR classpath elements of all the versions that could be dependencies of the extension,
+        // with the versions in which each of them is present
+        final Map<String, Map<Resource, BitSet>> resourcesInWar = new HashMap<>();
+        warInventories.getResources(CLASSPATH_ELEMENT).forEach((r, versions) -> {
+            if (r.getId().endsWith(".class") &&
+                !r.getId().startsWith("/org/alfresco/") && // strip Alfresco Classes
+                !r.getId().startsWith("/javax/") && // strip JavaX Classes
+                allExtensionDependencies.contains(r.getId())) // keep if the WAR entry could be a dependency of the extension
+            {
+                resourcesInWar.computeIfAbsent(r.getId(), k -> new HashMap<>()).put(r, versions);
+            }
+        });
+
         final Map<String, Set<ClasspathElementResource>> extensionClassesById =
             extensionResourceInfoService.retrieveClasspathElementsById();
+        final List<String> versions = warInventories.getVersions();
 
-        // now we can go back through the AMP dependencies and search for conflicts
         return extensionCodeAnalysisService
             .retrieveDependenciesPerClass()
             .entrySet()
             .stream()
-            // map to (class_name -> {dependencies_only_present_int_the_WAR})
+            // map to (class_name -> {WAR_resources_of_the_dependencies -> versions})
             .map(e -> entry(
                 e.getKey(),
                 e.getValue()
                  .stream()
                  .filter(c -> !isInAllowedList(c, thirdPartyAllowedList))
                  .filter(d -> !extensionClassesById.containsKey(d)) // dependencies not provided in the extension
-                 .filter(classesInWar::contains) // dependencies provided by the WAR
-                 .collect(toUnmodifiableSet())
+                 .filter(resourcesInWar::containsKey) // dependencies provided by the WAR (in some version)
+                 .flatMap(d -> resourcesInWar.get(d).entrySet().stream())
+                 .collect(toUnmodifiableList())
             ))
             .filter(e -> !e.getValue().isEmpty()) // strip entries without invalid dependencies
+            // then, for each version, keep the resources present in it
+            .flatMap(e -> IntStream
+                .range(0, versions.size())
+                .mapToObj(i -> entry(
+                    e.getKey(),
+                    entry(
+                        versions.get(i),
+                        e.getValue()
+                         .stream()
+                         .filter(r -> r.getValue().get(i))
+                         .map(Map.Entry::getKey)
+                         .collect(toUnmodifiableSet())))))
+            .filter(e -> !e.getValue().getValue().isEmpty())
             .flatMap(e -> extensionClassesById
                 .getOrDefault(e.getKey(), emptySet()) // a class can be provided by multiple jars
                 .stream()
                 .map(r -> new WarLibraryUsageConflict(
                     r,
-                    e.getValue()
-                        .stream()
-                        .flatMap(s->resourcesInWar.get(s).stream())
-                        .collect(toUnmodifiableSet()),
-                    alfrescoVersion
-                ))
-                .filter(c -> !c.getDependencies().isEmpty())
-            );
-
-        // TODO: create conflicts for extension dependencies not satisfied by either the AMP or the WAR libraries
-    }
-
-    @Override
-    public boolean canProcess(final InventoryReport warInventory, final String alfrescoVersion)
-    {
-        return !extensionCodeAnalysisService.retrieveDependenciesPerClass().isEmpty();
+                    e.getValue().getValue(),
+                    e.getValue().getKey()
+                )));
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.alfresco.extension_inspector.analyser.parser;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.InventoryDelta;
+import org.alfresco.extension_inspector.model.InventoryMetadata;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the inventory reports written in the compact binary format (see {@link BinaryInventoryFormat}).
+ */
+@Component
+public class BinaryInventoryParser implements InventoryParser
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryInventoryParser.class);
+
+    /**
+     * @param path an inventory report file name or path
+     * @return whether the report is in the binary format, based on its extension
+     */
+    public static boolean isBinaryInventory(String path)
+    {
+        return FilenameUtils.getExtension(path).equalsIgnoreCase(BinaryInventoryFormat.FILE_EXTENSION);
+    }
+
+    /**
+     * @param path an inventory report file name or path
+     * @return whether the report is a delta report (see {@link InventoryDelta}), based on its extension
+     */
+    public static boolean isDeltaInventory(String path)
+    {
+        return FilenameUtils.getExtension(path).equalsIgnoreCase(BinaryInventoryFormat.DELTA_FILE_EXTENSION);
+    }
+
+    @Override
+    public InventoryReport parseReport(String path)
+    {
+        try (InputStream is = new FileInputStream(path))
+        {
+            return BinaryInventoryFormat.read(is);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            LOGGER.error("Failed to read inventory file: " + path, e);
+            throw new RuntimeException("Failed to read file: " + path, e);
+        }
+    }
+
+    @Override
+    public InventoryReport parseReport(final InputStream is)
+    {
+        try
+        {
+            return BinaryInventoryFormat.read(is);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            LOGGER.error("Failed to read inventory stream", e);
+            throw new RuntimeException("Failed to read inventory stream: ", e);
+        }
+    }
+
+    @Override
+    public InventoryMetadata parseMetadata(final InputStream is)
+    {
+        try
+        {
+            return BinaryInventoryFormat.readMetadata(is);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            LOGGER.error("Failed to read inventory stream", e);
+            throw new RuntimeException("Failed to read inventory stream: ", e);
+        }
+    }
+
+    /**
+     * @param is the delta report content
+     * @return the delta, to apply to the report of its base version
+     */
+    public InventoryDelta parseDelta(final InputStream is)
+    {
+        try
+        {
+            return BinaryInventoryFormat.readDelta(is);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            LOGGER.error("Failed to read delta inventory stream", e);
+            throw new RuntimeException("Failed to read delta inventory stream: ", e);
+        }
+    }
+}
@@ -17,6 +17,7 @@ package org.alfresco.extension_inspector.analyser.parser;
 
 import java.io.InputStream;
 
+import org.alfresco.extension_inspector.model.InventoryMetadata;
 import org.alfresco.extension_inspector.model.InventoryReport;
 
 /**
@@ -27,4 +28,12 @@ public interface InventoryParser
     InventoryReport parseReport(String path);
 
     InventoryReport parseReport(InputStream is);
+
+    /**
+     * Reads the header of a report, without its resources.
+     *
+     * @param is the report content
+     * @return the versions of the report
+     */
+    InventoryMetadata parseMetadata(InputStream is);
 }
@@ -19,17 +19,24 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.alfresco.extension_inspector.model.InventoryMetadata;
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
+ * The default {@link InventoryParser}, see also {@link BinaryInventoryParser}.
+ *
  * @author Lucian Tuca
  */
+@Primary
 @Component
 public class JSONInventoryParser implements InventoryParser
 {
@@ -53,6 +60,7 @@ public class JSONInventoryParser implements InventoryParser
         }
     }
 
+    @Override
     public InventoryReport parseReport(final InputStream is)
     {
         try
@@ -65,4 +73,45 @@ public class JSONInventoryParser implements InventoryParser
             throw new RuntimeException("Failed to read inventory stream: ", e);
         }
     }
+
+    /**
+     * Streams through the top level fields of the report until both versions are found. The reports
+     * written by the inventory start with them, so the resources are usually not even tokenized.
+     */
+    @Override
+    public InventoryMetadata parseMetadata(final InputStream is)
+    {
+        try (JsonParser parser = objectMapper.getFactory().createParser(is))
+        {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+            {
+                throw new IOException("Not an inventory report");
+            }
+            String schemaVersion = null;
+            String alfrescoVersion = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME && (schemaVersion == null || alfrescoVersion == null))
+            {
+                final String field = parser.currentName();
+                parser.nextToken();
+                if ("schemaVersion".equals(field))
+                {
+                    schemaVersion = parser.getValueAsString();
+                }
+                else if ("alfrescoVersion".equals(field))
+                {
+                    alfrescoVersion = parser.getValueAsString();
+                }
+                else
+                {
+                    parser.skipChildren();
+                }
+            }
+            return new InventoryMetadata(schemaVersion, alfrescoVersion);
+        }
+        catch (IOException e)
+        {
+            LOGGER.error("Failed to read inventory stream", e);
+            throw new RuntimeException("Failed to read inventory stream: ", e);
+        }
+    }
 }
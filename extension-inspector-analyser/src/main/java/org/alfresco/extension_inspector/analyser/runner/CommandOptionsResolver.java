@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 
+import org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser;
 import org.alfresco.extension_inspector.analyser.store.AlfrescoTargetVersionParser;
 import org.apache.commons.io.FilenameUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -145,8 +146,8 @@ class CommandOptionsResolver
 
     private static boolean isInventoryValid(final String warInventory)
     {
-        return new File(warInventory).exists() && FilenameUtils.getExtension(warInventory)
-            .equalsIgnoreCase("json");
+        return new File(warInventory).exists() && (FilenameUtils.getExtension(warInventory)
+            .equalsIgnoreCase("json") || BinaryInventoryParser.isBinaryInventory(warInventory));
     }
 
     public static boolean isVerboseOutput(ApplicationArguments args)
@@ -15,21 +15,32 @@
  */
 package org.alfresco.extension_inspector.analyser.service;
 
+import static java.util.Map.entry;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import org.alfresco.extension_inspector.analyser.result.Conflict;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.analyser.store.WarInventoryReportStore;
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -48,6 +59,20 @@ public class AnalyserService
     @Autowired
     private AnalyserOutputService outputService;
 
+    /**
+     * The number of target versions whose inventories are loaded concurrently: 1 loads them one after the
+     * other, 0 (or less) means the available processors.
+     */
+    @Value("${analyser-parallelism:1}")
+    private int parallelism;
+
+    /**
+     * The number of parsed inventories in flight (being loaded or waiting to be indexed), which bounds the
+     * heap used by the concurrent loading: 0 (or less) means the parallelism.
+     */
+    @Value("${analyser-inventories-in-flight:0}")
+    private int inventoriesInFlight;
+
     /**
      * Compares the extension with the WAR inventories of the requested Alfresco Versions and prints the results.
      *
@@ -55,23 +80,11 @@ public class AnalyserService
      */
     public void analyseAgainstKnownVersions(final SortedSet<String> alfrescoVersions)
     {
-        // The outputService needs the results (Conflicts) grouped by their type and then by their resource IDs
-        final Map<Conflict.Type, Map<String, Set<Conflict>>> conflictPerTypeAndResourceId = alfrescoVersions
-            .stream()
-            // for each WAR version call the warComparatorService (which in turn calls the Checkers)
-            .flatMap(version -> warComparatorService.findConflicts(warInventoryStore.retrieve(version), version))
-            // group the found conflicts first by their type => Map<Conflict.Type, ...>
-            .collect(groupingBy(
-                Conflict::getType,
-                () -> new EnumMap<>(Conflict.Type.class), // use EnumMaps - they're fast & ordered
-                // then group the conflicts by their resource ID => Map<String, ...>
-                groupingBy(
-                    conflict -> conflict.getAmpResourceInConflict().getId(),
-                    TreeMap::new, // use an ordered collection
-                    toUnmodifiableSet()) // => Set<Conflict>
-            ));
+        // index the resources of all the versions, so that the checkers go through them only once
+        final MultiVersionInventory warInventories = loadInventories(alfrescoVersions, warInventoryStore::retrieve);
+        LOGGER.debug("Inventory report cache: " + warInventoryStore.getCacheStatistics());
 
-        outputService.print(conflictPerTypeAndResourceId);
+        analyse(warInventories);
     }
 
     /**
@@ -81,14 +94,89 @@ public class AnalyserService
      */
     public void analyseAgainstWarInventories(final Set<String> warInventoryPaths)
     {
-        final Map<String, InventoryReport> warInventories = inventoryLoaderService.loadInventoryReports(warInventoryPaths);
+        // only the headers are read upfront, each report is fully read when it is indexed
+        final Map<String, String> warInventoryCatalog = inventoryLoaderService.loadInventoryCatalog(warInventoryPaths);
+
+        final MultiVersionInventory warInventories = loadInventories(warInventoryCatalog.keySet(),
+            version -> inventoryLoaderService.loadInventoryReport(warInventoryCatalog.get(version)));
+
+        analyse(warInventories);
+    }
 
+    /**
+     * Loads the inventories of the given versions, concurrently when {@code analyser-parallelism} allows it,
+     * and indexes them in the order of the versions, so that the index (and the output) is the same whatever
+     * the parallelism. Each report is released once it is indexed, so only the inventories in flight are kept
+     * (the store doesn't cache them, unless {@code inventory-report-cache-size} is set).
+     */
+    private MultiVersionInventory loadInventories(final Collection<String> alfrescoVersions,
+        final Function<String, InventoryReport> loader)
+    {
+        final MultiVersionInventory warInventories = new MultiVersionInventory();
+        final int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        final int maxInFlight = inventoriesInFlight > 0 ? inventoriesInFlight : threads;
+        final int poolSize = Math.min(alfrescoVersions.size(), Math.min(threads, maxInFlight));
+        if (poolSize <= 1)
+        {
+            alfrescoVersions.forEach(version -> warInventories.add(version, loader.apply(version)));
+            return warInventories;
+        }
+
+        LOGGER.debug("Loading " + alfrescoVersions.size() + " WAR inventories with " + poolSize +
+                     " threads, " + maxInFlight + " at most in flight");
+        final ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        final Deque<Map.Entry<String, Future<InventoryReport>>> inFlight = new ArrayDeque<>();
+        try
+        {
+            for (String version : alfrescoVersions)
+            {
+                // the oldest inventory is indexed (and released) before another one is loaded
+                if (inFlight.size() >= maxInFlight)
+                {
+                    addOldest(warInventories, inFlight);
+                }
+                inFlight.add(entry(version, executor.submit(() -> loader.apply(version))));
+            }
+            while (!inFlight.isEmpty())
+            {
+                addOldest(warInventories, inFlight);
+            }
+            return warInventories;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading the WAR inventories", e);
+        }
+        catch (ExecutionException e)
+        {
+            // keep the failure of the loader as it is, as in a sequential run
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to load the WAR inventories", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void addOldest(final MultiVersionInventory warInventories,
+        final Deque<Map.Entry<String, Future<InventoryReport>>> inFlight)
+        throws InterruptedException, ExecutionException
+    {
+        final Map.Entry<String, Future<InventoryReport>> oldest = inFlight.remove();
+        warInventories.add(oldest.getKey(), oldest.getValue().get());
+    }
+
+    private void analyse(final MultiVersionInventory warInventories)
+    {
         // The outputService needs the results (Conflicts) grouped by their type and then by their resource IDs
-        final Map<Conflict.Type, Map<String, Set<Conflict>>> conflictPerTypeAndResourceId = warInventories
-            .entrySet()
-            .stream()
-            // for each WAR version call the warComparatorService (which in turn calls the Checkers)
-            .flatMap(e -> warComparatorService.findConflicts(e.getValue(), e.getKey()))
+        final Map<Conflict.Type, Map<String, Set<Conflict>>> conflictPerTypeAndResourceId = warComparatorService
+            // call the warComparatorService (which in turn calls the Checkers) for all the WAR versions
+            .findConflicts(warInventories)
             // group the found conflicts first by their type => Map<Conflict.Type, ...>
             .collect(groupingBy(
                 Conflict::getType,
@@ -42,6 +42,9 @@ import org.springframework.stereotype.Component;
  * Some Checkers need the same info about an Extension. But even if
  * they need different info, they'll still need it multiple times (once
  * for each WAR version).
+ * <p/>
+ * The checkers can run concurrently, so the bytecode is parsed by the
+ * first of them asking for it, while the others wait for it.
  *
  * @author Cezar Leahu
  * @author Lucian Tuca
@@ -56,8 +59,9 @@ public class ExtensionCodeAnalysisService
     @Autowired
     private BytecodeReader bytecodeReader;
 
-    private Map<String, Set<String>> dependenciesPerClass;
-    private Set<String> allDependencies;
+    // computed once, on first use, as the checkers may ask for them concurrently (see WarComparatorService)
+    private volatile Map<String, Set<String>> dependenciesPerClass;
+    private volatile Set<String> allDependencies;
 
     /**
      * Retrieve a map of (class_name -> {dependencies}} for the extension.
@@ -70,25 +74,33 @@ public class ExtensionCodeAnalysisService
      */
     public Map<String, Set<String>> retrieveDependenciesPerClass()
     {
-        if (dependenciesPerClass == null)
+        Map<String, Set<String>> result = dependenciesPerClass;
+        if (result == null)
         {
-            // each class can have multiple definitions (different jars), hence a list of bytecode instances per class
-            final Map<String, List<byte[]>> bytecodePerClass = bytecodeReader.readArtifact(
-                configService.getExtensionPath());
+            synchronized (this)
+            {
+                result = dependenciesPerClass;
+                if (result == null)
+                {
+                    // each class can have multiple definitions (different jars), hence a list of bytecode instances per class
+                    final Map<String, List<byte[]>> bytecodePerClass = bytecodeReader.readArtifact(
+                        configService.getExtensionPath());
 
-            dependenciesPerClass = bytecodePerClass
-                .entrySet()
-                .stream()
-                .collect(toUnmodifiableMap(
-                    Map.Entry::getKey,
-                    e -> e.getValue()
-                          .stream()
-                          .map(v -> compileClassDependenciesFromBytecode(e.getKey(), v))
-                          .flatMap(Collection::stream) // due to multiple instances of the same class
-                          .collect(toUnmodifiableSet())
-                ));
+                    dependenciesPerClass = result = bytecodePerClass
+                        .entrySet()
+                        .stream()
+                        .collect(toUnmodifiableMap(
+                            Map.Entry::getKey,
+                            e -> e.getValue()
+                                  .stream()
+                                  .map(v -> compileClassDependenciesFromBytecode(e.getKey(), v))
+                                  .flatMap(Collection::stream) // due to multiple instances of the same class
+                                  .collect(toUnmodifiableSet())
+                        ));
+                }
+            }
         }
-        return dependenciesPerClass;
+        return result;
     }
 
     /**
@@ -101,15 +113,23 @@ public class ExtensionCodeAnalysisService
      */
     public Set<String> retrieveAllDependencies()
     {
-        if (allDependencies == null)
+        Set<String> result = allDependencies;
+        if (result == null)
         {
-            allDependencies = retrieveDependenciesPerClass()
-                .values()
-                .stream()
-                .flatMap(Collection::stream)
-                .collect(toUnmodifiableSet());
+            synchronized (this)
+            {
+                result = allDependencies;
+                if (result == null)
+                {
+                    allDependencies = result = retrieveDependenciesPerClass()
+                        .values()
+                        .stream()
+                        .flatMap(Collection::stream)
+                        .collect(toUnmodifiableSet());
+                }
+            }
         }
-        return allDependencies;
+        return result;
     }
 
     /**
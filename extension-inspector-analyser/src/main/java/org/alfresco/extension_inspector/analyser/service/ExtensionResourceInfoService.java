@@ -46,6 +46,9 @@ import org.springframework.stereotype.Component;
  * Some Checkers need the same info about an Extension. But even if
  * they need different info, they'll still need it multiple times (once
  * for each WAR version).
+ * <p/>
+ * The checkers can run concurrently, so each piece of info is computed
+ * by the first of them asking for it, while the others wait for it.
  *
  * @author Cezar Leahu
  * @author Lucian Tuca
@@ -60,10 +63,11 @@ public class ExtensionResourceInfoService
     @Autowired
     private ConfigService configService;
 
-    private Map<String, Set<BeanResource>> beanOverridesById;
-    private Map<String, Set<ClasspathElementResource>> classpathElementsById;
-    private Map<String, FileResource> filesByDestination;
-    private Set<BeanResource> beansOfAlfrescoTypes;
+    // computed once, on first use, as the checkers may ask for them concurrently (see WarComparatorService)
+    private volatile Map<String, Set<BeanResource>> beanOverridesById;
+    private volatile Map<String, Set<ClasspathElementResource>> classpathElementsById;
+    private volatile Map<String, FileResource> filesByDestination;
+    private volatile Set<BeanResource> beansOfAlfrescoTypes;
 
     /**
      * Compile a filtered map of bean Resources by ID.
@@ -74,18 +78,26 @@ public class ExtensionResourceInfoService
      */
     public Map<String, Set<BeanResource>> retrieveBeanOverridesById()
     {
-        if (beanOverridesById == null)
+        Map<String, Set<BeanResource>> result = beanOverridesById;
+        if (result == null)
         {
-            final Set<String> allowedList = configService.getBeanOverrideAllowedList();
-
-            beanOverridesById = configService
-                .getExtensionResources(BEAN)
-                .stream()
-                .filter(r -> !allowedList.contains(r.getId()))
-                .map(r -> (BeanResource) r)
-                .collect(groupingBy(Resource::getId, toUnmodifiableSet()));
+            synchronized (this)
+            {
+                result = beanOverridesById;
+                if (result == null)
+                {
+                    final Set<String> allowedList = configService.getBeanOverrideAllowedList();
+
+                    beanOverridesById = result = configService
+                        .getExtensionResources(BEAN)
+                        .stream()
+                        .filter(r -> !allowedList.contains(r.getId()))
+                        .map(r -> (BeanResource) r)
+                        .collect(groupingBy(Resource::getId, toUnmodifiableSet()));
+                }
+            }
         }
-        return beanOverridesById;
+        return result;
     }
 
     /**
@@ -99,19 +111,27 @@ public class ExtensionResourceInfoService
      */
     public Map<String, Set<ClasspathElementResource>> retrieveClasspathElementsById()
     {
-        if (classpathElementsById == null)
+        Map<String, Set<ClasspathElementResource>> result = classpathElementsById;
+        if (result == null)
         {
-            classpathElementsById = configService
-                .getExtensionResources(CLASSPATH_ELEMENT)
-                .stream()
-                .map(r -> (ClasspathElementResource) r)
-                .filter(r -> !r.getId().toLowerCase().endsWith(".txt") && !r.getId().toLowerCase().endsWith(".md"))
-                .collect(groupingBy(
-                    Resource::getId,
-                    toUnmodifiableSet()
-                ));
+            synchronized (this)
+            {
+                result = classpathElementsById;
+                if (result == null)
+                {
+                    classpathElementsById = result = configService
+                        .getExtensionResources(CLASSPATH_ELEMENT)
+                        .stream()
+                        .map(r -> (ClasspathElementResource) r)
+                        .filter(r -> !r.getId().toLowerCase().endsWith(".txt") && !r.getId().toLowerCase().endsWith(".md"))
+                        .collect(groupingBy(
+                            Resource::getId,
+                            toUnmodifiableSet()
+                        ));
+                }
+            }
         }
-        return classpathElementsById;
+        return result;
     }
 
     /**
@@ -121,17 +141,25 @@ public class ExtensionResourceInfoService
      */
     public Map<String, FileResource> retrieveFilesByDestination()
     {
-        final Map<String, String> fileMappings = configService.getFileMappings();
-
-        if (filesByDestination == null)
+        Map<String, FileResource> result = filesByDestination;
+        if (result == null)
         {
-            filesByDestination = configService
-                .getExtensionResources(FILE)
-                .stream()
-                .map(r -> (FileResource) r)
-                .collect(toUnmodifiableMap(r -> computeDestination(r, fileMappings), identity()));
+            synchronized (this)
+            {
+                result = filesByDestination;
+                if (result == null)
+                {
+                    final Map<String, String> fileMappings = configService.getFileMappings();
+
+                    filesByDestination = result = configService
+                        .getExtensionResources(FILE)
+                        .stream()
+                        .map(r -> (FileResource) r)
+                        .collect(toUnmodifiableMap(r -> computeDestination(r, fileMappings), identity()));
+                }
+            }
         }
-        return filesByDestination;
+        return result;
     }
 
     /**
@@ -142,17 +170,25 @@ public class ExtensionResourceInfoService
      */
     public Set<BeanResource> retrieveBeansOfAlfrescoTypes()
     {
-        if (beansOfAlfrescoTypes == null)
+        Set<BeanResource> result = beansOfAlfrescoTypes;
+        if (result == null)
         {
-            beansOfAlfrescoTypes = configService
-                .getExtensionResources(BEAN)
-                .stream()
-                .map(r -> (BeanResource) r)
-                .filter(r -> r.getBeanClass() != null)
-                .filter(r -> r.getBeanClass().startsWith(ORG_ALFRESCO_PREFIX))
-                .collect(toUnmodifiableSet());
+            synchronized (this)
+            {
+                result = beansOfAlfrescoTypes;
+                if (result == null)
+                {
+                    beansOfAlfrescoTypes = result = configService
+                        .getExtensionResources(BEAN)
+                        .stream()
+                        .map(r -> (BeanResource) r)
+                        .filter(r -> r.getBeanClass() != null)
+                        .filter(r -> r.getBeanClass().startsWith(ORG_ALFRESCO_PREFIX))
+                        .collect(toUnmodifiableSet());
+                }
+            }
         }
-        return beansOfAlfrescoTypes;
+        return result;
     }
 
     /**
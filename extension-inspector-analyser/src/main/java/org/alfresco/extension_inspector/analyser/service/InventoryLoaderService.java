@@ -17,17 +17,20 @@
 package org.alfresco.extension_inspector.analyser.service;
 
 import static java.util.Collections.unmodifiableSortedMap;
-import static java.util.stream.Collectors.toMap;
+import static org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser.isBinaryInventory;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
-import java.util.function.Function;
+import java.util.function.BiFunction;
 
+import org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser;
 import org.alfresco.extension_inspector.analyser.parser.InventoryParser;
+import org.alfresco.extension_inspector.model.InventoryMetadata;
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,31 +43,63 @@ public class InventoryLoaderService
     private static final Logger LOGGER = LoggerFactory.getLogger(InventoryLoaderService.class);
     @Autowired
     private InventoryParser inventoryParser;
+    @Autowired
+    private BinaryInventoryParser binaryInventoryParser;
 
     /**
-     * Reads and loads {@link InventoryReport}s from a {@link Set} of .json files
+     * Reads and loads {@link InventoryReport}s from a {@link Set} of .json (or binary) files
      *
      * @return a {@link Map} of (alfrescoVersion -> InventoryReport)
      */
     public SortedMap<String, InventoryReport> loadInventoryReports(final Set<String> warInventoryPaths)
     {
-        final SortedMap<String, InventoryReport> map = warInventoryPaths
-            .stream()
-            .map(this::retrieveInventory)
-            .collect(toMap(
-                InventoryReport::getAlfrescoVersion,
-                Function.identity(),
-                (a, b) -> b,
-                TreeMap::new
-            ));
+        final SortedMap<String, InventoryReport> map = new TreeMap<>();
+        loadInventoryCatalog(warInventoryPaths).forEach((version, path) -> map.put(version, loadInventoryReport(path)));
         return unmodifiableSortedMap(map);
     }
 
-    private InventoryReport retrieveInventory(final String path)
+    /**
+     * Reads only the headers of a {@link Set} of .json (or binary) inventory files, so that the reports
+     * of the same version are deduplicated before any of them is fully read
+     * (see {@link #loadInventoryReport(String)}).
+     *
+     * @return a {@link Map} of (alfrescoVersion -> inventory file path), the last given file winning
+     * for a version with several files
+     */
+    public SortedMap<String, String> loadInventoryCatalog(final Set<String> warInventoryPaths)
+    {
+        final SortedMap<String, String> catalog = new TreeMap<>();
+        for (String path : warInventoryPaths)
+        {
+            final String alfrescoVersion = retrieveMetadata(path).getAlfrescoVersion();
+            if (alfrescoVersion == null)
+            {
+                throw new RuntimeException("No Alfresco version in inventory resource: " + path);
+            }
+            catalog.put(alfrescoVersion, path);
+        }
+        return unmodifiableSortedMap(catalog);
+    }
+
+    /**
+     * @param path a .json (or binary) inventory file
+     * @return the full {@link InventoryReport}
+     */
+    public InventoryReport loadInventoryReport(final String path)
+    {
+        return retrieve(path, (parser, is) -> parser.parseReport(is));
+    }
+
+    private InventoryMetadata retrieveMetadata(final String path)
+    {
+        return retrieve(path, InventoryParser::parseMetadata);
+    }
+
+    private <T> T retrieve(final String path, final BiFunction<InventoryParser, InputStream, T> reader)
     {
-        try
+        try (InputStream is = new FileInputStream(path))
         {
-            return inventoryParser.parseReport(new FileInputStream(path));
+            return reader.apply(isBinaryInventory(path) ? binaryInventoryParser : inventoryParser, is);
         }
         catch (IOException e)
         {
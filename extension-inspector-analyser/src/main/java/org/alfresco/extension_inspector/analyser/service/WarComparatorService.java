@@ -15,28 +15,128 @@
  */
 package org.alfresco.extension_inspector.analyser.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+import jakarta.annotation.PreDestroy;
+
 import org.alfresco.extension_inspector.analyser.checker.Checker;
 import org.alfresco.extension_inspector.analyser.result.Conflict;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Runs all the {@link Checker}s against the WAR inventories, concurrently on a dedicated pool.
+ * <p/>
+ * The checkers share the extension information computed once by the {@link ExtensionResourceInfoService} and
+ * the {@link ExtensionCodeAnalysisService}. The conflicts are returned in the order of the checkers, whatever
+ * the parallelism.
+ */
 @Service
 public class WarComparatorService
 {
     @Autowired
     private List<Checker> checkers;
 
+    /**
+     * The number of checkers run concurrently: 1 means sequential processing, 0 (or less) means the number of
+     * available processors.
+     */
+    @Value("${checker-parallelism:0}")
+    private int parallelism;
+
+    /**
+     * The pool running the checkers, created on first use.
+     */
+    private ForkJoinPool checkerPool;
+
     public Stream<Conflict> findConflicts(final InventoryReport warInventory, final String alfrescoVersion)
     {
         // Call all checkers and return the found list of conflicts
-        return checkers
-            .stream()
-            //todo enable parallel streams and check for performance improvements
-            //.parallelStream()
-            .flatMap(c -> c.process(warInventory, alfrescoVersion));
+        return findConflicts(c -> c.process(warInventory, alfrescoVersion));
+    }
+
+    public Stream<Conflict> findConflicts(final MultiVersionInventory warInventories)
+    {
+        // Call all checkers once, for all the versions
+        return findConflicts(c -> c.process(warInventories));
+    }
+
+    private Stream<Conflict> findConflicts(final Function<Checker, Stream<Conflict>> process)
+    {
+        final int poolSize = Math.min(checkers.size(), getPoolSize());
+        if (poolSize <= 1)
+        {
+            return checkers
+                .stream()
+                .flatMap(process);
+        }
+
+        // the streams of the checkers are lazy, so they are collected on the pool
+        final ForkJoinPool pool = getCheckerPool(poolSize);
+        final List<Future<List<Conflict>>> futures = new ArrayList<>(checkers.size());
+        try
+        {
+            for (Checker checker : checkers)
+            {
+                futures.add(pool.submit(() -> process.apply(checker).toList()));
+            }
+            final List<Conflict> conflicts = new ArrayList<>();
+            for (Future<List<Conflict>> future : futures)
+            {
+                conflicts.addAll(future.get());
+            }
+            return conflicts.stream();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed running the checkers", e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running the checkers", e);
+        }
+        finally
+        {
+            // on failure, the other checkers are not needed anymore
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private int getPoolSize()
+    {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private synchronized ForkJoinPool getCheckerPool(int poolSize)
+    {
+        if (checkerPool == null)
+        {
+            checkerPool = new ForkJoinPool(poolSize);
+        }
+        return checkerPool;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown()
+    {
+        if (checkerPool != null)
+        {
+            checkerPool.shutdownNow();
+            checkerPool = null;
+        }
     }
 }
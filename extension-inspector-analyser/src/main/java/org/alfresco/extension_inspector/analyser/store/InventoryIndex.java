@@ -0,0 +1,196 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.store;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.commons.InventoryUtils;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * A precompiled index of the bundled inventory reports (see {@link InventoryIndexCompiler}): a manifest
+ * of the versions, followed by their reports in the binary format (see {@link BinaryInventoryFormat}).
+ * <p/>
+ * Layout, written with a {@link DataOutputStream}:
+ * <pre>
+ * "AEIX" format-version(byte) count(int)
+ * manifest: for each version, version(UTF) delta(boolean) offset(long) length(int)
+ * the binary reports and delta reports, at their offset from the start of the index
+ * </pre>
+ * Only the manifest is read upfront. The report of a version is then read on its own: it is memory
+ * mapped when the index is a file, and read from the index stream otherwise (e.g. from the jar).
+ */
+public class InventoryIndex
+{
+    public static final String FILE_EXTENSION = "idx";
+
+    private static final byte[] MAGIC = {'A', 'E', 'I', 'X'};
+    private static final int FORMAT_VERSION = 1;
+
+    private InventoryIndex()
+    {
+    }
+
+    /**
+     * @param reports the content of the binary (or delta) report of each version, by version
+     * @param deltas whether the report of each version is a delta report, by version
+     * @param os the stream to write the index to (not closed)
+     * @throws IOException
+     */
+    public static void write(Map<String, byte[]> reports, Map<String, Boolean> deltas, OutputStream os)
+        throws IOException
+    {
+        final DataOutputStream dos = new DataOutputStream(os);
+        dos.write(MAGIC);
+        dos.writeByte(FORMAT_VERSION);
+        dos.writeInt(reports.size());
+
+        // the offsets depend on the size of the manifest, computed first
+        long offset = MAGIC.length + 1 + Integer.BYTES;
+        for (String version : reports.keySet())
+        {
+            offset += manifestEntrySize(version);
+        }
+        for (Map.Entry<String, byte[]> report : reports.entrySet())
+        {
+            dos.writeUTF(report.getKey());
+            dos.writeBoolean(deltas.getOrDefault(report.getKey(), false));
+            dos.writeLong(offset);
+            dos.writeInt(report.getValue().length);
+            offset += report.getValue().length;
+        }
+        for (byte[] report : reports.values())
+        {
+            dos.write(report);
+        }
+        dos.flush();
+    }
+
+    private static long manifestEntrySize(String version) throws IOException
+    {
+        final DataOutputStream dos = new DataOutputStream(OutputStream.nullOutputStream());
+        dos.writeUTF(version);
+        return dos.size() + 1 + Long.BYTES + Integer.BYTES;
+    }
+
+    /**
+     * @param index the index
+     * @return a resource for the report of each version of the index, by version, named like the report
+     * it was compiled from (e.g. "7.0.0.bin" or "7.0.1.delta")
+     * @throws IOException if the index can't be read
+     * @throws IllegalArgumentException if the index is not supported
+     */
+    public static Map<String, AbstractResource> read(Resource index) throws IOException
+    {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(index.getInputStream())))
+        {
+            final byte[] magic = dis.readNBytes(MAGIC.length);
+            if (!Arrays.equals(magic, MAGIC))
+            {
+                throw new IllegalArgumentException("Not an inventory index: " + index.getDescription());
+            }
+            final int version = dis.readUnsignedByte();
+            if (version != FORMAT_VERSION)
+            {
+                throw new IllegalArgumentException("Unsupported inventory index version: " + version);
+            }
+
+            final int count = dis.readInt();
+            final Map<String, AbstractResource> reports = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++)
+            {
+                final String alfrescoVersion = dis.readUTF();
+                final boolean delta = dis.readBoolean();
+                reports.put(alfrescoVersion, new IndexedReport(index, alfrescoVersion, delta, dis.readLong(), dis.readInt()));
+            }
+            return reports;
+        }
+    }
+
+    private static final class IndexedReport extends AbstractResource
+    {
+        private final Resource index;
+        private final String filename;
+        private final long offset;
+        private final int length;
+
+        private IndexedReport(Resource index, String alfrescoVersion, boolean delta, long offset, int length)
+        {
+            this.index = index;
+            this.filename = alfrescoVersion + "." +
+                            (delta ? BinaryInventoryFormat.DELTA_FILE_EXTENSION : BinaryInventoryFormat.FILE_EXTENSION);
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public String getFilename()
+        {
+            return filename;
+        }
+
+        @Override
+        public String getDescription()
+        {
+            return filename + " in " + index.getDescription();
+        }
+
+        @Override
+        public long contentLength()
+        {
+            return length;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException
+        {
+            if (index.isFile())
+            {
+                try (FileChannel channel = FileChannel.open(index.getFile().toPath(), READ))
+                {
+                    // the mapping stays valid once the channel is closed
+                    return InventoryUtils.newInputStream(channel.map(READ_ONLY, offset, length));
+                }
+            }
+            try (InputStream is = index.getInputStream())
+            {
+                is.skipNBytes(offset);
+                final byte[] report = is.readNBytes(length);
+                if (report.length != length)
+                {
+                    throw new IOException("Truncated inventory index: " + index.getDescription());
+                }
+                return new ByteArrayInputStream(report);
+            }
+        }
+    }
+}
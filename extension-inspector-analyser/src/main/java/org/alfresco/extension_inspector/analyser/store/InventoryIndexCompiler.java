@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.store;
+
+import static java.util.Comparator.comparing;
+import static org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser.isBinaryInventory;
+import static org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser.isDeltaInventory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compiles the bundled inventory reports of a folder into an {@link InventoryIndex}, run when the tool is
+ * packaged so that the {@link WarInventoryReportStore} neither scans the classpath nor parses JSON.
+ * <p/>
+ * Each version is compiled from its cheapest report, like the store does when there is no index: a binary
+ * report or a delta report is copied as is, a JSON report is converted to the binary format.
+ */
+public class InventoryIndexCompiler
+{
+    private static final Logger logger = LoggerFactory.getLogger(InventoryIndexCompiler.class);
+
+    private InventoryIndexCompiler()
+    {
+    }
+
+    /**
+     * @param args the folder of the bundled inventory reports and the index file to write
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            throw new IllegalArgumentException("Usage: InventoryIndexCompiler <inventory-reports-folder> <index-file>");
+        }
+        final Path folder = Path.of(args[0]);
+        final Path index = Path.of(args[1]);
+        if (!Files.isDirectory(folder))
+        {
+            // a stale index of a previous build would otherwise be used instead of the reports
+            Files.deleteIfExists(index);
+            logger.warn("No inventory reports folder " + folder + ", the inventory index is not written");
+            return;
+        }
+        final SortedMap<String, Path> reports = compile(folder, index);
+        logger.info("Compiled the inventory reports of " + reports.size() + " versions into " + index);
+    }
+
+    /**
+     * @param folder the folder of the inventory reports (.json, .bin or .delta)
+     * @param index the index file to write
+     * @return the report compiled for each version, by version
+     * @throws IOException
+     */
+    public static SortedMap<String, Path> compile(Path folder, Path index) throws IOException
+    {
+        final SortedMap<String, Path> sources = new TreeMap<>(comparing(ComparableVersion::new));
+        try (Stream<Path> files = Files.list(folder))
+        {
+            files
+                .filter(Files::isRegularFile)
+                .filter(file -> {
+                    final String name = file.getFileName().toString();
+                    return isBinaryInventory(name) || isDeltaInventory(name) ||
+                           FilenameUtils.isExtension(name, "json");
+                })
+                .forEach(file -> sources.merge(
+                    FilenameUtils.removeExtension(file.getFileName().toString()),
+                    file,
+                    (a, b) -> WarInventoryReportStore.loadCost(a.getFileName().toString()) <=
+                              WarInventoryReportStore.loadCost(b.getFileName().toString()) ? a : b));
+        }
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final Map<String, byte[]> reports = new TreeMap<>(comparing(ComparableVersion::new));
+        final Map<String, Boolean> deltas = new HashMap<>();
+        for (Map.Entry<String, Path> source : sources.entrySet())
+        {
+            final String name = source.getValue().getFileName().toString();
+            if (isBinaryInventory(name) || isDeltaInventory(name))
+            {
+                reports.put(source.getKey(), Files.readAllBytes(source.getValue()));
+                deltas.put(source.getKey(), isDeltaInventory(name));
+            }
+            else
+            {
+                final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                BinaryInventoryFormat.write(objectMapper.readValue(source.getValue().toFile(), InventoryReport.class), bos);
+                reports.put(source.getKey(), bos.toByteArray());
+            }
+        }
+
+        if (index.getParent() != null)
+        {
+            Files.createDirectories(index.getParent());
+        }
+        try (OutputStream os = Files.newOutputStream(index))
+        {
+            InventoryIndex.write(reports, deltas, os);
+        }
+        return sources;
+    }
+}
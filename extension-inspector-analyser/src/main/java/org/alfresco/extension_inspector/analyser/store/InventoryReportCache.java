@@ -0,0 +1,316 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.store;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import jakarta.annotation.PostConstruct;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * A cache of the parsed {@link InventoryReport}s of the {@link WarInventoryReportStore}, by version, so a
+ * long-lived process (or the reports rebuilt from deltas, see {@link WarInventoryReportStore#retrieve})
+ * doesn't parse the same report again and again.
+ * <p/>
+ * The cache is bounded by the estimated heap footprint of the reports (see {@link #estimateSize}) rather
+ * than by their number, as the reports of different versions have very different sizes. The least
+ * recently used reports are evicted first, and only softly referenced from then on: they are reused
+ * until the garbage collector needs their memory.
+ * <p/>
+ * {@code inventory-report-cache-size} sets the bound in MB, a negative value meaning a quarter of the maximum
+ * heap. The cache is disabled by default (0), as a one-shot analysis retrieves each version once and would
+ * only keep all the reports reachable: the concurrent loads of the same version are still shared. The cached
+ * reports are shared and must not be modified.
+ */
+@Component
+public class InventoryReportCache
+{
+    private static final Logger logger = LoggerFactory.getLogger(InventoryReportCache.class);
+
+    // a resource, with its entry in a LinkedHashSet
+    private static final int RESOURCE_OVERHEAD = 32 + 48;
+    // a String with its (Latin-1) byte array, but the characters
+    private static final int STRING_OVERHEAD = 24 + 16;
+
+    @Value("${inventory-report-cache-size:0}")
+    private long maxSizeMb;
+
+    private long maxSize;
+    private long size;
+    private final LinkedHashMap<String, CachedReport> reports = new LinkedHashMap<>(16, .75f, true);
+    private final Map<String, SoftReference<CachedReport>> evictedReports = new HashMap<>();
+    private final ConcurrentMap<String, Load> loading = new ConcurrentHashMap<>();
+
+    private long hits;
+    private long softHits;
+    private long misses;
+    private long evictions;
+
+    @PostConstruct
+    private void init()
+    {
+        maxSize = maxSizeMb < 0 ? Runtime.getRuntime().maxMemory() / 4 : maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * @param alfrescoVersion a known version
+     * @param loader parses the report of the version, when it is not cached; called without holding the
+     * lock of the cache, so the reports of different versions can be parsed concurrently, and once for the
+     * concurrent calls for the same version
+     * @return the report of the version
+     */
+    public InventoryReport get(final String alfrescoVersion, final Function<String, InventoryReport> loader)
+    {
+        // registered before looking up the cache, so that a concurrent load either is joined or has been cached
+        final Load load = new Load();
+        final Load pending = loading.putIfAbsent(alfrescoVersion, load);
+        if (pending != null)
+        {
+            if (pending.owner == Thread.currentThread())
+            {
+                // the loader needs the report it is loading, e.g. through a circular chain of deltas
+                throw new IllegalStateException("Circular load of the inventory report of " + alfrescoVersion);
+            }
+            return join(pending);
+        }
+        try
+        {
+            InventoryReport report = get(alfrescoVersion);
+            if (report == null)
+            {
+                report = loader.apply(alfrescoVersion);
+                // estimated before taking the lock, as it walks the whole report
+                put(alfrescoVersion, new CachedReport(report, maxSize == 0 ? 0 : estimateSize(report)));
+            }
+            load.complete(report);
+            return report;
+        }
+        catch (RuntimeException | Error e)
+        {
+            load.completeExceptionally(e);
+            throw e;
+        }
+        finally
+        {
+            loading.remove(alfrescoVersion, load);
+        }
+    }
+
+    private static InventoryReport join(final CompletableFuture<InventoryReport> pending)
+    {
+        try
+        {
+            return pending.join();
+        }
+        catch (CompletionException e)
+        {
+            // the failure of the loader, as the call that loads the report gets it
+            if (e.getCause() instanceof RuntimeException)
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error)
+            {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private synchronized InventoryReport get(final String alfrescoVersion)
+    {
+        final CachedReport cached = reports.get(alfrescoVersion);
+        if (cached != null)
+        {
+            hits++;
+            return cached.report;
+        }
+        final SoftReference<CachedReport> reference = evictedReports.remove(alfrescoVersion);
+        final CachedReport evicted = reference == null ? null : reference.get();
+        if (evicted != null)
+        {
+            softHits++;
+            put(alfrescoVersion, evicted);
+            return evicted.report;
+        }
+        misses++;
+        return null;
+    }
+
+    private synchronized void put(final String alfrescoVersion, final CachedReport cached)
+    {
+        if (maxSize == 0)
+        {
+            return;
+        }
+        final CachedReport previous = reports.put(alfrescoVersion, cached);
+        if (previous != null)
+        {
+            size -= previous.size;
+        }
+        size += cached.size;
+
+        // the report that was just added is the last one evicted, when it doesn't fit on its own
+        final Iterator<Map.Entry<String, CachedReport>> iterator = reports.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext())
+        {
+            final Map.Entry<String, CachedReport> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue().size;
+            evictedReports.put(eldest.getKey(), new SoftReference<>(eldest.getValue()));
+            evictions++;
+            logger.debug("Evicted the inventory report of " + eldest.getKey() + " from the cache");
+        }
+        evictedReports.values().removeIf(reference -> reference.get() == null);
+    }
+
+    /**
+     * @return the cache hits and misses so far, and its current size
+     */
+    public synchronized Statistics getStatistics()
+    {
+        return new Statistics(hits, softHits, misses, evictions, reports.size(), size);
+    }
+
+    /**
+     * A rough estimate of the heap used by the resources of a report, as they are the bulk of it. The
+     * definingObjects are not counted, as they are either the resource id or interned.
+     *
+     * @param report a report
+     * @return its estimated size in bytes
+     */
+    static long estimateSize(final InventoryReport report)
+    {
+        long size = 0;
+        for (Set<Resource> resources : report.getResources().values())
+        {
+            for (Resource resource : resources)
+            {
+                size += RESOURCE_OVERHEAD + stringSize(resource.getId());
+                if (resource instanceof BeanResource)
+                {
+                    size += stringSize(((BeanResource) resource).getBeanClass());
+                }
+            }
+        }
+        return size;
+    }
+
+    private static long stringSize(String value)
+    {
+        return value == null ? 0 : STRING_OVERHEAD + value.length();
+    }
+
+    private static final class Load extends CompletableFuture<InventoryReport>
+    {
+        private final Thread owner = Thread.currentThread();
+    }
+
+    private static final class CachedReport
+    {
+        private final InventoryReport report;
+        private final long size;
+
+        private CachedReport(InventoryReport report, long size)
+        {
+            this.report = report;
+            this.size = size;
+        }
+    }
+
+    public static final class Statistics
+    {
+        private final long hits;
+        private final long softHits;
+        private final long misses;
+        private final long evictions;
+        private final int count;
+        private final long size;
+
+        private Statistics(long hits, long softHits, long misses, long evictions, int count, long size)
+        {
+            this.hits = hits;
+            this.softHits = softHits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.count = count;
+            this.size = size;
+        }
+
+        public long getHits()
+        {
+            return hits;
+        }
+
+        /**
+         * @return the hits on evicted reports that the garbage collector had not reclaimed yet
+         */
+        public long getSoftHits()
+        {
+            return softHits;
+        }
+
+        public long getMisses()
+        {
+            return misses;
+        }
+
+        public long getEvictions()
+        {
+            return evictions;
+        }
+
+        /**
+         * @return the number of reports in the cache, not counting the evicted ones
+         */
+        public int getCount()
+        {
+            return count;
+        }
+
+        /**
+         * @return the estimated size of the reports in the cache, in bytes
+         */
+        public long getSize()
+        {
+            return size;
+        }
+
+        @Override
+        public String toString()
+        {
+            return hits + " hits, " + softHits + " soft hits, " + misses + " misses, " + evictions + " evictions, " +
+                   count + " reports (~" + size / (1024 * 1024) + " MB)";
+        }
+    }
+}
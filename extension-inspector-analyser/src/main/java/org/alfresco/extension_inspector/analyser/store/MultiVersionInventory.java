@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.store;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+
+/**
+ * The union of the {@link InventoryReport}s of several Alfresco versions, in which each distinct resource
+ * is kept once, with the set of the versions that contain it (as a {@link BitSet} of version indexes,
+ * see {@link #getVersions()}).
+ * <p/>
+ * Most resources are the same in all the versions, so the union is barely larger than a single report, and
+ * the {@link org.alfresco.extension_inspector.analyser.checker.Checker}s evaluate it once for all the
+ * versions instead of once per version.
+ * <p/>
+ * The resources are merged according to their equality, which doesn't include the flags of the public APIs:
+ * the versions in which a public API is deprecated are kept apart.
+ * <p/>
+ * The returned {@link BitSet}s must not be modified.
+ */
+public class MultiVersionInventory
+{
+    private final List<String> versions = new ArrayList<>();
+    private final Map<Resource.Type, Map<Resource, BitSet>> resources = new EnumMap<>(Resource.Type.class);
+    private final Map<Resource.Type, BitSet> versionsByType = new EnumMap<>(Resource.Type.class);
+    private final Map<Resource, BitSet> deprecatedPublicApis = new HashMap<>();
+
+    /**
+     * Adds the resources of a version. The report itself is not referenced afterwards.
+     *
+     * @param alfrescoVersion a version that was not added yet
+     * @param report the report of the version
+     */
+    public void add(final String alfrescoVersion, final InventoryReport report)
+    {
+        if (versions.contains(alfrescoVersion))
+        {
+            throw new IllegalArgumentException("Version already added: " + alfrescoVersion);
+        }
+        final int index = versions.size();
+        versions.add(alfrescoVersion);
+
+        report.getResources().forEach((type, typeResources) -> {
+            if (typeResources.isEmpty())
+            {
+                return;
+            }
+            versionsByType.computeIfAbsent(type, k -> new BitSet()).set(index);
+            final Map<Resource, BitSet> union = resources.computeIfAbsent(type, k -> new HashMap<>());
+            for (Resource resource : typeResources)
+            {
+                union.computeIfAbsent(resource, k -> new BitSet()).set(index);
+                if (resource instanceof AlfrescoPublicApiResource)
+                {
+                    if (((AlfrescoPublicApiResource) resource).isDeprecated())
+                    {
+                        deprecatedPublicApis.computeIfAbsent(resource, k -> new BitSet()).set(index);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the versions, in the order they were added: the index of a version in this list is its bit
+     * in the version sets
+     */
+    public List<String> getVersions()
+    {
+        return unmodifiableList(versions);
+    }
+
+    /**
+     * @param versionSet a set of version indexes
+     * @return the versions of the set
+     */
+    public Stream<String> getVersions(final BitSet versionSet)
+    {
+        return versionSet.stream().mapToObj(versions::get);
+    }
+
+    /**
+     * @return the set of all the versions
+     */
+    public BitSet getAllVersions()
+    {
+        final BitSet all = new BitSet(versions.size());
+        all.set(0, versions.size());
+        return all;
+    }
+
+    /**
+     * @param versionSet a set of version indexes
+     * @return a new set of the other versions
+     */
+    public BitSet getOtherVersions(final BitSet versionSet)
+    {
+        final BitSet others = getAllVersions();
+        others.andNot(versionSet);
+        return others;
+    }
+
+    /**
+     * @param type a resource type
+     * @return the set of the versions that have resources of the given type
+     */
+    public BitSet getVersions(final Resource.Type type)
+    {
+        return versionsByType.getOrDefault(type, new BitSet());
+    }
+
+    /**
+     * @param type a resource type
+     * @return each distinct resource of the given type, with the set of the versions that contain it
+     */
+    public Map<Resource, BitSet> getResources(final Resource.Type type)
+    {
+        final Map<Resource, BitSet> union = resources.get(type);
+        return union == null ? emptyMap() : unmodifiableMap(union);
+    }
+
+    /**
+     * @param type a resource type
+     * @return the set of the versions that contain a resource of the given type, for each id
+     */
+    public Map<String, BitSet> getVersionsById(final Resource.Type type)
+    {
+        final Map<String, BitSet> versionsById = new HashMap<>();
+        getResources(type).forEach((resource, versionSet) -> versionsById.merge(resource.getId(), versionSet, (a, b) -> {
+            final BitSet merged = (BitSet) a.clone();
+            merged.or(b);
+            return merged;
+        }));
+        return versionsById;
+    }
+
+    /**
+     * @param publicApi a public API of the inventory
+     * @return the set of the versions in which it is deprecated
+     */
+    public BitSet getDeprecatedVersions(final Resource publicApi)
+    {
+        return deprecatedPublicApis.getOrDefault(publicApi, new BitSet());
+    }
+}
@@ -20,10 +20,14 @@ import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toUnmodifiableMap;
+import static org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser.isBinaryInventory;
+import static org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser.isDeltaInventory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
@@ -31,14 +35,18 @@ import java.util.TreeSet;
 
 
 import jakarta.annotation.PostConstruct;
+import org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser;
 import org.alfresco.extension_inspector.analyser.parser.InventoryParser;
+import org.alfresco.extension_inspector.model.InventoryDelta;
 import org.alfresco.extension_inspector.model.InventoryReport;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.artifact.versioning.ComparableVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.stereotype.Service;
@@ -48,12 +56,30 @@ public class WarInventoryReportStore
 {
     private static final Logger logger = LoggerFactory.getLogger(WarInventoryReportStore.class);
 
+    /**
+     * Comma separated patterns of the bundled reports, JSON, binary or delta (see {@link BinaryInventoryParser}).
+     * A delta report only holds the differences with the report of a base version, which is rebuilt
+     * from it when retrieved.
+     */
     @Value("${inventory-report-resource-pattern}")
-    private String inventoryReportResourcePattern;
+    private String[] inventoryReportResourcePatterns;
+
+    /**
+     * The index of the bundled reports compiled when the tool is packaged (see {@link InventoryIndex}),
+     * used instead of the reports matching {@code inventory-report-resource-pattern} when it exists.
+     */
+    @Value("${inventory-index-resource:}")
+    private String inventoryIndexResource;
 
     @Autowired
     private InventoryParser inventoryParser;
 
+    @Autowired
+    private BinaryInventoryParser binaryInventoryParser;
+
+    @Autowired(required = false)
+    private InventoryReportCache inventoryReportCache;
+
     private Map<String, AbstractResource> inventoryReportResources;
 
     @PostConstruct
@@ -61,25 +87,125 @@ public class WarInventoryReportStore
     {
         final ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(getClass().getClassLoader());
 
-        inventoryReportResources = Arrays
-            .stream(resolver.getResources(inventoryReportResourcePattern))
+        if (inventoryIndexResource != null && !inventoryIndexResource.isBlank())
+        {
+            final Resource index = resolver.getResource(inventoryIndexResource.trim());
+            if (index.exists())
+            {
+                inventoryReportResources = Map.copyOf(InventoryIndex.read(index));
+                logger.debug("Loaded the inventory index " + index.getDescription());
+                return;
+            }
+        }
+
+        final List<Resource> resources = new ArrayList<>();
+        for (String pattern : inventoryReportResourcePatterns)
+        {
+            resources.addAll(Arrays.asList(resolver.getResources(pattern.trim())));
+        }
+
+        // when a version has several reports, the binary one is the fastest to load and a delta the slowest
+        inventoryReportResources = resources
+            .stream()
             .filter(r -> r instanceof AbstractResource)
             .collect(toUnmodifiableMap(
-                r -> requireNonNull(r.getFilename()).replace(".json", ""),
-                r -> (AbstractResource) r
+                r -> FilenameUtils.removeExtension(requireNonNull(r.getFilename())),
+                r -> (AbstractResource) r,
+                (a, b) -> loadCost(a) <= loadCost(b) ? a : b
             ));
     }
 
+    private static int loadCost(Resource resource)
+    {
+        return loadCost(resource.getFilename());
+    }
+
+    static int loadCost(String filename)
+    {
+        return isBinaryInventory(filename) ? 0 : isDeltaInventory(filename) ? 2 : 1;
+    }
+
+    /**
+     * @param alfrescoVersion a known version
+     * @return the report of the version, shared with the other callers when cached (see
+     * {@link InventoryReportCache}): it must not be modified
+     */
     public InventoryReport retrieve(final String alfrescoVersion)
+    {
+        return retrieve(alfrescoVersion, 0);
+    }
+
+    private InventoryReport retrieve(final String alfrescoVersion, final int depth)
+    {
+        if (inventoryReportCache == null)
+        {
+            return load(alfrescoVersion, depth);
+        }
+        return inventoryReportCache.get(alfrescoVersion, version -> load(version, depth));
+    }
+
+    /**
+     * @return the statistics of the report cache, or null if there is no cache
+     */
+    public InventoryReportCache.Statistics getCacheStatistics()
+    {
+        return inventoryReportCache == null ? null : inventoryReportCache.getStatistics();
+    }
+
+    private InventoryReport load(final String alfrescoVersion, final int depth)
+    {
+        final InventoryDelta delta = retrieveDelta(alfrescoVersion);
+        if (delta != null)
+        {
+            if (!isKnown(delta.getBaseVersion()))
+            {
+                throw new RuntimeException("No WAR inventory found for Alfresco Version: " + delta.getBaseVersion() +
+                                           ", the base of the inventory of " + alfrescoVersion);
+            }
+            // each delta of a chain has a different base, unless the chain loops
+            if (depth >= inventoryReportResources.size())
+            {
+                throw new RuntimeException("Circular delta inventories for Alfresco Version: " + alfrescoVersion);
+            }
+            return delta.apply(retrieve(delta.getBaseVersion(), depth + 1));
+        }
+
+        try (final InputStream is = inventoryReportResources.get(alfrescoVersion).getInputStream())
+        {
+            final AbstractResource resource = inventoryReportResources.get(alfrescoVersion);
+            return isBinaryInventory(resource.getFilename()) ?
+                   binaryInventoryParser.parseReport(is) :
+                   inventoryParser.parseReport(is);
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed to read inventory resource for version: " + alfrescoVersion, e);
+            throw new RuntimeException("Failed to read inventory resource for version: " + alfrescoVersion, e);
+        }
+    }
+
+    /**
+     * Gives access to the differences between the inventory of a version and the inventory of its base
+     * version, e.g. to only analyse these differences when the base version has already been analysed.
+     *
+     * @param alfrescoVersion a known version
+     * @return the delta of the version, or null if its inventory is not stored as a delta
+     */
+    public InventoryDelta retrieveDelta(final String alfrescoVersion)
     {
         if (!isKnown(alfrescoVersion))
         {
             throw new RuntimeException("No WAR inventory found for Alfresco Version: " + alfrescoVersion);
         }
+        final AbstractResource resource = inventoryReportResources.get(alfrescoVersion);
+        if (!isDeltaInventory(resource.getFilename()))
+        {
+            return null;
+        }
 
-        try (final InputStream is = inventoryReportResources.get(alfrescoVersion).getInputStream())
+        try (final InputStream is = resource.getInputStream())
         {
-            return inventoryParser.parseReport(is);
+            return binaryInventoryParser.parseDelta(is);
         }
         catch (IOException e)
         {
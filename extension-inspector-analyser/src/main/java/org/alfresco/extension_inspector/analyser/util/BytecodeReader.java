@@ -142,7 +142,7 @@ public class BytecodeReader
             final String jzeName = entry.getName();
             if (jzeName.endsWith(".class"))
             {
-                javaClasses.put("/" + jzeName, extract(jarZis));
+                javaClasses.put("/" + jzeName, extract(jarZis, entry.getSize()));
                 LOGGER.debug("Found a class " + jzeName);
             }
         }
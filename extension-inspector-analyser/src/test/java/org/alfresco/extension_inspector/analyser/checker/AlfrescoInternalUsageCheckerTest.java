@@ -29,11 +29,13 @@ import static org.mockito.Mockito.spy;
 import java.util.Map;
 import java.util.Set;
 
+import java.util.stream.Stream;
 import org.alfresco.extension_inspector.analyser.result.AlfrescoInternalUsageConflict;
 import org.alfresco.extension_inspector.analyser.result.Conflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionCodeAnalysisService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
 import org.alfresco.extension_inspector.model.ClasspathElementResource;
 import org.alfresco.extension_inspector.model.InventoryReport;
@@ -143,6 +145,50 @@ class AlfrescoInternalUsageCheckerTest
         expected.forEach(c -> assertTrue(result.contains(c)));
     }
 
+    @Test
+    void alfrescoInternalUsageCheckerMultiVersionTest()
+    {
+        doReturn(Set.of(ampRes("deps_to_everything.class"))).when(configService).getExtensionResources(any());
+
+        final InventoryReport warInventory600 = new InventoryReport();
+        warInventory600.setResources(Map.of(
+            CLASSPATH_ELEMENT, Set.of(warRes("c1.class")),
+            ALFRESCO_PUBLIC_API, Set.of(
+                apar("c_APA_1ok", false),
+                apar("c_APA_2ok", false),
+                apar("c_APA_3deprecated", true))));
+        // c_APA_1ok is deprecated, c_APA_2ok is removed, c_APA_3deprecated is not deprecated anymore
+        // and c1 becomes a public API
+        final InventoryReport warInventory610 = new InventoryReport();
+        warInventory610.setResources(Map.of(
+            CLASSPATH_ELEMENT, Set.of(warRes("c1.class")),
+            ALFRESCO_PUBLIC_API, Set.of(
+                apar("c1", false),
+                apar("c_APA_1ok", true),
+                apar("c_APA_3deprecated", false))));
+
+        doReturn(Map.of(OAA + "deps_to_everything.class", Set.of(
+            OAW + "c1.class", OAW + "c_APA_1ok.class", OAW + "c_APA_2ok.class", OAW + "c_APA_3deprecated.class"
+        ))).when(extensionCodeAnalysisService).retrieveDependenciesPerClass();
+
+        final MultiVersionInventory warInventories = new MultiVersionInventory();
+        warInventories.add("6.0.0", warInventory600);
+        warInventories.add("6.1.0", warInventory610);
+
+        final Set<Conflict> result = checker.process(warInventories).collect(toSet());
+
+        final Set<Conflict> expected = Set.of(
+            conflict(ampRes("deps_to_everything.class"),
+                Set.of(OAW_PACKAGE + "c1", OAW_PACKAGE + "c_APA_3deprecated"), "6.0.0"),
+            conflict(ampRes("deps_to_everything.class"),
+                Set.of(OAW_PACKAGE + "c_APA_1ok", OAW_PACKAGE + "c_APA_2ok"), "6.1.0"));
+        assertEquals(expected, result);
+        // the same conflicts as when the versions are processed one by one
+        assertEquals(expected, Stream
+            .concat(checker.process(warInventory600, "6.0.0"), checker.process(warInventory610, "6.1.0"))
+            .collect(toSet()));
+    }
+
     private static ClasspathElementResource ampRes(String id)
     {
         return new ClasspathElementResource(OAA + id, "definingObject");
@@ -160,6 +206,11 @@ class AlfrescoInternalUsageCheckerTest
 
     private static Conflict conflict(ClasspathElementResource resource, Set<String> classes)
     {
-        return new AlfrescoInternalUsageConflict(resource, classes, "6.0.0");
+        return conflict(resource, classes, "6.0.0");
+    }
+
+    private static Conflict conflict(ClasspathElementResource resource, Set<String> classes, String alfrescoVersion)
+    {
+        return new AlfrescoInternalUsageConflict(resource, classes, alfrescoVersion);
     }
 }
\ No newline at end of file
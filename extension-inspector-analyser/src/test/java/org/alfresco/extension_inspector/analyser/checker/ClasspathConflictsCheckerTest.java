@@ -99,7 +99,7 @@ class ClasspathConflictsCheckerTest
 
         doReturn(ampResources).when(configService).getExtensionResources(eq(CLASSPATH_ELEMENT));
 
-        final List<Conflict> actualResult = checker.processInternal(warReport, "6.0.0").collect(toList());
+        final List<Conflict> actualResult = checker.process(warReport, "6.0.0").collect(toList());
         assertEquals(expectedResult.size(), actualResult.size());
         assertTrue(actualResult.containsAll(expectedResult));
     }
@@ -30,11 +30,13 @@ import static org.mockito.Mockito.when;
 import java.util.Map;
 import java.util.Set;
 
+import java.util.stream.Stream;
 import org.alfresco.extension_inspector.analyser.result.Conflict;
 import org.alfresco.extension_inspector.analyser.result.JakartaMigrationConflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionCodeAnalysisService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.ClasspathElementResource;
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.alfresco.extension_inspector.model.Resource;
@@ -118,6 +120,48 @@ public class JakartaMigrationCheckerTest
         expected.forEach(c -> assertTrue(result.contains(c)));
     }
 
+    @Test
+    void jakartaMigrationConflictCheckerMultiVersionTest()
+    {
+        when(configService.getJakartaMigrationClassList())
+            .thenReturn(Set.of("javax/mail", "jakarta/mail", "javax/servlet", "jakarta/servlet"));
+
+        doReturn(Set.of(
+            ampRes("using_javax_mail.class"),
+            ampRes("using_jakarta_mail.class"),
+            ampRes("using_javax_servlet.class")
+        )).when(configService).getExtensionResources(any());
+
+        final InventoryReport warInventory741 = new InventoryReport();
+        warInventory741.setResources(Map.of(CLASSPATH_ELEMENT, Set.of(warRes("mail.class"))));
+        final InventoryReport warInventory800 = new InventoryReport();
+        warInventory800.setResources(Map.of(CLASSPATH_ELEMENT, Set.of(
+            new ClasspathElementResource("/jakarta/mail/mail.class", "definingObject"))));
+
+        doReturn(Map.ofEntries(
+            entry(OAA + "using_javax_mail.class", Set.of("/javax/mail/mail.class")),
+            entry(OAA + "using_jakarta_mail.class", Set.of("/jakarta/mail/mail.class")),
+            // javax.servlet is provided along with javax.mail
+            entry(OAA + "using_javax_servlet.class", Set.of("/javax/servlet/Servlet.class"))
+        )).when(extensionCodeAnalysisService).retrieveDependenciesPerClass();
+
+        final MultiVersionInventory warInventories = new MultiVersionInventory();
+        warInventories.add("7.4.1", warInventory741);
+        warInventories.add("8.0.0", warInventory800);
+
+        final Set<Conflict> result = checker.process(warInventories).collect(toSet());
+
+        final Set<Conflict> expected = Set.of(
+            conflict(ampRes("using_jakarta_mail.class"), Set.of("jakarta.mail.mail"), "7.4.1"),
+            conflict(ampRes("using_javax_mail.class"), Set.of("javax.mail.mail"), "8.0.0"),
+            conflict(ampRes("using_javax_servlet.class"), Set.of("javax.servlet.Servlet"), "8.0.0"));
+        assertEquals(expected, result);
+        // the same conflicts as when the versions are processed one by one
+        assertEquals(expected, Stream
+            .concat(checker.process(warInventory741, "7.4.1"), checker.process(warInventory800, "8.0.0"))
+            .collect(toSet()));
+    }
+
     private static ClasspathElementResource ampRes(String id)
     {
         return new ClasspathElementResource(OAA + id, "definingObject");
@@ -130,6 +174,11 @@ public class JakartaMigrationCheckerTest
 
     private static Conflict conflict(ClasspathElementResource resource, Set<String> classes)
     {
-        return new JakartaMigrationConflict(resource, classes, "7.4.1");
+        return conflict(resource, classes, "7.4.1");
+    }
+
+    private static Conflict conflict(ClasspathElementResource resource, Set<String> classes, String alfrescoVersion)
+    {
+        return new JakartaMigrationConflict(resource, classes, alfrescoVersion);
     }
 }
@@ -29,11 +29,13 @@ import static org.mockito.Mockito.spy;
 import java.util.Map;
 import java.util.Set;
 
+import java.util.stream.Stream;
 import org.alfresco.extension_inspector.analyser.result.Conflict;
 import org.alfresco.extension_inspector.analyser.result.WarLibraryUsageConflict;
 import org.alfresco.extension_inspector.analyser.service.ConfigService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionCodeAnalysisService;
 import org.alfresco.extension_inspector.analyser.service.ExtensionResourceInfoService;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.model.ClasspathElementResource;
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.alfresco.extension_inspector.model.Resource;
@@ -240,6 +242,50 @@ class WarLibraryUsageCheckerTest
         expected.forEach(c -> assertTrue(expected.contains(c)));
     }
 
+    @Test
+    void processMultiVersion()
+    {
+        doReturn(Set.of(
+            res("/com/example/test/C51.class", "color"),
+            res("/com/example/test/C52.class", "color")
+        )).when(configService).getExtensionResources(any());
+
+        final InventoryReport warInventory600 = new InventoryReport();
+        warInventory600.setResources(Map.of(CLASSPATH_ELEMENT, Set.of(
+            res("/com/example/test/W10.class", "red"),
+            res("/com/example/test/W11.class", "red"))));
+        // W10 is moved to another library, W11 is removed and W12 is added
+        final InventoryReport warInventory610 = new InventoryReport();
+        warInventory610.setResources(Map.of(CLASSPATH_ELEMENT, Set.of(
+            res("/com/example/test/W10.class", "blue"),
+            res("/com/example/test/W12.class", "blue"))));
+
+        doReturn(Map.ofEntries(
+            entry("/com/example/test/C51.class", Set.of(
+                "/com/example/test/W10.class", "/com/example/test/W11.class", "/com/example/test/W12.class")),
+            entry("/com/example/test/C52.class", Set.of("/com/example/test/W11.class"))
+        )).when(extensionCodeAnalysisService).retrieveDependenciesPerClass();
+
+        final MultiVersionInventory warInventories = new MultiVersionInventory();
+        warInventories.add("6.0.0", warInventory600);
+        warInventories.add("6.1.0", warInventory610);
+
+        final Set<Conflict> result = checker.process(warInventories).collect(toSet());
+
+        final Set<Conflict> expected = Set.of(
+            conflict(res("/com/example/test/C51.class", "color"), Set.of(
+                res("/com/example/test/W10.class", "red"), res("/com/example/test/W11.class", "red")), "6.0.0"),
+            conflict(res("/com/example/test/C52.class", "color"), Set.of(
+                res("/com/example/test/W11.class", "red")), "6.0.0"),
+            conflict(res("/com/example/test/C51.class", "color"), Set.of(
+                res("/com/example/test/W10.class", "blue"), res("/com/example/test/W12.class", "blue")), "6.1.0"));
+        assertEquals(expected, result);
+        // the same conflicts as when the versions are processed one by one
+        assertEquals(expected, Stream
+            .concat(checker.process(warInventory600, "6.0.0"), checker.process(warInventory610, "6.1.0"))
+            .collect(toSet()));
+    }
+
     private static ClasspathElementResource res(String id, String definingObject)
     {
         return new ClasspathElementResource(id, definingObject);
@@ -247,6 +293,12 @@ class WarLibraryUsageCheckerTest
 
     private static WarLibraryUsageConflict conflict(ClasspathElementResource resource, Set<Resource> classes)
     {
-        return new WarLibraryUsageConflict(resource, classes, "6.0.0");
+        return conflict(resource, classes, "6.0.0");
+    }
+
+    private static WarLibraryUsageConflict conflict(ClasspathElementResource resource, Set<Resource> classes,
+        String alfrescoVersion)
+    {
+        return new WarLibraryUsageConflict(resource, classes, alfrescoVersion);
     }
 }
\ No newline at end of file
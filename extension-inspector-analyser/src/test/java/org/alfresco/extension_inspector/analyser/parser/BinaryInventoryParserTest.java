@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.alfresco.extension_inspector.analyser.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.InventoryDelta;
+import org.alfresco.extension_inspector.model.InventoryMetadata;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class BinaryInventoryParserTest
+{
+    private final BinaryInventoryParser binaryInventoryParser = new BinaryInventoryParser();
+
+    @Test
+    public void testParseReportWrittenFromJson() throws IOException
+    {
+        final byte[] json;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("test.inventory.json"))
+        {
+            json = is.readAllBytes();
+        }
+        final JSONInventoryParser jsonInventoryParser = new JSONInventoryParser();
+        ReflectionTestUtils.setField(jsonInventoryParser, "objectMapper", new ObjectMapper());
+        final InventoryReport expected = jsonInventoryParser.parseReport(new ByteArrayInputStream(json));
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryInventoryFormat.write(expected, bos);
+        final InventoryReport report = binaryInventoryParser.parseReport(new ByteArrayInputStream(bos.toByteArray()));
+
+        assertFalse(report.getResources().isEmpty());
+        assertEquals(expected, report);
+        assertEquals(expected.getSchemaVersion(), report.getSchemaVersion());
+        assertTrue(bos.size() < json.length);
+    }
+
+    @Test
+    public void testParseMetadata() throws IOException
+    {
+        final InventoryReport report = report("7.0.0", Map.of(
+            Resource.Type.FILE, Set.of(new FileResource("index.jsp", "index.jsp"))));
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryInventoryFormat.write(report, bos);
+        final ByteArrayInputStream is = new ByteArrayInputStream(bos.toByteArray());
+
+        final InventoryMetadata metadata = binaryInventoryParser.parseMetadata(is);
+
+        assertEquals(new InventoryMetadata(InventoryReport.SCHEMA_VERSION, "7.0.0"), metadata);
+        // the resources are left unread
+        assertTrue(is.available() > 0);
+        assertThrows(RuntimeException.class,
+            () -> binaryInventoryParser.parseMetadata(new ByteArrayInputStream(new byte[] {'A', 'E', 'I', 'B', 1, 4})));
+    }
+
+    @Test
+    public void testParseDelta() throws IOException
+    {
+        final FileResource removedFile = new FileResource("WEB-INF/removed.xml", "WEB-INF/removed.xml");
+        final FileResource addedFile = new FileResource("WEB-INF/added.xml", "WEB-INF/added.xml");
+        final AlfrescoPublicApiResource publicApi = new AlfrescoPublicApiResource("org.alfresco.Api", false);
+        final AlfrescoPublicApiResource deprecatedPublicApi = new AlfrescoPublicApiResource("org.alfresco.Api", true);
+        final BeanResource bean = new BeanResource("bean", "context.xml@/WEB-INF/lib/library.jar", "org.alfresco.Bean");
+
+        final InventoryReport base = report("1.0.0", Map.of(
+            Resource.Type.FILE, Set.of(removedFile, new FileResource("index.jsp", "index.jsp")),
+            Resource.Type.ALFRESCO_PUBLIC_API, Set.of(publicApi),
+            Resource.Type.BEAN, Set.of(bean)));
+        // the next version removes a file, adds another one and deprecates a public API
+        final InventoryReport expected = report("1.1.0", Map.of(
+            Resource.Type.FILE, Set.of(addedFile, new FileResource("index.jsp", "index.jsp")),
+            Resource.Type.ALFRESCO_PUBLIC_API, Set.of(deprecatedPublicApi),
+            Resource.Type.BEAN, Set.of(bean)));
+
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryInventoryFormat.writeDelta(InventoryDelta.between("1.0.0", base, expected), bos);
+        final InventoryDelta delta = binaryInventoryParser.parseDelta(new ByteArrayInputStream(bos.toByteArray()));
+
+        assertEquals("1.0.0", delta.getBaseVersion());
+        assertEquals("1.1.0", delta.getAlfrescoVersion());
+        assertEquals(Set.of(removedFile), delta.getRemoved().get(Resource.Type.FILE));
+        assertEquals(Set.of(addedFile), delta.getAdded().get(Resource.Type.FILE));
+        assertEquals(Set.of(publicApi), delta.getRemoved().get(Resource.Type.ALFRESCO_PUBLIC_API));
+        assertEquals(Set.of(publicApi), delta.getAdded().get(Resource.Type.ALFRESCO_PUBLIC_API));
+        assertTrue(delta.getRemoved().get(Resource.Type.BEAN).isEmpty());
+        assertTrue(delta.getAdded().get(Resource.Type.BEAN).isEmpty());
+
+        final InventoryReport report = delta.apply(base);
+        assertEquals(expected, report);
+        final Resource updated = report.getResources().get(Resource.Type.ALFRESCO_PUBLIC_API).iterator().next();
+        assertTrue(((AlfrescoPublicApiResource) updated).isDeprecated());
+    }
+
+    private static InventoryReport report(String version, Map<Resource.Type, Set<Resource>> resources)
+    {
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion(version);
+        resources.forEach((type, typeResources) -> report.getResources().put(type, new LinkedHashSet<>(typeResources)));
+        return report;
+    }
+
+    @Test
+    public void testParseInvalidReport()
+    {
+        assertThrows(RuntimeException.class,
+            () -> binaryInventoryParser.parseReport(new ByteArrayInputStream(new byte[] {'A', 'E'})));
+    }
+
+    @Test
+    public void testIsBinaryInventory()
+    {
+        assertTrue(BinaryInventoryParser.isBinaryInventory("inventories/7.0.0.bin"));
+        assertTrue(BinaryInventoryParser.isBinaryInventory("alfresco.inventory.BIN"));
+        assertFalse(BinaryInventoryParser.isBinaryInventory("alfresco.inventory.json"));
+        assertTrue(BinaryInventoryParser.isDeltaInventory("inventories/7.1.0.delta"));
+        assertFalse(BinaryInventoryParser.isDeltaInventory("inventories/7.1.0.bin"));
+    }
+}
@@ -19,22 +19,33 @@ package org.alfresco.extension_inspector.analyser.service;
 import static java.util.Objects.requireNonNull;
 import static org.alfresco.extension_inspector.analyser.result.Conflict.Type.BEAN_OVERWRITE;
 import static org.alfresco.extension_inspector.analyser.result.Conflict.Type.BEAN_RESTRICTED_CLASS;
+import static org.alfresco.extension_inspector.model.Resource.Type.CLASSPATH_ELEMENT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.alfresco.extension_inspector.analyser.result.AbstractConflict;
 import org.alfresco.extension_inspector.analyser.result.Conflict;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
 import org.alfresco.extension_inspector.analyser.store.WarInventoryReportStore;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,6 +53,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -76,17 +88,20 @@ public class AnalyserServiceTest
 
         doReturn(new InventoryReport()).when(warInventoryStore).retrieve(any());
 
-        when(warComparatorService.findConflicts(any(), any()))
-            .thenReturn(conflictsPerWarVersion.get("6.0.1").stream())
-            .thenReturn(conflictsPerWarVersion.get("6.0.0.3").stream())
-            .thenReturn(conflictsPerWarVersion.get("6.0.0.5").stream());
+        when(warComparatorService.findConflicts(any(MultiVersionInventory.class)))
+            .thenReturn(conflictsPerWarVersion.values().stream().flatMap(List::stream));
 
         // call the service method and capture its internal variables
         analyserService.analyseAgainstKnownVersions(new TreeSet<>(Set.of("6.0.1", "6.0.0.3", "6.0.0.5")));
 
+        @SuppressWarnings("unchecked")
         final ArgumentCaptor<Map<Conflict.Type, Map<String, Set<Conflict>>>> captor =
             ArgumentCaptor.forClass(Map.class);
         verify(outputService).print(captor.capture());
+        final ArgumentCaptor<MultiVersionInventory> inventoryCaptor =
+            ArgumentCaptor.forClass(MultiVersionInventory.class);
+        verify(warComparatorService).findConflicts(inventoryCaptor.capture());
+        assertEquals(List.of("6.0.0.3", "6.0.0.5", "6.0.1"), inventoryCaptor.getValue().getVersions());
 
         Map<Conflict.Type, Map<String, Set<Conflict>>> result = captor.getValue();
         assertNotNull(result);
@@ -95,4 +110,88 @@ public class AnalyserServiceTest
         assertEquals(3, result.get(BEAN_OVERWRITE).size());
         assertEquals(1, result.get(BEAN_RESTRICTED_CLASS).size());
     }
+
+    @Test
+    public void testParallelLoadingKeepsTheVersionOrder()
+    {
+        ReflectionTestUtils.setField(analyserService, "parallelism", 4);
+        ReflectionTestUtils.setField(analyserService, "inventoriesInFlight", 2);
+
+        final AtomicInteger loading = new AtomicInteger();
+        final AtomicInteger maxLoading = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxLoading.accumulateAndGet(loading.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            loading.decrementAndGet();
+            final String version = invocation.getArgument(0);
+            final InventoryReport report = new InventoryReport();
+            report.setResources(Map.of(CLASSPATH_ELEMENT,
+                Set.of(new ClasspathElementResource("/org/V" + version + ".class", "test.jar"))));
+            return report;
+        }).when(warInventoryStore).retrieve(any());
+        when(warComparatorService.findConflicts(any(MultiVersionInventory.class))).thenReturn(Stream.empty());
+
+        final List<String> versions = List.of("6.0.0", "6.1.0", "6.2.0", "7.0.0", "7.1.0", "7.2.0");
+        analyserService.analyseAgainstKnownVersions(new TreeSet<>(versions));
+
+        final ArgumentCaptor<MultiVersionInventory> inventoryCaptor =
+            ArgumentCaptor.forClass(MultiVersionInventory.class);
+        verify(warComparatorService).findConflicts(inventoryCaptor.capture());
+        final MultiVersionInventory inventory = inventoryCaptor.getValue();
+        assertEquals(versions, inventory.getVersions());
+        for (int i = 0; i < versions.size(); i++)
+        {
+            final BitSet expected = new BitSet();
+            expected.set(i);
+            assertEquals(expected, inventory.getResources(CLASSPATH_ELEMENT).get(
+                new ClasspathElementResource("/org/V" + versions.get(i) + ".class", "test.jar")));
+        }
+        assertTrue(maxLoading.get() <= 2);
+    }
+
+    @Test
+    public void testLoadedReportsAreReleased()
+    {
+        ReflectionTestUtils.setField(analyserService, "parallelism", 2);
+        ReflectionTestUtils.setField(analyserService, "inventoriesInFlight", 2);
+
+        // not a mock, which would keep the reports it returns
+        final List<WeakReference<InventoryReport>> loaded = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger maxReachable = new AtomicInteger();
+        ReflectionTestUtils.setField(analyserService, "warInventoryStore", new WarInventoryReportStore()
+        {
+            @Override
+            public InventoryReport retrieve(String alfrescoVersion)
+            {
+                maxReachable.accumulateAndGet(reachable(loaded), Math::max);
+                final InventoryReport report = new InventoryReport();
+                report.setResources(Map.of(CLASSPATH_ELEMENT,
+                    Set.of(new ClasspathElementResource("/org/V" + alfrescoVersion + ".class", "test.jar"))));
+                loaded.add(new WeakReference<>(report));
+                return report;
+            }
+        });
+        final AtomicInteger reachableWhenAnalysed = new AtomicInteger(-1);
+        when(warComparatorService.findConflicts(any(MultiVersionInventory.class))).thenAnswer(invocation -> {
+            reachableWhenAnalysed.set(reachable(loaded));
+            return Stream.empty();
+        });
+
+        analyserService.analyseAgainstKnownVersions(
+            new TreeSet<>(Set.of("6.0.0", "6.1.0", "6.2.0", "7.0.0", "7.1.0", "7.2.0")));
+
+        assertEquals(6, loaded.size());
+        // only the inventories in flight are kept, and none of them once they are all indexed
+        assertTrue(maxReachable.get() <= 2, "Reachable reports: " + maxReachable.get());
+        assertEquals(0, reachableWhenAnalysed.get());
+    }
+
+    private static int reachable(List<WeakReference<InventoryReport>> reports)
+    {
+        System.gc();
+        synchronized (reports)
+        {
+            return (int) reports.stream().filter(r -> r.get() != null).count();
+        }
+    }
 }
@@ -20,16 +20,24 @@ import static org.alfresco.extension_inspector.commons.InventoryUtils.extract;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.alfresco.extension_inspector.analyser.util.BytecodeReader;
 import org.junit.jupiter.api.Test;
@@ -183,4 +191,36 @@ class ExtensionCodeAnalysisServiceTest
         assertTrue(result.contains("/org/alfresco/service/namespace/QName.class"));
         assertEquals(37, result.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void retrieveAllDependencies_concurrently() throws Exception
+    {
+        final String absoluteFilePath = Paths
+            .get(getClass().getResource("/some.amp.data").toURI())
+            .toFile().getAbsolutePath();
+
+        doReturn(absoluteFilePath).when(configService).getExtensionPath();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            final List<Future<Set<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+            {
+                futures.add(executor.submit(service::retrieveAllDependencies));
+            }
+            final Set<String> result = futures.get(0).get();
+            for (Future<Set<String>> future : futures)
+            {
+                assertSame(result, future.get());
+            }
+            assertEquals(37, result.size());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        // the artifact is parsed by the first caller only
+        verify(bytecodeReader, times(1)).readArtifact(any());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+import org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser;
+import org.alfresco.extension_inspector.analyser.parser.JSONInventoryParser;
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class InventoryLoaderServiceTest
+{
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private JSONInventoryParser jsonInventoryParser;
+    private BinaryInventoryParser binaryInventoryParser;
+    private InventoryLoaderService inventoryLoaderService;
+
+    @BeforeEach
+    public void setUp()
+    {
+        jsonInventoryParser = spy(new JSONInventoryParser());
+        ReflectionTestUtils.setField(jsonInventoryParser, "objectMapper", OBJECT_MAPPER);
+        binaryInventoryParser = spy(new BinaryInventoryParser());
+
+        inventoryLoaderService = new InventoryLoaderService();
+        ReflectionTestUtils.setField(inventoryLoaderService, "inventoryParser", jsonInventoryParser);
+        ReflectionTestUtils.setField(inventoryLoaderService, "binaryInventoryParser", binaryInventoryParser);
+    }
+
+    @Test
+    public void testCatalogOnlyReadsTheHeaders() throws IOException
+    {
+        final String json = writeJson("7.0.0.json", report("7.0.0", "WEB-INF/web.xml"));
+        final String bin = writeBinary("7.1.0.bin", report("7.1.0", "WEB-INF/web.xml", "WEB-INF/new.xml"));
+
+        final SortedMap<String, String> catalog = inventoryLoaderService.loadInventoryCatalog(
+            new LinkedHashSet<>(List.of(json, bin)));
+
+        assertEquals(Map.of("7.0.0", json, "7.1.0", bin), catalog);
+        verify(jsonInventoryParser, never()).parseReport(any(InputStream.class));
+        verify(binaryInventoryParser, never()).parseReport(any(InputStream.class));
+
+        assertEquals(report("7.1.0", "WEB-INF/web.xml", "WEB-INF/new.xml"), inventoryLoaderService.loadInventoryReport(bin));
+    }
+
+    @Test
+    public void testVersionAfterTheResources() throws IOException
+    {
+        final Path path = tempDir.resolve("reordered.json");
+        Files.writeString(path,
+            "{\"resources\":{\"FILE\":[{\"type\":\"FILE\",\"id\":\"a.xml\",\"definingObject\":\"a.xml\"}]}," +
+            "\"schemaVersion\":\"1.0\",\"alfrescoVersion\":\"6.2.0\"}", UTF_8);
+
+        assertEquals(Map.of("6.2.0", path.toString()), inventoryLoaderService.loadInventoryCatalog(Set.of(path.toString())));
+    }
+
+    @Test
+    public void testLoadInventoryReportsDeduplicatesVersions() throws IOException
+    {
+        final String first = writeJson("first.json", report("7.0.0", "WEB-INF/first.xml"));
+        final String last = writeBinary("last.bin", report("7.0.0", "WEB-INF/last.xml"));
+
+        final SortedMap<String, InventoryReport> reports = inventoryLoaderService.loadInventoryReports(
+            new LinkedHashSet<>(List.of(first, last)));
+
+        assertEquals(Map.of("7.0.0", report("7.0.0", "WEB-INF/last.xml")), reports);
+        verify(jsonInventoryParser, never()).parseReport(any(InputStream.class));
+    }
+
+    @Test
+    public void testReportWithoutVersion() throws IOException
+    {
+        final String json = writeJson("none.json", report(null, "WEB-INF/web.xml"));
+
+        assertThrows(RuntimeException.class, () -> inventoryLoaderService.loadInventoryCatalog(Set.of(json)));
+    }
+
+    private String writeJson(String name, InventoryReport report) throws IOException
+    {
+        final Path path = tempDir.resolve(name);
+        OBJECT_MAPPER.writeValue(path.toFile(), report);
+        return path.toString();
+    }
+
+    private String writeBinary(String name, InventoryReport report) throws IOException
+    {
+        final Path path = tempDir.resolve(name);
+        try (OutputStream os = Files.newOutputStream(path))
+        {
+            BinaryInventoryFormat.write(report, os);
+        }
+        return path.toString();
+    }
+
+    private static InventoryReport report(String version, String... files)
+    {
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion(version);
+        final Set<Resource> resources = new LinkedHashSet<>();
+        for (String file : files)
+        {
+            resources.add(new FileResource(file, file));
+        }
+        report.getResources().put(Resource.Type.FILE, resources);
+        return report;
+    }
+}
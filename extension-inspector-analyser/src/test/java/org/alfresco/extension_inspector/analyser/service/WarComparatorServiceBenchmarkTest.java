@@ -0,0 +1,244 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.service;
+
+import static org.alfresco.extension_inspector.model.Resource.Type.ALFRESCO_PUBLIC_API;
+import static org.alfresco.extension_inspector.model.Resource.Type.BEAN;
+import static org.alfresco.extension_inspector.model.Resource.Type.CLASSPATH_ELEMENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Field;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.analyser.checker.AlfrescoInternalUsageChecker;
+import org.alfresco.extension_inspector.analyser.checker.BeanOverwritingChecker;
+import org.alfresco.extension_inspector.analyser.checker.BeanRestrictedClassesChecker;
+import org.alfresco.extension_inspector.analyser.checker.Checker;
+import org.alfresco.extension_inspector.analyser.checker.ClasspathConflictsChecker;
+import org.alfresco.extension_inspector.analyser.checker.FileOverwritingChecker;
+import org.alfresco.extension_inspector.analyser.checker.JakartaMigrationChecker;
+import org.alfresco.extension_inspector.analyser.checker.WarLibraryUsageChecker;
+import org.alfresco.extension_inspector.analyser.result.Conflict;
+import org.alfresco.extension_inspector.analyser.store.MultiVersionInventory;
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Checks that the checkers find the same conflicts when they run one after the other and when they run
+ * concurrently, and compares the time they spend on a large extension.
+ * <p/>
+ * The timing run takes a few seconds, so it only runs when the {@code inventory.benchmark} system property is
+ * {@code true} (e.g. {@code mvn test -Dinventory.benchmark=true}).
+ */
+public class WarComparatorServiceBenchmarkTest
+{
+    private static final Logger logger = LoggerFactory.getLogger(WarComparatorServiceBenchmarkTest.class);
+    private static final int DEPENDENCIES = 30;
+    private static final List<String> VERSIONS = List.of("7.0.0", "7.1.0", "7.2.0", "7.3.0");
+    private static final int PARALLELISM = 4;
+    private static final int ITERATIONS = 3;
+
+    @Test
+    public void testConcurrentCheckersFindTheSameConflicts()
+    {
+        final List<Checker> checkers = checkers(100, 500);
+        final MultiVersionInventory warInventories = warInventories(500);
+        final WarComparatorService sequential = warComparatorService(checkers, 1);
+        final WarComparatorService concurrent = warComparatorService(checkers, PARALLELISM);
+        try
+        {
+            final List<Conflict> expected = sequential.findConflicts(warInventories).toList();
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, concurrent.findConflicts(warInventories).toList());
+        }
+        finally
+        {
+            concurrent.shutdown();
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "inventory.benchmark", matches = "true")
+    public void testConcurrentCheckersTime()
+    {
+        final int extensionClasses = 5000;
+        final List<Checker> checkers = checkers(extensionClasses, 20000);
+        final MultiVersionInventory warInventories = warInventories(20000);
+        final int processors = Math.max(Runtime.getRuntime().availableProcessors(), 2);
+        final WarComparatorService sequential = warComparatorService(checkers, 1);
+        final WarComparatorService concurrent = warComparatorService(checkers, processors);
+        try
+        {
+            final long sequentialMillis = measure(sequential, warInventories);
+            final long concurrentMillis = measure(concurrent, warInventories);
+            logger.info("Checking {} extension classes against {} versions: {} ms with 1 thread, {} ms with {} " +
+                        "threads", extensionClasses, VERSIONS.size(), sequentialMillis, concurrentMillis, processors);
+        }
+        finally
+        {
+            concurrent.shutdown();
+        }
+    }
+
+    /**
+     * @return the checkers, analysing an extension of the given number of classes that depend on the classes
+     * of the WAR, of its libraries and of the extension
+     */
+    private static List<Checker> checkers(int extensionClassCount, int warClassCount)
+    {
+        final ConfigService configService = mock(ConfigService.class);
+        final Set<Resource> extensionClasses = new HashSet<>();
+        final Map<String, Set<String>> dependenciesPerClass = new HashMap<>();
+        for (int i = 0; i < extensionClassCount; i++)
+        {
+            final String id = "/com/example/amp/A" + i + ".class";
+            extensionClasses.add(new ClasspathElementResource(id, "/WEB-INF/lib/amp.jar"));
+            final Set<String> dependencies = new HashSet<>();
+            for (int j = 0; j < DEPENDENCIES; j++)
+            {
+                final int dependency = (i * 31 + j * 7) % warClassCount;
+                dependencies.add(j % 3 == 0 ? "/org/alfresco/war/C" + dependency + ".class" :
+                                 j % 3 == 1 ? "/com/library/L" + dependency + ".class" :
+                                 "/com/example/amp/A" + (i + j) % extensionClassCount + ".class");
+            }
+            dependencies.add("/javax/mail/Message.class");
+            dependenciesPerClass.put(id, dependencies);
+        }
+        final Set<Resource> extensionBeans = new HashSet<>();
+        for (int i = 0; i < extensionClassCount / 10; i++)
+        {
+            extensionBeans.add(new BeanResource("bean" + i * 20, "amp-context.xml", "org.alfresco.war.C" + i));
+        }
+        doReturn("large-extension.amp").when(configService).getExtensionPath();
+        doReturn(Set.of()).when(configService).getExtensionResources(any());
+        doReturn(extensionClasses).when(configService).getExtensionResources(CLASSPATH_ELEMENT);
+        doReturn(extensionBeans).when(configService).getExtensionResources(BEAN);
+        doReturn(Set.of("javax/mail")).when(configService).getJakartaMigrationClassList();
+
+        final ExtensionResourceInfoService extensionResourceInfoService = new ExtensionResourceInfoService();
+        final ExtensionCodeAnalysisService extensionCodeAnalysisService = new ExtensionCodeAnalysisService();
+        ReflectionTestUtils.setField(extensionResourceInfoService, "configService", configService);
+        ReflectionTestUtils.setField(extensionCodeAnalysisService, "dependenciesPerClass", dependenciesPerClass);
+
+        final List<Checker> checkers = List.of(
+            new AlfrescoInternalUsageChecker(),
+            new BeanOverwritingChecker(),
+            new BeanRestrictedClassesChecker(),
+            new ClasspathConflictsChecker(),
+            new FileOverwritingChecker(),
+            new JakartaMigrationChecker(),
+            new WarLibraryUsageChecker());
+        checkers.forEach(checker -> inject(checker,
+            configService, extensionResourceInfoService, extensionCodeAnalysisService));
+        return checkers;
+    }
+
+    private static MultiVersionInventory warInventories(int warClassCount)
+    {
+        final MultiVersionInventory warInventories = new MultiVersionInventory();
+        for (int v = 0; v < VERSIONS.size(); v++)
+        {
+            warInventories.add(VERSIONS.get(v), warInventory(v, warClassCount));
+        }
+        return warInventories;
+    }
+
+    private static long measure(WarComparatorService warComparatorService, MultiVersionInventory warInventories)
+    {
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            warComparatorService.findConflicts(warInventories).count();
+        }
+        return (System.nanoTime() - start) / 1_000_000 / ITERATIONS;
+    }
+
+    private static WarComparatorService warComparatorService(List<Checker> checkers, int parallelism)
+    {
+        final WarComparatorService warComparatorService = new WarComparatorService();
+        ReflectionTestUtils.setField(warComparatorService, "checkers", checkers);
+        ReflectionTestUtils.setField(warComparatorService, "parallelism", parallelism);
+        return warComparatorService;
+    }
+
+    private static InventoryReport warInventory(int version, int warClassCount)
+    {
+        final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        final Set<Resource> classes = new HashSet<>();
+        final Set<Resource> publicApis = new HashSet<>();
+        final Set<Resource> beans = new HashSet<>();
+        for (int i = 0; i < warClassCount; i++)
+        {
+            // each version moves some classes to another library
+            final String library = "/WEB-INF/lib/library-" + (i % 100 == version ? version : 0) + ".jar";
+            classes.add(new ClasspathElementResource("/org/alfresco/war/C" + i + ".class", "/WEB-INF/lib/alfresco.jar"));
+            classes.add(new ClasspathElementResource("/com/library/L" + i + ".class", library));
+            if (i % (version + 2) == 0)
+            {
+                publicApis.add(new AlfrescoPublicApiResource("org.alfresco.war.C" + i, i % 7 == version));
+            }
+            if (i % 10 == 0)
+            {
+                beans.add(new BeanResource("bean" + i, "war-context.xml", "org.alfresco.war.C" + i));
+            }
+        }
+        resources.put(CLASSPATH_ELEMENT, classes);
+        resources.put(ALFRESCO_PUBLIC_API, publicApis);
+        resources.put(BEAN, beans);
+        final InventoryReport report = new InventoryReport();
+        report.setResources(resources);
+        return report;
+    }
+
+    /**
+     * Sets the @Autowired fields of a checker, by type.
+     */
+    private static void inject(Object target, Object... dependencies)
+    {
+        for (Field field : target.getClass().getDeclaredFields())
+        {
+            if (field.isAnnotationPresent(Autowired.class))
+            {
+                for (Object dependency : dependencies)
+                {
+                    if (field.getType().isInstance(dependency))
+                    {
+                        ReflectionTestUtils.setField(target, field.getName(), dependency);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser;
+import org.alfresco.extension_inspector.analyser.parser.JSONInventoryParser;
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.InventoryDelta;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class InventoryIndexTest
+{
+    @TempDir
+    Path tempDir;
+
+    private final InventoryReport v100 = report("1.0.0", "org/alfresco/A.class", "org/alfresco/B.class");
+    private final InventoryReport v110 = report("1.1.0", "org/alfresco/A.class", "org/alfresco/C.class");
+    private final InventoryReport v120 = report("1.2.0", "org/alfresco/C.class", "org/alfresco/D.class");
+
+    @Test
+    public void testCompileAndRetrieve() throws IOException
+    {
+        final Path index = compileReports();
+
+        final WarInventoryReportStore store = store(index.toUri().toString());
+
+        assertEquals(List.of("1.0.0", "1.1.0", "1.2.0"), List.copyOf(store.allKnownVersions()));
+        assertEquals(v100, store.retrieve("1.0.0"));
+        assertEquals(v110, store.retrieve("1.1.0"));
+        assertEquals(v120, store.retrieve("1.2.0"));
+        assertNotNull(store.retrieveDelta("1.2.0"));
+    }
+
+    @Test
+    public void testReadFromStream() throws IOException
+    {
+        final Path index = compileReports();
+
+        final Map<String, AbstractResource> reports =
+            InventoryIndex.read(new ByteArrayResource(Files.readAllBytes(index)));
+
+        assertEquals(Set.of("1.0.0", "1.1.0", "1.2.0"), reports.keySet());
+        assertEquals("1.1.0.bin", reports.get("1.1.0").getFilename());
+        assertEquals("1.2.0.delta", reports.get("1.2.0").getFilename());
+        try (InputStream is = reports.get("1.1.0").getInputStream())
+        {
+            assertEquals(v110, BinaryInventoryFormat.read(is));
+        }
+    }
+
+    @Test
+    public void testStoreWithoutIndex() throws IOException
+    {
+        writeBinary("1.0.0.bin", v100);
+
+        final WarInventoryReportStore store = store(tempDir.resolve("missing.idx").toUri().toString());
+
+        assertEquals(v100, store.retrieve("1.0.0"));
+    }
+
+    @Test
+    public void testInvalidIndex() throws IOException
+    {
+        assertThrows(IllegalArgumentException.class,
+            () -> InventoryIndex.read(new ByteArrayResource(new byte[] {'A', 'E', 'I', 'B', 1})));
+    }
+
+    private Path compileReports() throws IOException
+    {
+        final Path reports = Files.createDirectories(tempDir.resolve("bundled-inventories"));
+        new ObjectMapper().writeValue(reports.resolve("1.0.0.json").toFile(), v100);
+        // the binary report is preferred to the JSON one
+        new ObjectMapper().writeValue(reports.resolve("1.1.0.json").toFile(), report("1.1.0"));
+        writeBinary("bundled-inventories/1.1.0.bin", v110);
+        try (OutputStream os = Files.newOutputStream(reports.resolve("1.2.0.delta")))
+        {
+            BinaryInventoryFormat.writeDelta(InventoryDelta.between("1.1.0", v110, v120), os);
+        }
+
+        final Path index = tempDir.resolve("target/bundled-inventories.idx");
+        assertEquals(Set.of("1.0.0", "1.1.0", "1.2.0"), InventoryIndexCompiler.compile(reports, index).keySet());
+        return index;
+    }
+
+    private WarInventoryReportStore store(String index)
+    {
+        final WarInventoryReportStore store = new WarInventoryReportStore();
+        ReflectionTestUtils.setField(store, "inventoryIndexResource", index);
+        ReflectionTestUtils.setField(store, "inventoryReportResourcePatterns", new String[] {tempDir.toUri() + "*.bin"});
+        ReflectionTestUtils.setField(store, "inventoryParser", new JSONInventoryParser());
+        ReflectionTestUtils.setField(store, "binaryInventoryParser", new BinaryInventoryParser());
+        ReflectionTestUtils.invokeMethod(store, "init");
+        return store;
+    }
+
+    private void writeBinary(String name, InventoryReport report) throws IOException
+    {
+        try (OutputStream os = Files.newOutputStream(tempDir.resolve(name)))
+        {
+            BinaryInventoryFormat.write(report, os);
+        }
+    }
+
+    private static InventoryReport report(String version, String... classes)
+    {
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion(version);
+        final Set<Resource> resources = new LinkedHashSet<>();
+        for (String clazz : classes)
+        {
+            resources.add(new ClasspathElementResource(clazz, "/WEB-INF/lib/alfresco-repository.jar"));
+        }
+        report.getResources().put(Resource.Type.CLASSPATH_ELEMENT, resources);
+        return report;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class InventoryReportCacheTest
+{
+    private final List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testLeastRecentlyUsedReportIsEvicted()
+    {
+        final InventoryReport small = report("1.0.0", 10);
+        final InventoryReport large = report("2.0.0", 100);
+        final long smallSize = InventoryReportCache.estimateSize(small);
+        final long largeSize = InventoryReportCache.estimateSize(large);
+        assertTrue(largeSize > 5 * smallSize);
+
+        // room for the large report and one small one
+        final InventoryReportCache cache = cache(largeSize + smallSize);
+
+        assertSame(small, cache.get("1.0.0", version -> load(small)));
+        assertSame(large, cache.get("2.0.0", version -> load(large)));
+        assertSame(small, cache.get("1.0.0", version -> load(small)));
+        assertEquals(List.of("1.0.0", "2.0.0"), loaded);
+
+        // 1.0.0 was used last, so 2.0.0 makes room for 1.1.0
+        final InventoryReport other = report("1.1.0", 10);
+        cache.get("1.1.0", version -> load(other));
+        final InventoryReportCache.Statistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(3, statistics.getMisses());
+        assertEquals(1, statistics.getEvictions());
+        assertEquals(2, statistics.getCount());
+        assertEquals(2 * smallSize, statistics.getSize());
+
+        // the evicted report is still softly referenced
+        assertSame(large, cache.get("2.0.0", version -> load(large)));
+        assertEquals(1, cache.getStatistics().getSoftHits());
+        assertEquals(List.of("1.0.0", "2.0.0", "1.1.0"), loaded);
+    }
+
+    @Test
+    public void testReportLargerThanTheCache()
+    {
+        final InventoryReport report = report("1.0.0", 10);
+        final InventoryReportCache cache = cache(InventoryReportCache.estimateSize(report) - 1);
+
+        cache.get("1.0.0", version -> load(report));
+
+        assertEquals(0, cache.getStatistics().getCount());
+        assertEquals(0, cache.getStatistics().getSize());
+        assertEquals(1, cache.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void testDisabledCacheKeepsNoReport()
+    {
+        final InventoryReport report = report("1.0.0", 10);
+        final InventoryReportCache cache = new InventoryReportCache();
+
+        cache.get("1.0.0", version -> load(report));
+        cache.get("1.0.0", version -> load(report));
+
+        assertEquals(List.of("1.0.0", "1.0.0"), loaded);
+        assertEquals(0, cache.getStatistics().getCount());
+        assertEquals(0, cache.getStatistics().getSoftHits());
+    }
+
+    @Test
+    public void testConcurrentLoadsAreShared() throws Exception
+    {
+        final InventoryReport report = report("1.0.0", 10);
+        final InventoryReportCache cache = new InventoryReportCache();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<InventoryReport> first = CompletableFuture.supplyAsync(() ->
+            cache.get("1.0.0", version -> {
+                loading.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return load(report);
+            }));
+        loading.await();
+
+        final InventoryReport[] shared = new InventoryReport[1];
+        final Thread second = new Thread(() -> shared[0] = cache.get("1.0.0", version -> load(report("1.0.0", 10))));
+        second.start();
+        // released once the second call waits for the first load
+        while (second.getState() != Thread.State.WAITING)
+        {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        second.join();
+
+        assertSame(report, first.get());
+        assertSame(report, shared[0]);
+        assertEquals(List.of("1.0.0"), loaded);
+    }
+
+    private InventoryReport load(InventoryReport report)
+    {
+        loaded.add(report.getAlfrescoVersion());
+        return report;
+    }
+
+    private static InventoryReportCache cache(long maxSize)
+    {
+        final InventoryReportCache cache = new InventoryReportCache();
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        return cache;
+    }
+
+    private static InventoryReport report(String version, int classes)
+    {
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion(version);
+        final Set<Resource> resources = new LinkedHashSet<>();
+        for (int i = 0; i < classes; i++)
+        {
+            resources.add(new ClasspathElementResource("org/alfresco/Class" + i + ".class", "WEB-INF/lib/alfresco.jar"));
+        }
+        report.getResources().put(Resource.Type.CLASSPATH_ELEMENT, resources);
+        return report;
+    }
+}
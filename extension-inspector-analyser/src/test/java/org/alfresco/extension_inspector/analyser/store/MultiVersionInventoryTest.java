@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.analyser.store;
+
+import static java.util.stream.Collectors.toList;
+import static org.alfresco.extension_inspector.model.Resource.Type.ALFRESCO_PUBLIC_API;
+import static org.alfresco.extension_inspector.model.Resource.Type.BEAN;
+import static org.alfresco.extension_inspector.model.Resource.Type.CLASSPATH_ELEMENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+
+class MultiVersionInventoryTest
+{
+    @Test
+    public void testResourcesAreKeptOnceWithTheirVersions()
+    {
+        final MultiVersionInventory inventory = inventory();
+
+        assertEquals(List.of("6.0.0", "6.1.0", "7.0.0"), inventory.getVersions());
+        final Map<Resource, BitSet> classes = inventory.getResources(CLASSPATH_ELEMENT);
+        assertEquals(3, classes.size());
+        assertEquals(bits(0, 1, 2), classes.get(new ClasspathElementResource("/org/A.class", "a.jar")));
+        assertEquals(bits(0), classes.get(new ClasspathElementResource("/org/B.class", "a.jar")));
+        assertEquals(bits(1), classes.get(new ClasspathElementResource("/org/B.class", "b.jar")));
+        assertEquals(Map.of("/org/A.class", bits(0, 1, 2), "/org/B.class", bits(0, 1)),
+            inventory.getVersionsById(CLASSPATH_ELEMENT));
+
+        assertEquals(bits(0, 1, 2), inventory.getVersions(CLASSPATH_ELEMENT));
+        assertEquals(bits(0, 2), inventory.getVersions(ALFRESCO_PUBLIC_API));
+        assertTrue(inventory.getVersions(BEAN).isEmpty());
+        assertTrue(inventory.getResources(BEAN).isEmpty());
+        assertEquals(List.of("6.0.0", "7.0.0"), inventory.getVersions(bits(0, 2)).collect(toList()));
+        assertEquals(bits(1), inventory.getOtherVersions(bits(0, 2)));
+
+        // the deprecation of the public APIs is kept per version
+        final Resource publicApi = new AlfrescoPublicApiResource("org.C", false);
+        assertEquals(bits(0, 2), inventory.getResources(ALFRESCO_PUBLIC_API).get(publicApi));
+        assertEquals(bits(2), inventory.getDeprecatedVersions(publicApi));
+    }
+
+    @Test
+    public void testVersionsAreAddedOnce()
+    {
+        final MultiVersionInventory inventory = inventory();
+
+        assertThrows(IllegalArgumentException.class, () -> inventory.add("6.1.0", new InventoryReport()));
+    }
+
+    private static MultiVersionInventory inventory()
+    {
+        final MultiVersionInventory inventory = new MultiVersionInventory();
+        inventory.add("6.0.0", report(
+            Set.of(new ClasspathElementResource("/org/A.class", "a.jar"),
+                new ClasspathElementResource("/org/B.class", "a.jar")),
+            Set.of(new AlfrescoPublicApiResource("org.C", false))));
+        inventory.add("6.1.0", report(
+            Set.of(new ClasspathElementResource("/org/A.class", "a.jar"),
+                new ClasspathElementResource("/org/B.class", "b.jar")),
+            Set.of()));
+        inventory.add("7.0.0", report(
+            Set.of(new ClasspathElementResource("/org/A.class", "a.jar")),
+            Set.of(new AlfrescoPublicApiResource("org.C", true))));
+        return inventory;
+    }
+
+    private static InventoryReport report(Set<Resource> classpathElements, Set<Resource> publicApis)
+    {
+        final InventoryReport report = new InventoryReport();
+        report.setResources(Map.of(CLASSPATH_ELEMENT, classpathElements, ALFRESCO_PUBLIC_API, publicApis));
+        return report;
+    }
+
+    private static BitSet bits(int... indexes)
+    {
+        final BitSet bits = new BitSet();
+        for (int index : indexes)
+        {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
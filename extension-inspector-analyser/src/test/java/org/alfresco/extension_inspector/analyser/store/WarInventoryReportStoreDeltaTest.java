@@ -0,0 +1,197 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.analyser.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.analyser.parser.BinaryInventoryParser;
+import org.alfresco.extension_inspector.analyser.parser.JSONInventoryParser;
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.InventoryDelta;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class WarInventoryReportStoreDeltaTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRetrieveDeltaChain() throws IOException
+    {
+        final InventoryReport v100 = report("1.0.0", "org/alfresco/A.class", "org/alfresco/B.class");
+        final InventoryReport v110 = report("1.1.0", "org/alfresco/A.class", "org/alfresco/C.class");
+        final InventoryReport v120 = report("1.2.0", "org/alfresco/C.class", "org/alfresco/D.class");
+        writeReport("1.0.0", v100);
+        writeDelta("1.1.0", InventoryDelta.between("1.0.0", v100, v110));
+        writeDelta("1.2.0", InventoryDelta.between("1.1.0", v110, v120));
+
+        final WarInventoryReportStore store = store();
+
+        assertEquals(List.of("1.0.0", "1.1.0", "1.2.0"), List.copyOf(store.allKnownVersions()));
+        assertNull(store.retrieveDelta("1.0.0"));
+        final InventoryDelta delta = store.retrieveDelta("1.2.0");
+        assertNotNull(delta);
+        assertEquals("1.1.0", delta.getBaseVersion());
+        assertEquals(Set.of(classpathElement("org/alfresco/A.class")),
+            delta.getRemoved().get(Resource.Type.CLASSPATH_ELEMENT));
+
+        assertEquals(v100, store.retrieve("1.0.0"));
+        assertEquals(v110, store.retrieve("1.1.0"));
+        assertEquals(v120, store.retrieve("1.2.0"));
+    }
+
+    @Test
+    public void testDeltaChainWithCache() throws IOException
+    {
+        final InventoryReport v100 = report("1.0.0", "org/alfresco/A.class", "org/alfresco/B.class");
+        final InventoryReport v110 = report("1.1.0", "org/alfresco/A.class", "org/alfresco/C.class");
+        final InventoryReport v120 = report("1.2.0", "org/alfresco/C.class", "org/alfresco/D.class");
+        writeReport("1.0.0", v100);
+        writeDelta("1.1.0", InventoryDelta.between("1.0.0", v100, v110));
+        writeDelta("1.2.0", InventoryDelta.between("1.1.0", v110, v120));
+
+        final WarInventoryReportStore store = store();
+        final InventoryReportCache cache = new InventoryReportCache();
+        ReflectionTestUtils.setField(cache, "maxSize", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(store, "inventoryReportCache", cache);
+
+        assertEquals(v120, store.retrieve("1.2.0"));
+        // the base versions were cached while rebuilding 1.2.0
+        assertEquals(v110, store.retrieve("1.1.0"));
+        assertEquals(v100, store.retrieve("1.0.0"));
+        assertSame(store.retrieve("1.2.0"), store.retrieve("1.2.0"));
+
+        final InventoryReportCache.Statistics statistics = store.getCacheStatistics();
+        assertEquals(3, statistics.getMisses());
+        assertEquals(4, statistics.getHits());
+        assertEquals(3, statistics.getCount());
+    }
+
+    @Test
+    public void testFullReportIsPreferredToDelta() throws IOException
+    {
+        final InventoryReport v100 = report("1.0.0", "org/alfresco/A.class");
+        final InventoryReport v110 = report("1.1.0", "org/alfresco/B.class");
+        writeReport("1.0.0", v100);
+        writeReport("1.1.0", v110);
+        writeDelta("1.1.0", InventoryDelta.between("1.0.0", v100, v110));
+
+        final WarInventoryReportStore store = store();
+
+        assertNull(store.retrieveDelta("1.1.0"));
+        assertEquals(v110, store.retrieve("1.1.0"));
+    }
+
+    @Test
+    public void testMissingOrCircularBase() throws IOException
+    {
+        final InventoryReport v100 = report("1.0.0", "org/alfresco/A.class");
+        final InventoryReport v110 = report("1.1.0", "org/alfresco/B.class");
+        writeDelta("1.1.0", InventoryDelta.between("0.9.0", v100, v110));
+        writeDelta("1.2.0", InventoryDelta.between("1.3.0", v100, v110));
+        writeDelta("1.3.0", InventoryDelta.between("1.2.0", v110, v100));
+
+        final WarInventoryReportStore store = store();
+
+        assertThrows(RuntimeException.class, () -> store.retrieve("1.1.0"));
+        assertThrows(RuntimeException.class, () -> store.retrieve("1.2.0"));
+
+        // the cache doesn't wait for the report it is loading
+        ReflectionTestUtils.setField(store, "inventoryReportCache", new InventoryReportCache());
+        assertThrows(RuntimeException.class, () -> store.retrieve("1.2.0"));
+    }
+
+    @Test
+    public void testRemovedResourceType() throws IOException
+    {
+        final InventoryReport v100 = report("1.0.0", "org/alfresco/A.class");
+        v100.getResources().put(Resource.Type.FILE,
+            new LinkedHashSet<>(Set.of(new FileResource("/WEB-INF/web.xml", "/WEB-INF/web.xml"))));
+        v100.getResources().put(Resource.Type.BEAN, new LinkedHashSet<>());
+        final InventoryReport v110 = report("1.1.0", "org/alfresco/A.class");
+        v110.getResources().put(Resource.Type.BEAN, new LinkedHashSet<>());
+        writeReport("1.0.0", v100);
+        writeDelta("1.1.0", InventoryDelta.between("1.0.0", v100, v110));
+
+        // the types the report doesn't have are left out, the empty ones are kept
+        assertEquals(v110, store().retrieve("1.1.0"));
+    }
+
+    private WarInventoryReportStore store()
+    {
+        final WarInventoryReportStore store = new WarInventoryReportStore();
+        ReflectionTestUtils.setField(store, "inventoryReportResourcePatterns", new String[] {
+            tempDir.toUri() + "*.bin", tempDir.toUri() + "*.delta"});
+        ReflectionTestUtils.setField(store, "inventoryParser", new JSONInventoryParser());
+        ReflectionTestUtils.setField(store, "binaryInventoryParser", new BinaryInventoryParser());
+        ReflectionTestUtils.invokeMethod(store, "init");
+        return store;
+    }
+
+    private void writeReport(String version, InventoryReport report) throws IOException
+    {
+        try (OutputStream os = Files.newOutputStream(tempDir.resolve(version + ".bin")))
+        {
+            BinaryInventoryFormat.write(report, os);
+        }
+    }
+
+    private void writeDelta(String version, InventoryDelta delta) throws IOException
+    {
+        try (OutputStream os = Files.newOutputStream(tempDir.resolve(version + ".delta")))
+        {
+            BinaryInventoryFormat.writeDelta(delta, os);
+        }
+    }
+
+    private static InventoryReport report(String version, String... classes)
+    {
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion(version);
+        final Set<Resource> resources = new LinkedHashSet<>();
+        for (String clazz : classes)
+        {
+            resources.add(classpathElement(clazz));
+        }
+        report.getResources().put(Resource.Type.CLASSPATH_ELEMENT, resources);
+        return report;
+    }
+
+    private static Resource classpathElement(String id)
+    {
+        return new ClasspathElementResource(id, "/WEB-INF/lib/alfresco-repository.jar");
+    }
+}
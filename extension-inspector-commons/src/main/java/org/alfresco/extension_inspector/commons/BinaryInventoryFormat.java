@@ -0,0 +1,532 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.commons;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.InventoryDelta;
+import org.alfresco.extension_inspector.model.InventoryMetadata;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+
+/**
+ * A compact binary serialisation of {@link InventoryReport}s, an alternative to the JSON reports that
+ * is much smaller and faster to read.
+ * <p/>
+ * Layout, where every number is an unsigned LEB128 varint and every string is its UTF-8 length
+ * followed by its UTF-8 bytes (a nullable string has its length + 1, 0 meaning null):
+ * <pre>
+ * "AEIB" format-version(1 byte)
+ * schemaVersion(nullable) alfrescoVersion(nullable)
+ * dictionary: count, strings
+ * sections: count, then for each type: type name, resource count, resources
+ * resource: id prefix length, id suffix(nullable), definingObject reference, type specific fields
+ * </pre>
+ * <ul>
+ *     <li>The strings shared by many resources (defining objects, bean classes) are written once, in a
+ *     dictionary (the most used first), and referenced by their index.</li>
+ *     <li>The resources of each type are sorted by id (by default), and each id is front-coded: only the
+ *     length of the prefix it shares with the previous id and the rest of it are written.</li>
+ *     <li>A definingObject reference is 0 for null, 1 for the resource id itself (e.g. for files) and
+ *     the dictionary index + 2 otherwise. A bean class reference is 0 for null and the index + 1 otherwise.
+ *     The public API flags are a byte: 1 for deprecated, 2 for implicit.</li>
+ * </ul>
+ * The order of the resources of a type is therefore not kept, which is not relevant for the report,
+ * unless they are written with {@link #write(InventoryReport, OutputStream, boolean)} (their ids are then
+ * front-coded in their original order).
+ * <p/>
+ * The versions come first so that they can be read without the rest of the report, see
+ * {@link #readMetadata(InputStream)}.
+ * <p/>
+ * The same layout is used for the delta reports ({@link InventoryDelta}), see {@link #readDelta(InputStream)}.
+ */
+public class BinaryInventoryFormat
+{
+    public static final String FILE_EXTENSION = "bin";
+    public static final String DELTA_FILE_EXTENSION = "delta";
+
+    private static final byte[] MAGIC = {'A', 'E', 'I', 'B'};
+    private static final byte[] DELTA_MAGIC = {'A', 'E', 'I', 'D'};
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int DEPRECATED_FLAG = 1;
+    private static final int IMPLICIT_FLAG = 2;
+
+    private static final Comparator<Resource> BY_ID = Comparator.comparing(Resource::getId, nullsFirst(naturalOrder()));
+
+    private BinaryInventoryFormat()
+    {
+    }
+
+    /**
+     * @param report the report to write
+     * @param os the stream to write the report to (not closed)
+     * @throws IOException
+     */
+    public static void write(InventoryReport report, OutputStream os) throws IOException
+    {
+        write(report, os, true);
+    }
+
+    /**
+     * @param report the report to write
+     * @param os the stream to write the report to (not closed)
+     * @param sortById whether the resources are sorted by id (the most compact), or kept in their order
+     * @throws IOException
+     */
+    public static void write(InventoryReport report, OutputStream os, boolean sortById) throws IOException
+    {
+        final Writer writer = new Writer(new BufferedOutputStream(os));
+        writer.bytes(MAGIC);
+        writer.byteValue(FORMAT_VERSION);
+        writeReport(writer, report.getSchemaVersion(), report.getAlfrescoVersion(), report.getResources(), sortById);
+        writer.flush();
+    }
+
+    /**
+     * Writes a delta report (see {@link #readDelta(InputStream)}).
+     *
+     * @param delta the delta to write
+     * @param os the stream to write the delta to (not closed)
+     * @throws IOException
+     */
+    public static void writeDelta(InventoryDelta delta, OutputStream os) throws IOException
+    {
+        final Writer writer = new Writer(new BufferedOutputStream(os));
+        writer.bytes(DELTA_MAGIC);
+        writer.byteValue(FORMAT_VERSION);
+        writer.string(delta.getBaseVersion());
+        writeReport(writer, null, null, delta.getRemoved(), true);
+        writeReport(writer, delta.getSchemaVersion(), delta.getAlfrescoVersion(), delta.getAdded(), true);
+        writer.flush();
+    }
+
+    private static void writeReport(Writer writer, String schemaVersion, String alfrescoVersion,
+        Map<Resource.Type, Set<Resource>> resourcesByType, boolean sortById) throws IOException
+    {
+        final Map<Resource.Type, List<Resource>> sections = new EnumMap<>(Resource.Type.class);
+        resourcesByType.forEach((type, resources) -> {
+            final List<Resource> section = new ArrayList<>(resources);
+            if (sortById)
+            {
+                section.sort(BY_ID);
+            }
+            sections.put(type, section);
+        });
+        final Map<String, Integer> dictionary = buildDictionary(sections);
+
+        writer.nullableString(schemaVersion);
+        writer.nullableString(alfrescoVersion);
+
+        writer.varint(dictionary.size());
+        for (String value : dictionary.keySet())
+        {
+            writer.string(value);
+        }
+
+        writer.varint(sections.size());
+        for (Map.Entry<Resource.Type, List<Resource>> section : sections.entrySet())
+        {
+            writer.string(section.getKey().name());
+            writer.varint(section.getValue().size());
+            String previousId = "";
+            for (Resource resource : section.getValue())
+            {
+                final String id = resource.getId();
+                final int prefix = id == null ? 0 : sharedPrefixLength(previousId, id);
+                writer.varint(prefix);
+                writer.nullableString(id == null ? null : id.substring(prefix));
+                previousId = id == null ? "" : id;
+
+                final String definingObject = resource.getDefiningObject();
+                writer.varint(definingObject == null ? 0 :
+                              definingObject.equals(id) ? 1 : dictionary.get(definingObject) + 2);
+                if (resource instanceof BeanResource)
+                {
+                    final String beanClass = ((BeanResource) resource).getBeanClass();
+                    writer.varint(beanClass == null ? 0 : dictionary.get(beanClass) + 1);
+                }
+                else if (resource instanceof AlfrescoPublicApiResource)
+                {
+                    final AlfrescoPublicApiResource publicApi = (AlfrescoPublicApiResource) resource;
+                    writer.byteValue((publicApi.isDeprecated() ? DEPRECATED_FLAG : 0) |
+                                     (publicApi.isImplicit() ? IMPLICIT_FLAG : 0));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param is the stream to read the report from (not closed)
+     * @return the report
+     * @throws IOException if the stream can't be read
+     * @throws IllegalArgumentException if the content is not a supported binary report
+     */
+    public static InventoryReport read(InputStream is) throws IOException
+    {
+        final Reader reader = new Reader(InventoryUtils.extract(is));
+        readHeader(reader, MAGIC, "binary inventory report");
+        try
+        {
+            final InventoryReport report = new InventoryReport();
+            readReport(reader, report::setSchemaVersion, report::setAlfrescoVersion, report::setResources);
+            return report;
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            throw new IllegalArgumentException("Invalid binary inventory report", e);
+        }
+    }
+
+    /**
+     * Reads the header of a report only, i.e. the bytes before its dictionary.
+     *
+     * @param is the stream to read the header from (not closed, and left right after the header)
+     * @return the versions of the report
+     * @throws IOException if the stream can't be read
+     * @throws IllegalArgumentException if the content is not a supported binary report
+     */
+    public static InventoryMetadata readMetadata(InputStream is) throws IOException
+    {
+        readHeader(new Reader(is.readNBytes(MAGIC.length + 1)), MAGIC, "binary inventory report");
+        final String schemaVersion = readNullableString(is);
+        final String alfrescoVersion = readNullableString(is);
+        return new InventoryMetadata(schemaVersion, alfrescoVersion);
+    }
+
+    private static String readNullableString(InputStream is) throws IOException
+    {
+        // a varint is at most 5 bytes long, the last one without the continuation bit
+        final byte[] varint = new byte[5];
+        int length = 0;
+        int b;
+        do
+        {
+            b = is.read();
+            if (b < 0)
+            {
+                throw new IllegalArgumentException("Truncated binary inventory report");
+            }
+            varint[length++] = (byte) b;
+        }
+        while ((b & 0x80) != 0 && length < varint.length);
+
+        final int stringLength = new Reader(varint).varint();
+        if (stringLength == 0)
+        {
+            return null;
+        }
+        final byte[] string = is.readNBytes(Math.max(stringLength - 1, 0));
+        if (string.length != stringLength - 1)
+        {
+            throw new IllegalArgumentException("Truncated binary inventory report");
+        }
+        return new String(string, UTF_8);
+    }
+
+    /**
+     * A delta report holds an {@link InventoryDelta}: the version of its base report, then the removed
+     * and the added resources, each written as the body of a report (after the format version).
+     *
+     * @param is the stream to read the delta from (not closed)
+     * @return the delta
+     * @throws IOException if the stream can't be read
+     * @throws IllegalArgumentException if the content is not a supported delta report
+     */
+    public static InventoryDelta readDelta(InputStream is) throws IOException
+    {
+        final Reader reader = new Reader(InventoryUtils.extract(is));
+        readHeader(reader, DELTA_MAGIC, "delta inventory report");
+        try
+        {
+            final InventoryDelta delta = new InventoryDelta();
+            delta.setBaseVersion(reader.string());
+            readReport(reader, version -> {}, version -> {}, delta::setRemoved);
+            readReport(reader, delta::setSchemaVersion, delta::setAlfrescoVersion, delta::setAdded);
+            return delta;
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            throw new IllegalArgumentException("Invalid delta inventory report", e);
+        }
+    }
+
+    private static void readHeader(Reader reader, byte[] magic, String description)
+    {
+        for (byte b : magic)
+        {
+            if (reader.byteValue() != b)
+            {
+                throw new IllegalArgumentException("Not a " + description);
+            }
+        }
+        final int version = reader.byteValue();
+        if (version != FORMAT_VERSION)
+        {
+            throw new IllegalArgumentException("Unsupported " + description + " version: " + version);
+        }
+    }
+
+    private static void readReport(Reader reader, Consumer<String> schemaVersion, Consumer<String> alfrescoVersion,
+        Consumer<Map<Resource.Type, Set<Resource>>> resourcesConsumer)
+    {
+        schemaVersion.accept(reader.nullableString());
+        alfrescoVersion.accept(reader.nullableString());
+
+        final String[] dictionary = new String[reader.count()];
+        for (int i = 0; i < dictionary.length; i++)
+        {
+            dictionary[i] = reader.string();
+        }
+
+        final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        final int sectionCount = reader.count();
+        for (int i = 0; i < sectionCount; i++)
+        {
+            final Resource.Type type = Resource.Type.valueOf(reader.string());
+            final int count = reader.count();
+            final Set<Resource> section = new LinkedHashSet<>(Math.max(16, (int) (count / .75f) + 1));
+            String previousId = "";
+            for (int j = 0; j < count; j++)
+            {
+                final int prefix = reader.varint();
+                final String suffix = reader.nullableString();
+                final String id = suffix == null ? null :
+                                  prefix == 0 ? suffix : previousId.substring(0, prefix).concat(suffix);
+                previousId = id == null ? "" : id;
+
+                final int definingObjectRef = reader.varint();
+                final String definingObject = definingObjectRef == 0 ? null :
+                                              definingObjectRef == 1 ? id : dictionary[definingObjectRef - 2];
+                section.add(readResource(type, id, definingObject, reader, dictionary));
+            }
+            resources.put(type, section);
+        }
+        resourcesConsumer.accept(resources);
+    }
+
+    private static Resource readResource(Resource.Type type, String id, String definingObject, Reader reader,
+        String[] dictionary)
+    {
+        switch (type)
+        {
+        case FILE:
+            return new FileResource(id, definingObject);
+        case CLASSPATH_ELEMENT:
+            return new ClasspathElementResource(id, definingObject);
+        case BEAN:
+            final int beanClassRef = reader.varint();
+            return new BeanResource(id, definingObject, beanClassRef == 0 ? null : dictionary[beanClassRef - 1]);
+        case ALFRESCO_PUBLIC_API:
+            final int flags = reader.byteValue();
+            final AlfrescoPublicApiResource resource = new AlfrescoPublicApiResource(id,
+                (flags & DEPRECATED_FLAG) != 0, (flags & IMPLICIT_FLAG) != 0);
+            resource.setDefiningObject(definingObject);
+            return resource;
+        default:
+            throw new IllegalArgumentException("Unsupported resource type: " + type);
+        }
+    }
+
+    /**
+     * @return the shared strings, the most used first, with their index
+     */
+    private static Map<String, Integer> buildDictionary(Map<Resource.Type, List<Resource>> sections)
+    {
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        sections.values().forEach(resources -> resources.forEach(resource -> {
+            final String definingObject = resource.getDefiningObject();
+            if (definingObject != null && !definingObject.equals(resource.getId()))
+            {
+                counts.merge(definingObject, 1, Integer::sum);
+            }
+            if (resource instanceof BeanResource && ((BeanResource) resource).getBeanClass() != null)
+            {
+                counts.merge(((BeanResource) resource).getBeanClass(), 1, Integer::sum);
+            }
+        }));
+
+        final List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : entries)
+        {
+            dictionary.put(entry.getKey(), dictionary.size());
+        }
+        return dictionary;
+    }
+
+    private static int sharedPrefixLength(String a, String b)
+    {
+        final int max = Math.min(a.length(), b.length());
+        int length = 0;
+        while (length < max && a.charAt(length) == b.charAt(length))
+        {
+            length++;
+        }
+        // don't split a surrogate pair, as the suffix is written as UTF-8
+        if (length > 0 && length < b.length() && Character.isHighSurrogate(b.charAt(length - 1)))
+        {
+            length--;
+        }
+        return length;
+    }
+
+    private static final class Writer
+    {
+        private final OutputStream os;
+
+        private Writer(OutputStream os)
+        {
+            this.os = os;
+        }
+
+        private void byteValue(int value) throws IOException
+        {
+            os.write(value);
+        }
+
+        private void bytes(byte[] value) throws IOException
+        {
+            os.write(value);
+        }
+
+        private void varint(int value) throws IOException
+        {
+            while ((value & ~0x7F) != 0)
+            {
+                os.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            os.write(value);
+        }
+
+        private void string(String value) throws IOException
+        {
+            final byte[] bytes = value.getBytes(UTF_8);
+            varint(bytes.length);
+            os.write(bytes);
+        }
+
+        private void nullableString(String value) throws IOException
+        {
+            if (value == null)
+            {
+                varint(0);
+                return;
+            }
+            final byte[] bytes = value.getBytes(UTF_8);
+            varint(bytes.length + 1);
+            os.write(bytes);
+        }
+
+        private void flush() throws IOException
+        {
+            os.flush();
+        }
+    }
+
+    private static final class Reader
+    {
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data)
+        {
+            this.data = data;
+        }
+
+        private int byteValue()
+        {
+            if (position >= data.length)
+            {
+                throw new IllegalArgumentException("Truncated binary inventory report");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        private int varint()
+        {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7)
+            {
+                final int b = byteValue();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Invalid binary inventory report");
+        }
+
+        /**
+         * @return a number of items, each one taking at least a byte
+         */
+        private int count()
+        {
+            final int count = varint();
+            if (count < 0 || count > data.length - position)
+            {
+                throw new IllegalArgumentException("Invalid binary inventory report");
+            }
+            return count;
+        }
+
+        private String string()
+        {
+            return string(varint());
+        }
+
+        private String nullableString()
+        {
+            final int length = varint();
+            return length == 0 ? null : string(length - 1);
+        }
+
+        private String string(int length)
+        {
+            if (length < 0 || length > data.length - position)
+            {
+                throw new IllegalArgumentException("Truncated binary inventory report");
+            }
+            final String value = new String(data, position, length, UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
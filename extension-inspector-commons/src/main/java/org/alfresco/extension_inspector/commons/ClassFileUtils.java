@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.commons;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Byte-level checks on raw class files, to avoid parsing the classes that are not relevant.
+ */
+public class ClassFileUtils
+{
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int CONSTANT_POOL_OFFSET = 10;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    /**
+     * Checks whether the constant pool of a class file holds the given UTF8 constant (e.g. an annotation
+     * descriptor), without parsing the rest of the class.
+     * <p/>
+     * A class can only use an annotation, a type or a member name that is in its constant pool, so a
+     * false result means the class does not reference the constant at all.
+     *
+     * @param classFile the buffer holding the class file
+     * @param offset the offset of the class file in the buffer
+     * @param length the length of the class file
+     * @param constant the constant to look for
+     * @return false if the constant is not in the constant pool, true if it is or if the class file
+     * cannot be scanned (e.g. it is not valid), so that the caller falls back to parsing it
+     */
+    public static boolean mayContainUtf8Constant(byte[] classFile, int offset, int length, String constant)
+    {
+        return mayContainUtf8Constant(classFile, offset, length, toModifiedUtf8(constant));
+    }
+
+    /**
+     * Same as {@link #mayContainUtf8Constant(byte[], int, int, String)}, with the constant already
+     * encoded in the modified UTF-8 of class files.
+     */
+    public static boolean mayContainUtf8Constant(byte[] classFile, int offset, int length, byte[] constant)
+    {
+        final int end = offset + length;
+        if (length < CONSTANT_POOL_OFFSET || readInt(classFile, offset) != MAGIC)
+        {
+            return true;
+        }
+
+        final int count = readUnsignedShort(classFile, offset + 8);
+        int position = offset + CONSTANT_POOL_OFFSET;
+        for (int index = 1; index < count; index++)
+        {
+            if (position >= end)
+            {
+                return true;
+            }
+            final int tag = classFile[position];
+            switch (tag)
+            {
+            case CONSTANT_UTF8:
+                if (position + 3 > end)
+                {
+                    return true;
+                }
+                final int utf8Length = readUnsignedShort(classFile, position + 1);
+                position += 3;
+                if (utf8Length == constant.length &&
+                    position + utf8Length <= end &&
+                    Arrays.equals(classFile, position, position + utf8Length, constant, 0, utf8Length))
+                {
+                    return true;
+                }
+                position += utf8Length;
+                break;
+            case CONSTANT_CLASS:
+            case CONSTANT_STRING:
+            case CONSTANT_METHOD_TYPE:
+            case CONSTANT_MODULE:
+            case CONSTANT_PACKAGE:
+                position += 3;
+                break;
+            case CONSTANT_METHOD_HANDLE:
+                position += 4;
+                break;
+            case CONSTANT_INTEGER:
+            case CONSTANT_FLOAT:
+            case CONSTANT_FIELDREF:
+            case CONSTANT_METHODREF:
+            case CONSTANT_INTERFACE_METHODREF:
+            case CONSTANT_NAME_AND_TYPE:
+            case CONSTANT_DYNAMIC:
+            case CONSTANT_INVOKE_DYNAMIC:
+                position += 5;
+                break;
+            case CONSTANT_LONG:
+            case CONSTANT_DOUBLE:
+                // 8 byte constants take two entries in the constant pool
+                position += 9;
+                index++;
+                break;
+            default:
+                // unknown constant type, the rest of the pool can't be scanned
+                return true;
+            }
+        }
+        // the whole constant pool has been scanned
+        return position > end;
+    }
+
+    /**
+     * @param value a string
+     * @return the string encoded in the modified UTF-8 used by the constant pool of class files
+     */
+    public static byte[] toModifiedUtf8(String value)
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(value.length() + 2);
+        try (DataOutputStream dos = new DataOutputStream(bos))
+        {
+            dos.writeUTF(value);
+        }
+        catch (IOException e)
+        {
+            // only thrown for strings too long for the constant pool
+            throw new UncheckedIOException(e);
+        }
+        final byte[] encoded = bos.toByteArray();
+        // skip the length written by writeUTF
+        return Arrays.copyOfRange(encoded, 2, encoded.length);
+    }
+
+    private static int readUnsignedShort(byte[] data, int position)
+    {
+        return ((data[position] & 0xFF) << 8) | (data[position + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] data, int position)
+    {
+        return ((data[position] & 0xFF) << 24) | ((data[position + 1] & 0xFF) << 16) |
+               ((data[position + 2] & 0xFF) << 8) | (data[position + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.commons;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shares a single instance of the strings repeated by many resources of an inventory, e.g. the
+ * library defining thousands of classes or the class of many beans, whether they are found in a WAR or
+ * read from a report (where each occurrence would otherwise be a distinct string).
+ * <p/>
+ * The strings are only weakly held: they are released with the last resource using them, so the inventories
+ * of any number of WARs or versions can go through the interner. Thread safe.
+ */
+public final class Interner
+{
+    // striped, so that the workers of a WAR (or the parsers of several reports) seldom wait for each other
+    private static final int STRIPES = 16;
+    private static final Map<String, WeakReference<String>>[] STRINGS = newStripes();
+
+    private Interner()
+    {
+    }
+
+    /**
+     * @param value a string, possibly null
+     * @return the shared instance equal to the given string, or null
+     */
+    public static String intern(String value)
+    {
+        if (value == null)
+        {
+            return null;
+        }
+        final Map<String, WeakReference<String>> strings = STRINGS[value.hashCode() & (STRIPES - 1)];
+        synchronized (strings)
+        {
+            final WeakReference<String> reference = strings.get(value);
+            final String interned = reference == null ? null : reference.get();
+            if (interned != null)
+            {
+                return interned;
+            }
+            // the value only references the key weakly, so that the key can be released
+            strings.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, WeakReference<String>>[] newStripes()
+    {
+        final Map<String, WeakReference<String>>[] stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++)
+        {
+            stripes[i] = new WeakHashMap<>();
+        }
+        return stripes;
+    }
+}
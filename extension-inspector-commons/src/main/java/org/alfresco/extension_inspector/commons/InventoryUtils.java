@@ -17,22 +17,32 @@
 package org.alfresco.extension_inspector.commons;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Collection;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.alfresco.extension_inspector.model.Resource;
 
 public class InventoryUtils
 {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * The extraction buffer of each thread, reused for entries up to {@link #MAX_POOLED_BUFFER_SIZE}.
+     */
+    private static final ThreadLocal<byte[]> THREAD_BUFFER =
+        ThreadLocal.withInitial(() -> new byte[DEFAULT_BUFFER_SIZE]);
+
     public static boolean isFromExtension(ZipEntry entry)
     {
         return entry != null && 
@@ -64,30 +74,184 @@ public class InventoryUtils
 
     public static byte[] extract(InputStream zis) throws IOException
     {
-        byte[] buffer = new byte[1024];
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        int len;
-        while ((len = zis.read(buffer)) > 0)
+        return extract(zis, -1);
+    }
+
+    /**
+     * Reads the remaining content of the given stream.
+     * <p/>
+     * When the size of the content is known (e.g. from {@link ZipEntry#getSize()}), it is read directly
+     * into an array of that size. Otherwise, it is read into the reusable buffer of the calling thread
+     * and copied once into an array of the exact size.
+     *
+     * @param is the stream to read
+     * @param size the expected size of the content, or a negative value if unknown
+     * @return the content of the stream
+     * @throws IOException
+     */
+    public static byte[] extract(InputStream is, long size) throws IOException
+    {
+        if (size < 0 || size > MAX_ARRAY_SIZE)
+        {
+            return toArray(extractToBuffer(is, size));
+        }
+
+        final byte[] data = new byte[(int) size];
+        final ByteBuffer content = readFully(is, data);
+        return content.array() == data && content.limit() == data.length ? data : toArray(content);
+    }
+
+    /**
+     * Reads the remaining content of the given stream into the reusable buffer of the calling thread,
+     * without allocating a new array for it (unless the content is larger than the buffer).
+     * <p/>
+     * The returned buffer is a view that is only valid until the next call of this method (or of
+     * {@link #extract(InputStream, long)}) on the same thread, and it must not be modified.
+     *
+     * @param is the stream to read
+     * @param size the expected size of the content, or a negative value if unknown
+     * @return a view of the content of the stream
+     * @throws IOException
+     */
+    public static ByteBuffer extractToBuffer(InputStream is, long size) throws IOException
+    {
+        final ByteBuffer content = readFully(is, threadBuffer(size < 0 ? 0 : (int) Math.min(size, MAX_ARRAY_SIZE)));
+        if (content.capacity() <= MAX_POOLED_BUFFER_SIZE)
+        {
+            THREAD_BUFFER.set(content.array());
+        }
+        return content;
+    }
+
+    /**
+     * @param minLength the minimum length of the buffer
+     * @return the reusable buffer of the calling thread, grown to the given length if needed. Its
+     * content is only valid until the next extraction on the same thread.
+     */
+    public static byte[] threadBuffer(int minLength)
+    {
+        final byte[] buffer = THREAD_BUFFER.get();
+        if (buffer.length >= minLength)
+        {
+            return buffer;
+        }
+        final byte[] newBuffer = new byte[minLength];
+        if (minLength <= MAX_POOLED_BUFFER_SIZE)
+        {
+            THREAD_BUFFER.set(newBuffer);
+        }
+        return newBuffer;
+    }
+
+    /**
+     * @param buffer a view of some content, e.g. from {@link #extractToBuffer(InputStream, long)}
+     * @return a stream reading the content of the buffer, without copying it
+     */
+    public static InputStream newInputStream(ByteBuffer buffer)
+    {
+        if (buffer.hasArray())
+        {
+            return new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                buffer.remaining());
+        }
+        return new ByteBufferInputStream(buffer.duplicate());
+    }
+
+    private static byte[] toArray(ByteBuffer buffer)
+    {
+        final byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return data;
+    }
+
+    /**
+     * Reads the stream to its end into the given buffer, growing it if needed.
+     *
+     * @return a view of the content read, backed by the given buffer unless it had to grow
+     */
+    private static ByteBuffer readFully(InputStream is, byte[] buffer) throws IOException
+    {
+        int length = 0;
+        while (true)
+        {
+            if (length == buffer.length)
+            {
+                // the buffer is full, check for the end of the stream before growing it
+                final int next = is.read();
+                if (next < 0)
+                {
+                    break;
+                }
+                if (buffer.length == MAX_ARRAY_SIZE)
+                {
+                    throw new IOException("Content too large to be extracted");
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min(MAX_ARRAY_SIZE,
+                    Math.max(DEFAULT_BUFFER_SIZE, 2L * buffer.length)));
+                buffer[length++] = (byte) next;
+            }
+            final int read = is.read(buffer, length, buffer.length - length);
+            if (read < 0)
+            {
+                break;
+            }
+            length += read;
+        }
+        return ByteBuffer.wrap(buffer, 0, length);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream
+    {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+            if (!buffer.hasRemaining())
+            {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available()
         {
-            bos.write(buffer, 0, len);
+            return buffer.remaining();
         }
-        bos.close();
-        return bos.toByteArray();
     }
 
     /**
      * @param fileEntry a zip entry for the manifest.mf file from a zip
-     * @param zis input stream for reading the file
+     * @param zis input stream for reading the file (either the archive stream positioned on the entry or the
+     *            entry's own stream)
      * @return a map with the identified versions from the manifest.mf file
      * @throws IOException
      */
-    public static Map<String, String> parseManifestForVersion(ZipEntry fileEntry, ZipInputStream zis) throws IOException
+    public static Map<String, String> parseManifestForVersion(ZipEntry fileEntry, InputStream zis) throws IOException
     {
         if (fileEntry == null || !fileEntry.getName().endsWith("MANIFEST.MF"))
         {
             return null;
         }
-        byte[] data = extract(zis);
+        byte[] data = extract(zis, fileEntry.getSize());
         Manifest manifest = new Manifest(new ByteArrayInputStream(data));
 
         Map<String, String> versions = new HashMap<>();
@@ -19,36 +19,55 @@ package org.alfresco.extension_inspector.model;
 import java.io.Serializable;
 import java.util.Objects;
 
+import org.alfresco.extension_inspector.commons.Interner;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
 /**
+ * The resources are the bulk of an inventory (hundreds of thousands of them), so they are kept small:
+ * <ul>
+ *     <li>the type is given by the class of the resource, rather than held by each of them;</li>
+ *     <li>the definingObject is either the id itself (e.g. for files) or interned (see {@link Interner}),
+ *     as it is shared by all the resources of a library;</li>
+ *     <li>the hash code is cached, as the resources are mostly used in hash sets that are merged
+ *     repeatedly.</li>
+ * </ul>
+ *
  * @author Lucian Tuca
  */
+@JsonPropertyOrder({"type", "id", "definingObject"})
 public abstract class AbstractResource implements Resource, Serializable
 {
-    private Type type;
     protected String id;
     protected String definingObject;
+    /**
+     * The cached hash code, 0 until computed (or if it actually is 0).
+     */
+    private transient int hash;
 
     public AbstractResource()
     {
     }
 
-    protected AbstractResource(Type type, String id, String definingObject)
+    protected AbstractResource(String id, String definingObject)
     {
-        this.type = type;
         this.id = id;
-        this.definingObject = definingObject;
-    }
-
-    @Override
-    public Type getType()
-    {
-        return type;
+        setDefiningObject(definingObject);
     }
 
+    /**
+     * The type of a resource is given by its class. It can still be set, as it is part of the JSON
+     * reports, as long as it is the same.
+     *
+     * @throws IllegalArgumentException if the type is not the type of this resource
+     */
     @Override
     public void setType(Type type)
     {
-        this.type = type;
+        if (type != null && type != getType())
+        {
+            throw new IllegalArgumentException("Invalid type " + type + " for a " + getClass().getSimpleName());
+        }
     }
 
     @Override
@@ -60,7 +79,8 @@ public abstract class AbstractResource implements Resource, Serializable
     @Override
     public void setId(String id)
     {
-        this.id = id;
+        this.id = Objects.equals(id, definingObject) ? definingObject : id;
+        hash = 0;
     }
 
     @Override
@@ -72,7 +92,16 @@ public abstract class AbstractResource implements Resource, Serializable
     @Override
     public void setDefiningObject(String definingObject)
     {
-        this.definingObject = definingObject;
+        this.definingObject = Objects.equals(definingObject, id) ? id : Interner.intern(definingObject);
+        hash = 0;
+    }
+
+    /**
+     * To be called by the subclasses when a field that is part of their equality changes.
+     */
+    protected void resetHashCode()
+    {
+        hash = 0;
     }
 
     @Override
@@ -81,7 +110,7 @@ public abstract class AbstractResource implements Resource, Serializable
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         AbstractResource that = (AbstractResource) o;
-        return type == that.type &&
+        return hashCode() == that.hashCode() &&
                Objects.equals(id, that.id) &&
                Objects.equals(definingObject, that.definingObject);
     }
@@ -89,14 +118,28 @@ public abstract class AbstractResource implements Resource, Serializable
     @Override
     public int hashCode()
     {
-        return Objects.hash(type, id, definingObject);
+        int h = hash;
+        if (h == 0)
+        {
+            h = computeHashCode();
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * @return the hash code of the fields that are part of the equality of the resource
+     */
+    protected int computeHashCode()
+    {
+        return 31 * (31 * getType().ordinal() + Objects.hashCode(id)) + Objects.hashCode(definingObject);
     }
 
     @Override
     public String toString()
     {
         return "AbstractResource{" +
-               "type=" + type +
+               "type=" + getType() +
                ", id='" + id + '\'' +
                ", definingObject='" + definingObject + '\'' +
                '}';
@@ -33,7 +33,7 @@ public class AlfrescoPublicApiResource extends AbstractResource implements Seria
 
     public AlfrescoPublicApiResource(String id, boolean deprecated)
     {
-        super(ALFRESCO_PUBLIC_API, id, null);
+        super(id, null);
         this.deprecated = deprecated;
     }
 
@@ -43,6 +43,12 @@ public class AlfrescoPublicApiResource extends AbstractResource implements Seria
         this.implicit = implicit;
     }
 
+    @Override
+    public Type getType()
+    {
+        return ALFRESCO_PUBLIC_API;
+    }
+
     public boolean isDeprecated()
     {
         return deprecated;
@@ -21,6 +21,8 @@ import static org.alfresco.extension_inspector.model.Resource.Type.BEAN;
 import java.io.Serializable;
 import java.util.Objects;
 
+import org.alfresco.extension_inspector.commons.Interner;
+
 public class BeanResource extends AbstractResource implements Serializable
 {
     private String beanClass;
@@ -31,8 +33,14 @@ public class BeanResource extends AbstractResource implements Serializable
 
     public BeanResource(String id, String definingObject, String beanClass)
     {
-        super(BEAN, id, definingObject);
-        this.beanClass = beanClass;
+        super(id, definingObject);
+        this.beanClass = Interner.intern(beanClass);
+    }
+
+    @Override
+    public Type getType()
+    {
+        return BEAN;
     }
 
     public String getBeanClass()
@@ -42,7 +50,8 @@ public class BeanResource extends AbstractResource implements Serializable
 
     public void setBeanClass(String beanClass)
     {
-        this.beanClass = beanClass;
+        this.beanClass = Interner.intern(beanClass);
+        resetHashCode();
     }
 
     @Override
@@ -56,9 +65,9 @@ public class BeanResource extends AbstractResource implements Serializable
     }
 
     @Override
-    public int hashCode()
+    protected int computeHashCode()
     {
-        return Objects.hash(super.hashCode(), beanClass);
+        return 31 * super.computeHashCode() + Objects.hashCode(beanClass);
     }
 
     @Override
@@ -28,7 +28,13 @@ public class ClasspathElementResource extends AbstractResource implements Serial
 
     public ClasspathElementResource(String id, String definingObject)
     {
-        super(CLASSPATH_ELEMENT, id, definingObject);
+        super(id, definingObject);
+    }
+
+    @Override
+    public Type getType()
+    {
+        return CLASSPATH_ELEMENT;
     }
 
     @Override
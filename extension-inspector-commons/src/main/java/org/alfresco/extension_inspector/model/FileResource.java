@@ -30,7 +30,13 @@ public class FileResource extends AbstractResource implements Serializable
 
     public FileResource(String id, String definingObject)
     {
-        super(FILE, id, definingObject);
+        super(id, definingObject);
+    }
+
+    @Override
+    public Type getType()
+    {
+        return FILE;
     }
 
     @Override
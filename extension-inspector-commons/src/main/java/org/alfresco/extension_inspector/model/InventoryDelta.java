@@ -0,0 +1,221 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.model;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.model.Resource.Type;
+
+/**
+ * The difference between the inventory report of an Alfresco version and the report of a base version
+ * (usually its predecessor): the resources of the base report that the version doesn't have anymore and
+ * the resources it adds.
+ * <p/>
+ * A resource whose content changed without changing its identity (e.g. a public API becoming
+ * deprecated) is both removed and added, the removals being applied first.
+ */
+public class InventoryDelta
+{
+    private String baseVersion;
+    private String schemaVersion = InventoryReport.SCHEMA_VERSION;
+    private String alfrescoVersion;
+    private Map<Type, Set<Resource>> removed = new EnumMap<>(Type.class);
+    private Map<Type, Set<Resource>> added = new EnumMap<>(Type.class);
+
+    /**
+     * @param baseVersion the version of the base report, as known by the report store
+     * @param base the base report
+     * @param report the report to express relative to the base one
+     * @return the difference between the two reports
+     */
+    public static InventoryDelta between(String baseVersion, InventoryReport base, InventoryReport report)
+    {
+        final InventoryDelta delta = new InventoryDelta();
+        delta.setBaseVersion(baseVersion);
+        delta.setSchemaVersion(report.getSchemaVersion());
+        delta.setAlfrescoVersion(report.getAlfrescoVersion());
+        for (Type type : Type.values())
+        {
+            final Set<Resource> baseResources = base.getResources().getOrDefault(type, Set.of());
+            final Set<Resource> resources = report.getResources().get(type);
+            if (resources == null)
+            {
+                if (!baseResources.isEmpty())
+                {
+                    delta.removed.put(type, new LinkedHashSet<>(baseResources));
+                }
+                continue;
+            }
+            delta.removed.put(type, difference(baseResources, resources));
+            delta.added.put(type, difference(resources, baseResources));
+        }
+        return delta;
+    }
+
+    /**
+     * @return the resources of {@code a} without an identical resource in {@code b}
+     */
+    private static Set<Resource> difference(Set<Resource> a, Set<Resource> b)
+    {
+        final Map<Resource, Resource> index = new HashMap<>(Math.max(16, (int) (b.size() / .75f) + 1));
+        b.forEach(resource -> index.put(resource, resource));
+
+        final Set<Resource> difference = new LinkedHashSet<>();
+        for (Resource resource : a)
+        {
+            if (!isIdentical(resource, index.get(resource)))
+            {
+                difference.add(resource);
+            }
+        }
+        return difference;
+    }
+
+    private static boolean isIdentical(Resource resource, Resource other)
+    {
+        if (other == null)
+        {
+            return false;
+        }
+        if (resource instanceof AlfrescoPublicApiResource)
+        {
+            // the flags are not part of the identity of a public API
+            final AlfrescoPublicApiResource a = (AlfrescoPublicApiResource) resource;
+            final AlfrescoPublicApiResource b = (AlfrescoPublicApiResource) other;
+            return a.isDeprecated() == b.isDeprecated() && a.isImplicit() == b.isImplicit();
+        }
+        return true;
+    }
+
+    /**
+     * @param base the base report (not modified)
+     * @return the report of the version, rebuilt from the base report
+     */
+    public InventoryReport apply(InventoryReport base)
+    {
+        final Map<Type, Set<Resource>> resources = new EnumMap<>(Type.class);
+        base.getResources().forEach((type, baseResources) -> {
+            final Set<Resource> result = new LinkedHashSet<>(baseResources);
+            result.removeAll(removed.getOrDefault(type, Set.of()));
+            // the added resources of a type are only missing when the report has no entry for it
+            if (!result.isEmpty() || added.containsKey(type))
+            {
+                resources.put(type, result);
+            }
+        });
+        added.forEach((type, addedResources) -> {
+            final Set<Resource> result = resources.computeIfAbsent(type, k -> new LinkedHashSet<>());
+            // replaces the removed resources with an updated content
+            result.addAll(addedResources);
+        });
+
+        final InventoryReport report = new InventoryReport();
+        report.setSchemaVersion(schemaVersion);
+        report.setAlfrescoVersion(alfrescoVersion);
+        report.setResources(resources);
+        return report;
+    }
+
+    public String getBaseVersion()
+    {
+        return baseVersion;
+    }
+
+    public void setBaseVersion(String baseVersion)
+    {
+        this.baseVersion = baseVersion;
+    }
+
+    public String getSchemaVersion()
+    {
+        return schemaVersion;
+    }
+
+    public void setSchemaVersion(String schemaVersion)
+    {
+        this.schemaVersion = schemaVersion;
+    }
+
+    public String getAlfrescoVersion()
+    {
+        return alfrescoVersion;
+    }
+
+    public void setAlfrescoVersion(String alfrescoVersion)
+    {
+        this.alfrescoVersion = alfrescoVersion;
+    }
+
+    /**
+     * @return the resources of the base report that the version doesn't have (in the same form)
+     */
+    public Map<Type, Set<Resource>> getRemoved()
+    {
+        return removed;
+    }
+
+    public void setRemoved(Map<Type, Set<Resource>> removed)
+    {
+        this.removed = removed;
+    }
+
+    /**
+     * @return the resources of the version that the base report doesn't have (in the same form)
+     */
+    public Map<Type, Set<Resource>> getAdded()
+    {
+        return added;
+    }
+
+    public void setAdded(Map<Type, Set<Resource>> added)
+    {
+        this.added = added;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+            return true;
+        if (!(o instanceof InventoryDelta))
+            return false;
+        InventoryDelta delta = (InventoryDelta) o;
+        return Objects.equals(baseVersion, delta.baseVersion) &&
+               Objects.equals(alfrescoVersion, delta.alfrescoVersion) &&
+               Objects.equals(removed, delta.removed) &&
+               Objects.equals(added, delta.added);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(baseVersion, alfrescoVersion, removed, added);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InventoryDelta{" + "baseVersion='" + baseVersion + '\'' + ", alfrescoVersion='" + alfrescoVersion +
+               '\'' + ", removed=" + removed + ", added=" + added + '}';
+    }
+}
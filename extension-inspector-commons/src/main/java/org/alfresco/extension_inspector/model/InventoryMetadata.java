@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.model;
+
+import java.util.Objects;
+
+/**
+ * The header of an {@link InventoryReport}: what is known about a report without reading its resources.
+ */
+public class InventoryMetadata
+{
+    private final String schemaVersion;
+    private final String alfrescoVersion;
+
+    public InventoryMetadata(String schemaVersion, String alfrescoVersion)
+    {
+        this.schemaVersion = schemaVersion;
+        this.alfrescoVersion = alfrescoVersion;
+    }
+
+    public String getSchemaVersion()
+    {
+        return schemaVersion;
+    }
+
+    public String getAlfrescoVersion()
+    {
+        return alfrescoVersion;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof InventoryMetadata))
+        {
+            return false;
+        }
+        InventoryMetadata metadata = (InventoryMetadata) o;
+        return Objects.equals(schemaVersion, metadata.schemaVersion) &&
+                Objects.equals(alfrescoVersion, metadata.alfrescoVersion);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(schemaVersion, alfrescoVersion);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InventoryMetadata{" + "schemaVersion='" + schemaVersion + '\'' +
+               ", alfrescoVersion='" + alfrescoVersion + '\'' + '}';
+    }
+}
@@ -35,6 +35,11 @@ public class UsagePrinter
     private static final String LIST_KNOWN_VERSIONS = "--list-known-alfresco-versions";
     private static final String INVENTORY = "--inventory";
     private static final String INVENTORY_OUTPUT = "[--o=<report_file_path>.json]";
+    private static final String INVENTORY_STREAMING = "[--streaming]";
+    private static final String INVENTORY_COMPACT = "[--compact]";
+    private static final String INVENTORY_BINARY = "[--binary]";
+    private static final String INVENTORY_DELTA_BASE = "[--delta-base=<base_report_path>]";
+    private static final String INVENTORY_STATS = "[--stats]";
 
     private static final String format = "   %-36s %s";
 
@@ -48,7 +53,12 @@ public class UsagePrinter
             join(" ",
                 INVENTORY,
                 WAR_FILENAME,
-                INVENTORY_OUTPUT),
+                INVENTORY_OUTPUT,
+                INVENTORY_STREAMING,
+                INVENTORY_COMPACT,
+                INVENTORY_BINARY,
+                INVENTORY_DELTA_BASE,
+                INVENTORY_STATS),
             HELP, 
             LIST_KNOWN_VERSIONS);
         
@@ -57,11 +67,22 @@ public class UsagePrinter
         System.out.printf(format, TARGET_VERSION,
             "An Alfresco version or a range of Alfresco versions.\n");
         System.out.printf(format, TARGET_INVENTORY,
-            "A file path of an existing WAR inventory.\n");
+            "A file path of an existing WAR inventory (.json or .bin).\n");
         System.out.printf(format, VERBOSE, "Verbose output.\n");
         System.out.printf(format, INVENTORY,
             "Creates an inventory report in json format for the specified war or extension file.\n");
+        System.out.printf(format, "",
+            "Several wars, or folders of wars, can be given to create all their reports in one run.\n");
+        System.out.printf(format, "", "An exploded war folder (with a WEB-INF subfolder) can be given instead of a war.\n");
         System.out.printf(format, INVENTORY_OUTPUT, "A file path for the new inventory report.\n");
+        System.out.printf(format, INVENTORY_STREAMING,
+            "Writes the inventory report while the war is processed, to use less memory.\n");
+        System.out.printf(format, INVENTORY_COMPACT, "Writes the inventory report without indentation.\n");
+        System.out.printf(format, INVENTORY_BINARY, "Writes the inventory report in the compact binary format.\n");
+        System.out.printf(format, INVENTORY_DELTA_BASE,
+            "Writes the inventory report as the differences with the report of another version.\n");
+        System.out.printf(format, INVENTORY_STATS,
+            "Prints the time spent by each inventory worker and in each phase of the inventory.\n");
         System.out.printf(format, HELP, "Shows this screen.\n");
         System.out.printf(format, LIST_KNOWN_VERSIONS,
             "Lists all Alfresco versions with inventory reports included in the tool.");
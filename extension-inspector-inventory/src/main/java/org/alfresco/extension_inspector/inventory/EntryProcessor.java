@@ -16,69 +16,560 @@
 
 package org.alfresco.extension_inspector.inventory;
 
+import static java.util.Collections.emptyMap;
+import static org.alfresco.extension_inspector.commons.InventoryUtils.extract;
+import static org.alfresco.extension_inspector.commons.InventoryUtils.extractToBuffer;
 import static org.alfresco.extension_inspector.commons.InventoryUtils.isJar;
-import static org.alfresco.extension_inspector.model.Resource.Type.FILE;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
-import org.alfresco.extension_inspector.commons.InventoryUtils;
+import jakarta.annotation.PreDestroy;
+
+import org.alfresco.extension_inspector.inventory.worker.EntryData;
 import org.alfresco.extension_inspector.inventory.worker.InventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.ResourceSink;
 import org.alfresco.extension_inspector.model.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class EntryProcessor
 {
+    private static final Logger logger = LoggerFactory.getLogger(EntryProcessor.class);
+
     @Autowired
     private List<InventoryWorker> inventoryWorkers;
 
+    @Autowired(required = false)
+    private LibraryInventoryCache libraryInventoryCache;
+
+    @Autowired(required = false)
+    private InventoryStatistics inventoryStatistics;
+
+    /**
+     * The number of libraries (WEB-INF/lib jars) processed concurrently: 1 means sequential
+     * processing, 0 (or less) means the number of available processors.
+     */
+    @Value("${inventory-parallelism:0}")
+    private int parallelism;
+
+    /**
+     * The most tasks in flight when the entries of an archive stream are processed concurrently (see
+     * {@link WarStreamPipeline}): 0 (or less) means twice the number of threads processing them.
+     */
+    @Value("${inventory-pipeline-tasks:0}")
+    private int pipelineTasks;
+
+    /**
+     * Built from the workers on first use.
+     */
+    private volatile WorkerDispatchTable dispatchTable;
+
+    /**
+     * The pool processing the libraries, created on first use and shared by all the WARs processed
+     * (possibly concurrently, see {@link org.alfresco.extension_inspector.inventory.service.InventoryBatchService}),
+     * so the number of threads doesn't grow with the number of WARs.
+     */
+    private ForkJoinPool libraryPool;
+
     public Map<Resource.Type, Set<Resource>> processWarEntry(ZipEntry warEntry, ZipInputStream zis)
         throws IOException
+    {
+        final Map<Resource.Type, Set<Resource>> extractedResources = newResourceMap();
+        processWarEntry(warEntry, zis, new SingleThreadedResourceSink(extractedResources));
+        return extractedResources;
+    }
+
+    /**
+     * Same as {@link #processWarEntry(ZipEntry, ZipInputStream)}, but the resources found are added to
+     * the given sink, so that they go straight to the report for all the entries of the WAR.
+     *
+     * @param warEntry the current entry of the archive stream
+     * @param zis the archive stream
+     * @param sink receives the resources found
+     * @throws IOException
+     */
+    public void processWarEntry(ZipEntry warEntry, ZipInputStream zis, ResourceSink sink) throws IOException
     {
         if (warEntry == null || zis == null)
         {
             throw new IllegalArgumentException("Arguments should not be null.");
         }
 
+        expectTypes(sink);
+        // libraries are read into their own array, as their entries are then read on the same thread
+        final EntryData data = isJar(warEntry.getName()) ?
+                               EntryData.lazy(() -> extract(zis, warEntry.getSize())) :
+                               EntryData.lazyBuffer(() -> extractToBuffer(zis, warEntry.getSize()));
+        processWarEntry(warEntry, data, null, sink);
+    }
+
+    /**
+     * Creates a pipeline processing the entries of an archive stream concurrently (see
+     * {@code inventory-parallelism}) while the archive is read, or on the reading thread if the
+     * parallelism is 1.
+     *
+     * @param sink receives the resources found, in the order of the entries
+     * @return the pipeline, to be closed once the archive is read
+     */
+    public WarStreamPipeline newWarStreamPipeline(ResourceSink sink)
+    {
+        final int poolSize = getPoolSize();
+        if (poolSize == 1)
+        {
+            return WarStreamPipeline.sequential(this, sink);
+        }
+        return new WarStreamPipeline(this, getLibraryPool(poolSize), pipelineTasks > 0 ? pipelineTasks : 2 * poolSize,
+            sink);
+    }
+
+    /**
+     * @param warEntry an entry of the WAR
+     * @return whether the content of the entry is read when processing it: for the libraries, and for the
+     * entries that a worker needing the content can process
+     */
+    boolean isContentNeeded(ZipEntry warEntry)
+    {
+        final String name = warEntry.getName();
+        if (isJar(name))
+        {
+            return true;
+        }
+        if (isFileToBeIgnored(name))
+        {
+            return false;
+        }
+        for (InventoryWorker inventoryWorker : getDispatchTable().getWarEntryWorkers(name))
+        {
+            if (inventoryWorker.isDataRequired() && inventoryWorker.canProcessEntry(warEntry, name))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Processes a WAR entry whose content has already been read (see {@link WarStreamPipeline}).
+     */
+    void processWarEntry(ZipEntry warEntry, EntryData data, ResourceSink sink) throws IOException
+    {
+        processWarEntry(warEntry, data, null, sink);
+    }
+
+    /**
+     * Processes a WAR entry using random access on the archive. Unlike
+     * {@link #processWarEntry(ZipEntry, ZipInputStream)}, the entry is not even opened unless
+     * an {@link InventoryWorker} needs its content or the entry is a library that has to be scanned.
+     *
+     * @param war the (seekable) web archive
+     * @param warEntry the entry of the archive, as listed in its central directory
+     * @return the resources found, grouped by their type
+     * @throws IOException
+     */
+    public Map<Resource.Type, Set<Resource>> processWarFileEntry(ZipFile war, ZipEntry warEntry)
+        throws IOException
+    {
+        final Map<Resource.Type, Set<Resource>> extractedResources = newResourceMap();
+        processWarFileEntry(war, warEntry, null, new SingleThreadedResourceSink(extractedResources));
+        return extractedResources;
+    }
+
+    private void processWarFileEntry(ZipFile war, ZipEntry warEntry, ByteBuffer storedLibrary, ResourceSink sink)
+        throws IOException
+    {
+        if (war == null || warEntry == null)
+        {
+            throw new IllegalArgumentException("Arguments should not be null.");
+        }
+
+        final EntryData data = isJar(warEntry.getName()) ?
+                               EntryData.lazy(() -> {
+                                   try (InputStream is = war.getInputStream(warEntry))
+                                   {
+                                       return extract(is, warEntry.getSize());
+                                   }
+                               }) :
+                               EntryData.lazyBuffer(() -> {
+                                   try (InputStream is = war.getInputStream(warEntry))
+                                   {
+                                       return extractToBuffer(is, warEntry.getSize());
+                                   }
+                               });
+        processWarEntry(warEntry, data, storedLibrary, sink);
+    }
+
+    /**
+     * Processes all the given WAR entries using random access on the archive. The libraries are
+     * processed concurrently (see {@code inventory-parallelism}), while the rest of the entries are
+     * processed on the caller thread. The WAR is memory-mapped, so the libraries stored uncompressed
+     * in it are read in place.
+     *
+     * @param war the (seekable) web archive
+     * @param warEntries the entries of the archive, as listed in its central directory
+     * @return the resources found, grouped by their type, in the same order as a sequential run
+     * @throws IOException
+     */
+    public Map<Resource.Type, Set<Resource>> processWarFileEntries(ZipFile war, List<? extends ZipEntry> warEntries)
+        throws IOException
+    {
+        final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        processWarFileEntries(war, warEntries, new SingleThreadedResourceSink(resources));
+        return resources;
+    }
+
+    /**
+     * Same as {@link #processWarFileEntries(ZipFile, List)}, but the resources are added to the given sink
+     * (on the caller thread, in the order of the entries) as soon as they are available, so they can go
+     * straight to the report or be streamed.
+     *
+     * @param war the (seekable) web archive
+     * @param warEntries the entries of the archive, as listed in its central directory
+     * @param sink receives the resources found
+     * @throws IOException
+     */
+    public void processWarFileEntries(ZipFile war, List<? extends ZipEntry> warEntries, ResourceSink sink)
+        throws IOException
+    {
+        final Map<String, ByteBuffer> storedLibraries = mapStoredLibraries(war);
+        processEntries(warEntries, war.getName(), sink, (warEntry, entrySink) ->
+            processWarFileEntry(war, warEntry, storedLibraries.get(warEntry.getName()), entrySink));
+    }
+
+    /**
+     * Lists the files of an exploded WAR, walking its folders concurrently (see {@code inventory-parallelism}).
+     *
+     * @param warDirectory the folder of the exploded WAR
+     * @return the exploded WAR, to be processed with {@link #processWarDirectoryEntries(ExplodedWar, ResourceSink)}
+     * @throws IOException if a folder can't be listed
+     */
+    public ExplodedWar scanWarDirectory(Path warDirectory) throws IOException
+    {
+        final int poolSize = getPoolSize();
+        return ExplodedWar.scan(warDirectory, poolSize == 1 ? null : getLibraryPool(poolSize));
+    }
+
+    /**
+     * Same as {@link #processWarFileEntries(ZipFile, List)}, for an exploded WAR. The libraries are
+     * memory-mapped, so they are read by random access, as the ones stored in a WAR file.
+     *
+     * @param war the exploded WAR
+     * @return the resources found, grouped by their type, in the order of the entries of the WAR
+     * @throws IOException
+     */
+    public Map<Resource.Type, Set<Resource>> processWarDirectoryEntries(ExplodedWar war) throws IOException
+    {
+        final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        processWarDirectoryEntries(war, new SingleThreadedResourceSink(resources));
+        return resources;
+    }
+
+    /**
+     * Same as {@link #processWarFileEntries(ZipFile, List, ResourceSink)}, for an exploded WAR.
+     *
+     * @param war the exploded WAR
+     * @param sink receives the resources found
+     * @throws IOException
+     */
+    public void processWarDirectoryEntries(ExplodedWar war, ResourceSink sink) throws IOException
+    {
+        processEntries(war.getEntries(), war.getRoot().toString(), sink,
+            (warEntry, entrySink) -> processWarDirectoryEntry(war, warEntry, entrySink));
+    }
+
+    private void processWarDirectoryEntry(ExplodedWar war, ZipEntry warEntry, ResourceSink sink) throws IOException
+    {
+        final Path file = war.resolve(warEntry);
+        if (isJar(warEntry.getName()))
+        {
+            processWarEntry(warEntry, EntryData.lazy(() -> Files.readAllBytes(file)), war.map(warEntry), sink);
+        }
+        else
+        {
+            processWarEntry(warEntry, EntryData.lazyBuffer(() -> {
+                try (InputStream is = Files.newInputStream(file))
+                {
+                    return extractToBuffer(is, warEntry.getSize());
+                }
+            }), null, sink);
+        }
+    }
+
+    /**
+     * Processes the given WAR entries, the libraries concurrently and the rest of the entries on the
+     * caller thread. The sink receives the resources on the caller thread, in the order of the entries
+     * (see {@link StripedResourceSink}).
+     *
+     * @param warEntries the entries of the WAR
+     * @param warName the name of the WAR, for the error messages
+     * @param sink receives the resources found
+     * @param processor processes an entry of the WAR, adding the resources found to the given sink
+     * @throws IOException
+     */
+    private void processEntries(List<? extends ZipEntry> warEntries, String warName, ResourceSink sink,
+        WarEntryProcessor processor) throws IOException
+    {
+        if (warEntries.isEmpty())
+        {
+            return;
+        }
+        expectTypes(sink);
+
+        final int poolSize = getPoolSize();
+        if (poolSize == 1)
+        {
+            for (ZipEntry warEntry : warEntries)
+            {
+                processor.process(warEntry, sink);
+            }
+            return;
+        }
+
+        final ForkJoinPool pool = getLibraryPool(poolSize);
+        final StripedResourceSink stripedSink = new StripedResourceSink(sink);
+        try
+        {
+            for (ZipEntry warEntry : warEntries)
+            {
+                if (isJar(warEntry.getName()))
+                {
+                    stripedSink.fork(librarySink -> pool.submit(() -> {
+                        processor.process(warEntry, librarySink);
+                        return null;
+                    }));
+                }
+                else
+                {
+                    processor.process(warEntry, stripedSink);
+                }
+                stripedSink.flush();
+            }
+            stripedSink.finish();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException("Failed processing library from " + warName, e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while processing libraries from " + warName);
+        }
+        finally
+        {
+            // on failure, the libraries not processed yet are not needed anymore
+            stripedSink.cancel();
+        }
+    }
+
+    private int getPoolSize()
+    {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    private synchronized ForkJoinPool getLibraryPool(int poolSize)
+    {
+        if (libraryPool == null)
+        {
+            libraryPool = new ForkJoinPool(poolSize);
+        }
+        return libraryPool;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown()
+    {
+        if (libraryPool != null)
+        {
+            libraryPool.shutdownNow();
+            libraryPool = null;
+        }
+    }
+
+    /**
+     * @return a map with an empty (modifiable) set for the type of each worker, to add the resources found to
+     */
+    public Map<Resource.Type, Set<Resource>> newResourceMap()
+    {
         final Map<Resource.Type, Set<Resource>> extractedResources = new EnumMap<>(Resource.Type.class);
         // add modifiable sets for each inventoryWorker type
         // to be able to merge results later
         inventoryWorkers.forEach(inventoryWorker -> extractedResources
             .put(inventoryWorker.getType(), new LinkedHashSet<>()));
+        return extractedResources;
+    }
 
-        byte[] data = InventoryUtils.extract(zis);
+    /**
+     * Declares the type of each worker to the sink, as {@link #newResourceMap()} does for a map.
+     */
+    void expectTypes(ResourceSink sink)
+    {
+        for (InventoryWorker inventoryWorker : inventoryWorkers)
+        {
+            sink.expectType(inventoryWorker.getType());
+        }
+    }
 
-        if (!isFileToBeIgnored(warEntry.getName()))
+    /**
+     * Memory-maps the WAR and finds the libraries stored (uncompressed) in it, so they can be read
+     * in place, without copying them.
+     *
+     * @param war the web archive
+     * @return the content of each stored library, by entry name
+     */
+    private static Map<String, ByteBuffer> mapStoredLibraries(ZipFile war)
+    {
+        try
+        {
+            final ZipCentralDirectory mappedWar = ZipCentralDirectory.map(Path.of(war.getName()));
+            if (mappedWar == null)
+            {
+                return emptyMap();
+            }
+            final Map<String, ByteBuffer> storedLibraries = new HashMap<>();
+            for (ZipCentralDirectory.Entry entry : mappedWar.getEntries())
+            {
+                final ByteBuffer storedData = isJar(entry.getName()) ? mappedWar.storedData(entry) : null;
+                if (storedData != null)
+                {
+                    storedLibraries.put(entry.getName(), storedData);
+                }
+            }
+            return storedLibraries;
+        }
+        catch (IOException e)
         {
-            processEntry(warEntry, data, warEntry.getName(), extractedResources);
+            logger.debug("Failed to map " + war.getName() + ", libraries will be inflated: " + e.getMessage());
+            return emptyMap();
         }
+    }
 
-        if (isJar(warEntry.getName()))
+    private void processWarEntry(ZipEntry warEntry, EntryData data, ByteBuffer storedLibrary,
+        ResourceSink sink) throws IOException
+    {
+        try
         {
-            ByteArrayInputStream bis = new ByteArrayInputStream(data);
-            ZipInputStream libZis = new ZipInputStream(bis);
-            ZipEntry libZe = libZis.getNextEntry();
-            while (libZe != null)
+            if (!isFileToBeIgnored(warEntry.getName()))
+            {
+                processEntry(warEntry, data, warEntry.getName(), sink);
+            }
+
+            if (isJar(warEntry.getName()))
             {
-                if (!(libZe.isDirectory() || isFileToBeIgnored(libZe.getName())))
+                if (libraryInventoryCache != null && libraryInventoryCache.isEnabled())
+                {
+                    processCachedLibrary(warEntry, data, storedLibrary, sink);
+                }
+                else
                 {
-                    byte[] libData = InventoryUtils.extract(libZis);
-                    processEntryWithinJar(libZe, libData, warEntry.getName(), extractedResources);
+                    processLibrary(warEntry, data, storedLibrary, sink);
                 }
-                libZis.closeEntry();
-                libZe = libZis.getNextEntry();
             }
         }
-        return extractedResources;
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    private void processLibrary(ZipEntry warEntry, EntryData data, ByteBuffer storedLibrary,
+        ResourceSink sink) throws IOException
+    {
+        // read the library in place if it is stored (uncompressed) in the WAR, inflate it otherwise
+        ZipCentralDirectory library = storedLibrary == null ? null : ZipCentralDirectory.parse(storedLibrary);
+        if (library == null)
+        {
+            library = ZipCentralDirectory.parse(ByteBuffer.wrap(data.get()));
+        }
+
+        if (library != null)
+        {
+            processJar(library, warEntry.getName(), sink);
+        }
+        else
+        {
+            processJar(data.get(), warEntry.getName(), sink);
+        }
+    }
+
+    /**
+     * Same as {@link #processLibrary}, but the resources of the library are read from the
+     * {@link LibraryInventoryCache} if a library with the same content has already been scanned.
+     */
+    private void processCachedLibrary(ZipEntry warEntry, EntryData data, ByteBuffer storedLibrary,
+        ResourceSink sink) throws IOException
+    {
+        final String key = libraryInventoryCache.key(
+            storedLibrary != null ? storedLibrary : ByteBuffer.wrap(data.get()), inventoryWorkers);
+        Map<Resource.Type, Set<Resource>> libraryResources = libraryInventoryCache.get(key, warEntry.getName());
+        if (libraryResources == null)
+        {
+            libraryResources = newResourceMap();
+            processLibrary(warEntry, data, storedLibrary, new SingleThreadedResourceSink(libraryResources));
+            libraryInventoryCache.put(key, warEntry.getName(), libraryResources);
+        }
+        else if (logger.isDebugEnabled())
+        {
+            logger.debug("Found the inventory of " + warEntry.getName() + " in the cache");
+        }
+        libraryResources.values().forEach(sink::addAll);
+    }
+
+    private void processJar(ZipCentralDirectory library, String definingObject,
+        ResourceSink sink)
+    {
+        for (ZipCentralDirectory.Entry libEntry : library.getEntries())
+        {
+            if (!(libEntry.isDirectory() || isFileToBeIgnored(libEntry.getName())))
+            {
+                EntryData libData = EntryData.lazyBuffer(() -> library.readToBuffer(libEntry));
+                processEntryWithinJar(libEntry.toZipEntry(), libData, definingObject, sink);
+            }
+        }
+    }
+
+    private void processJar(byte[] data, String definingObject, ResourceSink sink)
+        throws IOException
+    {
+        ByteArrayInputStream bis = new ByteArrayInputStream(data);
+        ZipInputStream libZis = new ZipInputStream(bis);
+        ZipEntry libZe = libZis.getNextEntry();
+        while (libZe != null)
+        {
+            if (!(libZe.isDirectory() || isFileToBeIgnored(libZe.getName())))
+            {
+                final long size = libZe.getSize();
+                EntryData libData = EntryData.lazyBuffer(() -> extractToBuffer(libZis, size));
+                processEntryWithinJar(libZe, libData, definingObject, sink);
+            }
+            libZis.closeEntry();
+            libZe = libZis.getNextEntry();
+        }
     }
 
     /**
@@ -95,21 +586,84 @@ public class EntryProcessor
             fileName.equalsIgnoreCase("notice.txt");
     }
 
-    private void processEntry(ZipEntry entry, byte[] data, String definingObject,
-        Map<Resource.Type, Set<Resource>> resources)
+    private void processEntry(ZipEntry entry, EntryData data, String definingObject, ResourceSink sink)
+    {
+        process(getDispatchTable().getWarEntryWorkers(entry.getName()), entry, data, definingObject, sink);
+    }
+
+    private void processEntryWithinJar(ZipEntry entry, EntryData data, String definingObject, ResourceSink sink)
     {
-        inventoryWorkers.forEach(inventoryWorker -> resources.merge(inventoryWorker.getType(),
-            inventoryWorker.processZipEntry(entry, data, definingObject),
-            InventoryUtils::mergeCollections));
+        process(getDispatchTable().getLibraryEntryWorkers(entry.getName()), entry, data, definingObject, sink);
     }
 
-    private void processEntryWithinJar(ZipEntry entry, byte[] data, String definingObject,
-        Map<Resource.Type, Set<Resource>> resources)
+    private void process(List<InventoryWorker> workers, ZipEntry entry, EntryData data,
+        String definingObject, ResourceSink sink)
+    {
+        final boolean recordStatistics = inventoryStatistics != null && inventoryStatistics.isEnabled();
+        for (InventoryWorker inventoryWorker : workers)
+        {
+            if (recordStatistics)
+            {
+                processWithStatistics(inventoryWorker, entry, data, definingObject, sink);
+            }
+            else
+            {
+                process(inventoryWorker, entry, data, definingObject, sink);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #process(InventoryWorker, ZipEntry, EntryData, String, ResourceSink)}, recording what the
+     * worker does in the {@link InventoryStatistics}.
+     */
+    private void processWithStatistics(InventoryWorker inventoryWorker, ZipEntry entry, EntryData data,
+        String definingObject, ResourceSink sink)
+    {
+        final InventoryStatistics.WorkerStatistics statistics = inventoryStatistics.worker(inventoryWorker);
+        statistics.entrySeen();
+
+        final boolean read = data.isRead();
+        final long start = System.nanoTime();
+        if (process(inventoryWorker, entry, data, definingObject, sink))
+        {
+            statistics.entryProcessed(System.nanoTime() - start,
+                !read && data.isRead() ? data.getBuffer().remaining() : 0);
+        }
+    }
+
+    /**
+     * @return whether the worker could process the entry
+     */
+    private static boolean process(InventoryWorker inventoryWorker, ZipEntry entry, EntryData data,
+        String definingObject, ResourceSink sink)
+    {
+        if (!inventoryWorker.canProcessEntry(entry, definingObject))
+        {
+            return false;
+        }
+        inventoryWorker.processEntry(entry, data, definingObject, sink);
+        return true;
+    }
+
+    private WorkerDispatchTable getDispatchTable()
+    {
+        WorkerDispatchTable table = dispatchTable;
+        if (table == null)
+        {
+            // building it more than once (concurrently) is harmless
+            table = new WorkerDispatchTable(inventoryWorkers);
+            dispatchTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Processes an entry of a WAR, whatever its source.
+     */
+    @FunctionalInterface
+    private interface WarEntryProcessor
     {
-        inventoryWorkers.stream()
-            .filter(iw -> iw.getType() != FILE)
-            .forEach(inventoryWorker -> resources.merge(inventoryWorker.getType(),
-                inventoryWorker.processZipEntry(entry, data, definingObject),
-                InventoryUtils::mergeCollections));
+        void process(ZipEntry warEntry, ResourceSink sink) throws IOException;
     }
 }
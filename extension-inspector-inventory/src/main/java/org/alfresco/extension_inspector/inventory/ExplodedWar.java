@@ -0,0 +1,205 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.zip.ZipEntry;
+
+/**
+ * An exploded web archive: a folder holding the content of a WAR, e.g. as deployed by an application
+ * server or unpacked in a container image build.
+ * <p/>
+ * The files are listed as {@link ZipEntry}s named after their path relative to the folder (with '/'
+ * separators), so they can be handed to the
+ * {@link org.alfresco.extension_inspector.inventory.worker.InventoryWorker}s as the entries of the archive
+ * would be. They are sorted by name, so the inventory doesn't depend on the order the file system lists
+ * them in. Folders are not listed (the workers ignore them) and symbolic links are not followed.
+ */
+public final class ExplodedWar
+{
+    private static final String WEB_INF = "WEB-INF";
+
+    private final Path root;
+    private final List<ZipEntry> entries;
+
+    private ExplodedWar(Path root, List<ZipEntry> entries)
+    {
+        this.root = root;
+        this.entries = unmodifiableList(entries);
+    }
+
+    /**
+     * @param path a file path
+     * @return whether the path is the folder of an exploded WAR, i.e. has a WEB-INF subfolder
+     */
+    public static boolean isExplodedWar(Path path)
+    {
+        return Files.isDirectory(path.resolve(WEB_INF));
+    }
+
+    /**
+     * Lists the files of the exploded WAR. Each folder is listed by its own task, so the subfolders
+     * (e.g. WEB-INF/classes and WEB-INF/lib) are walked concurrently in the given pool.
+     *
+     * @param root the folder of the exploded WAR
+     * @param pool the pool walking the subfolders, or null to walk the tree on the caller thread
+     * @return the exploded WAR
+     * @throws IOException if a folder can't be listed
+     */
+    public static ExplodedWar scan(Path root, ForkJoinPool pool) throws IOException
+    {
+        final ListingTask task = new ListingTask(root, "", pool != null);
+        try
+        {
+            final List<ZipEntry> entries = pool == null ? task.compute() : pool.invoke(task);
+            entries.sort(Comparator.comparing(ZipEntry::getName));
+            return new ExplodedWar(root, entries);
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    public Path getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * @return the files of the exploded WAR, sorted by name
+     */
+    public List<ZipEntry> getEntries()
+    {
+        return entries;
+    }
+
+    /**
+     * @param entry an entry of this WAR
+     * @return the path of the file
+     */
+    public Path resolve(ZipEntry entry)
+    {
+        return root.resolve(entry.getName());
+    }
+
+    /**
+     * Memory-maps a file of the WAR (e.g. a library), so it can be read by random access.
+     *
+     * @param entry an entry of this WAR
+     * @return the content of the file, or null if it is too large to be mapped
+     * @throws IOException if the file can't be read
+     */
+    public ByteBuffer map(ZipEntry entry) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(resolve(entry), StandardOpenOption.READ))
+        {
+            if (channel.size() > Integer.MAX_VALUE)
+            {
+                return null;
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Lists the files of a folder and forks a task for each of its subfolders.
+     */
+    private static final class ListingTask extends RecursiveTask<List<ZipEntry>>
+    {
+        private final Path folder;
+        private final String prefix;
+        private final boolean fork;
+
+        private ListingTask(Path folder, String prefix, boolean fork)
+        {
+            this.folder = folder;
+            this.prefix = prefix;
+            this.fork = fork;
+        }
+
+        @Override
+        protected List<ZipEntry> compute()
+        {
+            final List<ZipEntry> entries = new ArrayList<>();
+            final List<ListingTask> subfolders = new ArrayList<>();
+            try
+            {
+                Files.walkFileTree(folder, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<>()
+                {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+                    {
+                        final String name = prefix + file.getFileName();
+                        if (attributes.isDirectory())
+                        {
+                            subfolders.add(new ListingTask(file, name + "/", fork));
+                        }
+                        else if (attributes.isRegularFile())
+                        {
+                            final ZipEntry entry = new ZipEntry(name);
+                            entry.setSize(attributes.size());
+                            entries.add(entry);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException
+                    {
+                        throw e;
+                    }
+                });
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+
+            if (fork)
+            {
+                ForkJoinTask.invokeAll(subfolders);
+                subfolders.forEach(subfolder -> entries.addAll(subfolder.join()));
+            }
+            else
+            {
+                subfolders.forEach(subfolder -> entries.addAll(subfolder.compute()));
+            }
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.alfresco.extension_inspector.inventory.worker.InventoryWorker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Counters and timers of the inventory generation, to find out why a run is slow: per
+ * {@link InventoryWorker} (entries offered to it, entries it processed, bytes read for it and time spent
+ * processing them) and per phase of the generation (e.g. manifest parsing, see the {@code PHASE_}
+ * constants).
+ * <p/>
+ * Disabled by default ({@code inventory-stats}), in which case nothing is recorded and the cost is a
+ * check of {@link #isEnabled()}. The statistics add up over all the WARs processed. Thread safe.
+ */
+@Component
+public class InventoryStatistics
+{
+    public static final String PHASE_MANIFEST = "manifest";
+    public static final String PHASE_ENTRIES = "entries";
+    public static final String PHASE_OUTPUT = "output";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Value("${inventory-stats:false}")
+    private volatile boolean enabled;
+
+    private final Map<String, WorkerStatistics> workers = new ConcurrentHashMap<>();
+    private final Map<String, PhaseStatistics> phases = new ConcurrentHashMap<>();
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param worker an inventory worker
+     * @return the statistics of the worker, to record what it does
+     */
+    public WorkerStatistics worker(InventoryWorker worker)
+    {
+        return workers.computeIfAbsent(worker.getClass().getSimpleName(), name -> new WorkerStatistics());
+    }
+
+    /**
+     * @return the start time of a phase, to pass to {@link #record(String, long)}, or 0 if disabled
+     */
+    public long start()
+    {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records an occurrence of a phase, that started at the given time.
+     *
+     * @param phase the phase name
+     * @param start the value returned by {@link #start()} when the phase started
+     */
+    public void record(String phase, long start)
+    {
+        if (enabled && start != 0)
+        {
+            phases.computeIfAbsent(phase, name -> new PhaseStatistics()).record(System.nanoTime() - start);
+        }
+    }
+
+    public void reset()
+    {
+        workers.clear();
+        phases.clear();
+    }
+
+    /**
+     * Prints the statistics as tables.
+     *
+     * @param out the stream to print to
+     */
+    public void printSummary(PrintStream out)
+    {
+        out.println("Inventory statistics:");
+        out.printf("   %-36s %12s %12s %14s %12s%n", "Worker", "Entries seen", "Processed", "Inflated (KB)",
+            "Time (ms)");
+        new TreeMap<>(workers).forEach((name, worker) -> out.printf("   %-36s %12d %12d %14d %12.1f%n", name,
+            worker.entriesSeen.sum(), worker.entriesProcessed.sum(), worker.bytesInflated.sum() / 1024,
+            worker.processNanos.sum() / 1e6));
+        out.printf("   %-36s %12s %12s%n", "Phase", "Count", "Time (ms)");
+        new TreeMap<>(phases).forEach((name, phase) -> out.printf("   %-36s %12d %12.1f%n", name,
+            phase.count.sum(), phase.nanos.sum() / 1e6));
+    }
+
+    /**
+     * Writes the statistics in JSON format: a {@code workers} and a {@code phases} object, with an
+     * object per worker (or phase) holding its counters, the times being in nanoseconds.
+     *
+     * @param path the file to write to
+     * @throws IOException
+     */
+    public void writeJson(Path path) throws IOException
+    {
+        objectMapper.writeValue(path.toFile(), toMap());
+    }
+
+    /**
+     * @return a snapshot of the statistics, as written by {@link #writeJson(Path)}
+     */
+    public Map<String, Map<String, Map<String, Long>>> toMap()
+    {
+        final Map<String, Map<String, Long>> workersMap = new LinkedHashMap<>();
+        new TreeMap<>(workers).forEach((name, worker) -> {
+            final Map<String, Long> counters = new LinkedHashMap<>();
+            counters.put("entriesSeen", worker.entriesSeen.sum());
+            counters.put("entriesProcessed", worker.entriesProcessed.sum());
+            counters.put("bytesInflated", worker.bytesInflated.sum());
+            counters.put("processNanos", worker.processNanos.sum());
+            workersMap.put(name, counters);
+        });
+        final Map<String, Map<String, Long>> phasesMap = new LinkedHashMap<>();
+        new TreeMap<>(phases).forEach((name, phase) -> {
+            final Map<String, Long> counters = new LinkedHashMap<>();
+            counters.put("count", phase.count.sum());
+            counters.put("nanos", phase.nanos.sum());
+            phasesMap.put(name, counters);
+        });
+
+        final Map<String, Map<String, Map<String, Long>>> statistics = new LinkedHashMap<>();
+        statistics.put("workers", workersMap);
+        statistics.put("phases", phasesMap);
+        return statistics;
+    }
+
+    /**
+     * What an {@link InventoryWorker} did.
+     */
+    public static final class WorkerStatistics
+    {
+        private final LongAdder entriesSeen = new LongAdder();
+        private final LongAdder entriesProcessed = new LongAdder();
+        private final LongAdder bytesInflated = new LongAdder();
+        private final LongAdder processNanos = new LongAdder();
+
+        /**
+         * An entry was offered to the worker.
+         */
+        public void entrySeen()
+        {
+            entriesSeen.increment();
+        }
+
+        /**
+         * The worker processed an entry.
+         *
+         * @param nanos the time spent processing it, including reading its content if needed
+         * @param bytesRead the size of the content read (inflated) for the worker, 0 if the content was not
+         * needed or already read for another worker
+         */
+        public void entryProcessed(long nanos, long bytesRead)
+        {
+            entriesProcessed.increment();
+            processNanos.add(nanos);
+            bytesInflated.add(bytesRead);
+        }
+    }
+
+    private static final class PhaseStatistics
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void record(long duration)
+        {
+            count.increment();
+            nanos.add(duration);
+        }
+    }
+}
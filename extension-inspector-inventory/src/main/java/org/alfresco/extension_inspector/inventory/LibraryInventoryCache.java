@@ -0,0 +1,242 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.inventory.worker.InventoryWorker;
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * An on-disk cache of the resources found in the WEB-INF/lib libraries, keyed by the SHA-256 of their
+ * content, so the libraries shared by several WARs (e.g. consecutive Alfresco versions) are only
+ * scanned once.
+ * <p/>
+ * The resources of a library are stored (in the binary report format) with their definingObject
+ * relative to the library, i.e. without the library path they all end with, which is appended back
+ * on a hit: a library found under another path is re-bound to it.
+ * <p/>
+ * The cache is disabled unless {@code inventory-cache-dir} is set. The key includes the inventory
+ * workers and the tool version, but not their configuration: the cache should be cleared when the
+ * workers change.
+ */
+@Component
+public class LibraryInventoryCache
+{
+    private static final Logger logger = LoggerFactory.getLogger(LibraryInventoryCache.class);
+
+    private static final String FORMAT = "library-inventory-cache-1";
+    private static final String FILE_SUFFIX = "." + BinaryInventoryFormat.FILE_EXTENSION;
+
+    @Value("${inventory-cache-dir:}")
+    private String cacheDir;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public boolean isEnabled()
+    {
+        return cacheDir != null && !cacheDir.isBlank();
+    }
+
+    /**
+     * @param library the content of the library
+     * @param inventoryWorkers the workers that produce the resources
+     * @return the cache key of the library
+     */
+    public String key(ByteBuffer library, List<InventoryWorker> inventoryWorkers)
+    {
+        try
+        {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(version(inventoryWorkers).getBytes(UTF_8));
+            digest.update(library.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * @param key the cache key of the library
+     * @param library the path of the library in the WAR, the definingObjects are re-bound to
+     * @return the resources found in the library, or null if the library is not in the cache
+     */
+    public Map<Resource.Type, Set<Resource>> get(String key, String library)
+    {
+        final Path file = Path.of(cacheDir, key + FILE_SUFFIX);
+        try (InputStream is = Files.newInputStream(file))
+        {
+            final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+            BinaryInventoryFormat.read(is).getResources().forEach((type, relativeResources) -> {
+                // the definingObject is part of the hash code, so the resources are added to a new set once changed
+                final Set<Resource> rebound = new LinkedHashSet<>(Math.max(16, (int) (relativeResources.size() / .75f) + 1));
+                for (Resource resource : relativeResources)
+                {
+                    if (resource.getDefiningObject() != null)
+                    {
+                        resource.setDefiningObject(resource.getDefiningObject() + library);
+                    }
+                    rebound.add(resource);
+                }
+                resources.put(type, rebound);
+            });
+            hits.incrementAndGet();
+            return resources;
+        }
+        catch (NoSuchFileException e)
+        {
+            misses.incrementAndGet();
+            return null;
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            logger.warn("Ignoring invalid cache entry " + file + ": " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * @param key the cache key of the library
+     * @param library the path of the library in the WAR
+     * @param resources the resources found in the library (not modified)
+     */
+    public void put(String key, String library, Map<Resource.Type, Set<Resource>> resources)
+    {
+        final InventoryReport entry = new InventoryReport();
+        final Map<Resource.Type, Set<Resource>> relativeResources = new EnumMap<>(Resource.Type.class);
+        for (Map.Entry<Resource.Type, Set<Resource>> typeResources : resources.entrySet())
+        {
+            final Set<Resource> relative = new LinkedHashSet<>();
+            for (Resource resource : typeResources.getValue())
+            {
+                final String definingObject = resource.getDefiningObject();
+                if (definingObject != null && !definingObject.endsWith(library))
+                {
+                    // can't be re-bound
+                    logger.debug("Not caching " + library + ", " + resource + " is not defined by it");
+                    return;
+                }
+                relative.add(withDefiningObject(resource, definingObject == null ? null :
+                    definingObject.substring(0, definingObject.length() - library.length())));
+            }
+            relativeResources.put(typeResources.getKey(), relative);
+        }
+        entry.setResources(relativeResources);
+
+        final Path file = Path.of(cacheDir, key + FILE_SUFFIX);
+        try
+        {
+            Files.createDirectories(file.getParent());
+            final Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try
+            {
+                try (OutputStream os = Files.newOutputStream(temp))
+                {
+                    // the order is kept, so the report is the same with or without the cache
+                    BinaryInventoryFormat.write(entry, os, false);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(temp);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn("Failed caching the inventory of " + library + ": " + e.getMessage());
+        }
+    }
+
+    public int getHits()
+    {
+        return hits.get();
+    }
+
+    public int getMisses()
+    {
+        return misses.get();
+    }
+
+    private static String version(List<InventoryWorker> inventoryWorkers)
+    {
+        final String version = LibraryInventoryCache.class.getPackage().getImplementationVersion();
+        return FORMAT + ":" + (version == null ? "dev" : version) + ":" +
+               inventoryWorkers.stream().map(worker -> worker.getClass().getName()).collect(joining(","));
+    }
+
+    /**
+     * @return a copy of the resource (which is still to be reported as it is)
+     */
+    private static Resource withDefiningObject(Resource resource, String definingObject)
+    {
+        if (resource instanceof BeanResource)
+        {
+            return new BeanResource(resource.getId(), definingObject, ((BeanResource) resource).getBeanClass());
+        }
+        if (resource instanceof AlfrescoPublicApiResource)
+        {
+            final AlfrescoPublicApiResource publicApi = (AlfrescoPublicApiResource) resource;
+            final AlfrescoPublicApiResource copy = new AlfrescoPublicApiResource(publicApi.getId(),
+                publicApi.isDeprecated(), publicApi.isImplicit());
+            copy.setDefiningObject(definingObject);
+            return copy;
+        }
+        if (resource instanceof ClasspathElementResource)
+        {
+            return new ClasspathElementResource(resource.getId(), definingObject);
+        }
+        if (resource instanceof FileResource)
+        {
+            return new FileResource(resource.getId(), definingObject);
+        }
+        throw new IllegalArgumentException("Unsupported resource: " + resource);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.inventory.worker.ResourceSink;
+import org.alfresco.extension_inspector.model.Resource;
+
+/**
+ * A {@link ResourceSink} adding the resources directly to the sets of a map, e.g. the resources of an
+ * {@link org.alfresco.extension_inspector.model.InventoryReport}, so they don't have to be merged afterwards.
+ * <p/>
+ * The sets are looked up by the ordinal of the type and created on first use, as (insertion ordered)
+ * {@link LinkedHashSet}s. Instances are not thread safe.
+ */
+public final class SingleThreadedResourceSink implements ResourceSink
+{
+    private static final Resource.Type[] TYPES = Resource.Type.values();
+
+    private final Map<Resource.Type, Set<Resource>> resources;
+    private final Set<Resource>[] byType;
+
+    /**
+     * @param resources the map the resources are added to, modified in place; the sets it already has are
+     * added to as well, so they have to be modifiable
+     */
+    @SuppressWarnings("unchecked")
+    public SingleThreadedResourceSink(Map<Resource.Type, Set<Resource>> resources)
+    {
+        this.resources = resources;
+        this.byType = new Set[TYPES.length];
+        resources.forEach((type, found) -> byType[type.ordinal()] = found);
+    }
+
+    @Override
+    public void add(Resource resource)
+    {
+        getSet(resource.getType()).add(resource);
+    }
+
+    @Override
+    public void expectType(Resource.Type type)
+    {
+        getSet(type);
+    }
+
+    /**
+     * @return the map the resources are added to
+     */
+    public Map<Resource.Type, Set<Resource>> getResources()
+    {
+        return resources;
+    }
+
+    /**
+     * Adds the resources of this sink to the given one, by type, in the order they were added here.
+     *
+     * @param sink the sink receiving the resources
+     */
+    public void drainTo(ResourceSink sink)
+    {
+        for (Resource.Type type : TYPES)
+        {
+            final Set<Resource> found = byType[type.ordinal()];
+            if (found != null)
+            {
+                sink.expectType(type);
+                sink.addAll(found);
+            }
+        }
+    }
+
+    private Set<Resource> getSet(Resource.Type type)
+    {
+        Set<Resource> found = byType[type.ordinal()];
+        if (found == null)
+        {
+            found = new LinkedHashSet<>();
+            byType[type.ordinal()] = found;
+            resources.put(type, found);
+        }
+        return found;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import org.alfresco.extension_inspector.inventory.worker.ResourceSink;
+import org.alfresco.extension_inspector.model.Resource;
+
+/**
+ * A {@link ResourceSink} for scanning the entries of a WAR concurrently, while the target sink receives the
+ * resources in the same order as a sequential scan (so the report is the same).
+ * <p/>
+ * Each task started with {@link #fork(Function)} (e.g. the scan of a library) gets its own stripe: a
+ * {@link SingleThreadedResourceSink} only written by the thread running the task, so no lock is needed. The
+ * stripes are flushed to the target in the order they were forked, once the tasks before them are done. The
+ * resources added to this sink directly (by the thread that owns it) go straight to the target when no task
+ * is pending, and are kept in a stripe of their own otherwise.
+ * <p/>
+ * Apart from the stripes, instances are only used by the thread that created them.
+ */
+public final class StripedResourceSink implements ResourceSink
+{
+    private final ResourceSink target;
+    private final Deque<Stripe> stripes = new ArrayDeque<>();
+
+    /**
+     * @param target the sink receiving all the resources, only written by the owner thread
+     */
+    public StripedResourceSink(ResourceSink target)
+    {
+        this.target = target;
+    }
+
+    @Override
+    public void add(Resource resource)
+    {
+        if (stripes.isEmpty())
+        {
+            target.add(resource);
+            return;
+        }
+        Stripe last = stripes.peekLast();
+        if (last.task != null)
+        {
+            last = new Stripe();
+            stripes.add(last);
+        }
+        last.sink.add(resource);
+    }
+
+    @Override
+    public void expectType(Resource.Type type)
+    {
+        target.expectType(type);
+    }
+
+    /**
+     * Starts a task adding resources to a new stripe.
+     *
+     * @param task starts the task with the stripe it has to add its resources to, and returns its future
+     */
+    public void fork(Function<ResourceSink, Future<?>> task)
+    {
+        final Stripe stripe = new Stripe();
+        stripes.add(stripe);
+        stripe.task = task.apply(stripe.sink);
+    }
+
+    /**
+     * Flushes the stripes of the tasks done so far to the target, up to the first pending one.
+     *
+     * @throws ExecutionException if one of these tasks failed
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public void flush() throws ExecutionException, InterruptedException
+    {
+        drain(false);
+    }
+
+    /**
+     * Waits for all the tasks and flushes their stripes to the target.
+     *
+     * @throws ExecutionException if one of the tasks failed
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public void finish() throws ExecutionException, InterruptedException
+    {
+        drain(true);
+    }
+
+    /**
+     * Cancels the pending tasks and drops their stripes, e.g. after a failure.
+     */
+    public void cancel()
+    {
+        stripes.forEach(stripe -> {
+            if (stripe.task != null)
+            {
+                stripe.task.cancel(true);
+            }
+        });
+        stripes.clear();
+    }
+
+    private void drain(boolean wait) throws ExecutionException, InterruptedException
+    {
+        while (!stripes.isEmpty())
+        {
+            final Stripe stripe = stripes.peek();
+            if (stripe.task != null)
+            {
+                if (!wait && !stripe.task.isDone())
+                {
+                    return;
+                }
+                // also makes the resources added by the task visible to this thread
+                stripe.task.get();
+            }
+            stripes.poll();
+            stripe.sink.drainTo(target);
+        }
+    }
+
+    private static final class Stripe
+    {
+        private final SingleThreadedResourceSink sink = new SingleThreadedResourceSink(
+            new EnumMap<>(Resource.Type.class));
+        /**
+         * The task adding resources to this stripe, or null for the resources added by the owner thread.
+         */
+        private Future<?> task;
+    }
+}
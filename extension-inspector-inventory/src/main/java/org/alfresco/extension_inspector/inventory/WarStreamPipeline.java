@@ -0,0 +1,213 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.util.Collections.singletonList;
+import static org.alfresco.extension_inspector.commons.InventoryUtils.extract;
+import static org.alfresco.extension_inspector.commons.InventoryUtils.isJar;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.alfresco.extension_inspector.inventory.worker.EntryData;
+import org.alfresco.extension_inspector.inventory.worker.ResourceSink;
+
+/**
+ * Processes the entries of a WAR read sequentially (see
+ * {@link org.alfresco.extension_inspector.inventory.service.InventoryService#extractInventoryReport(java.io.InputStream)}),
+ * overlapping the reading of the archive with the processing of its entries.
+ * <p/>
+ * The thread reading the archive only inflates the entries (the ones the
+ * {@link org.alfresco.extension_inspector.inventory.worker.InventoryWorker}s need), and hands them over to a
+ * pool: each library on its own, the other entries in small batches. The number of tasks in flight is
+ * bounded, so the reader waits when the pool falls behind and the memory used stays bounded. The resources
+ * found go to a {@link StripedResourceSink}, so the sink receives them in the order of the entries, as if they
+ * were processed sequentially.
+ * <p/>
+ * Without a pool, the entries are processed on the reading thread, as they are read. Instances are only
+ * used by the thread reading the archive.
+ */
+public final class WarStreamPipeline implements Closeable
+{
+    /**
+     * The most entries (other than libraries) processed by a single task, and their largest total size.
+     */
+    private static final int BATCH_ENTRIES = 64;
+    private static final long BATCH_BYTES = 1024 * 1024;
+
+    private final EntryProcessor entryProcessor;
+    private final ExecutorService pool;
+    private final ResourceSink sink;
+    private final StripedResourceSink stripedSink;
+    private final Semaphore tasks;
+    private final List<ZipEntry> batchEntries = new ArrayList<>();
+    private final List<byte[]> batchData = new ArrayList<>();
+    private long batchBytes;
+    private boolean started;
+
+    WarStreamPipeline(EntryProcessor entryProcessor, ExecutorService pool, int maxTasks, ResourceSink sink)
+    {
+        this.entryProcessor = entryProcessor;
+        this.pool = pool;
+        this.sink = sink;
+        this.stripedSink = pool == null ? null : new StripedResourceSink(sink);
+        this.tasks = pool == null ? null : new Semaphore(maxTasks);
+    }
+
+    /**
+     * @param entryProcessor processes the entries
+     * @param sink receives the resources found
+     * @return a pipeline processing the entries on the reading thread
+     */
+    public static WarStreamPipeline sequential(EntryProcessor entryProcessor, ResourceSink sink)
+    {
+        return new WarStreamPipeline(entryProcessor, null, 0, sink);
+    }
+
+    /**
+     * Reads the current entry of the archive stream (if needed) and processes it.
+     *
+     * @param warEntry the current entry of the archive stream
+     * @param zis the archive stream
+     * @throws IOException if the entry can't be read, or if the processing of a previous entry failed
+     */
+    public void add(ZipEntry warEntry, ZipInputStream zis) throws IOException
+    {
+        if (pool == null)
+        {
+            entryProcessor.processWarEntry(warEntry, zis, sink);
+            return;
+        }
+        if (!started)
+        {
+            entryProcessor.expectTypes(sink);
+            started = true;
+        }
+
+        final byte[] data = entryProcessor.isContentNeeded(warEntry) ? extract(zis, warEntry.getSize()) : null;
+        if (isJar(warEntry.getName()))
+        {
+            submitBatch();
+            submit(List.of(warEntry), singletonList(data));
+        }
+        else
+        {
+            batchEntries.add(warEntry);
+            batchData.add(data);
+            batchBytes += data == null ? 0 : data.length;
+            if (batchEntries.size() >= BATCH_ENTRIES || batchBytes >= BATCH_BYTES)
+            {
+                submitBatch();
+            }
+        }
+        execute(stripedSink::flush);
+    }
+
+    /**
+     * Waits for all the entries to be processed, and their resources to be added to the sink.
+     *
+     * @throws IOException if the processing of an entry failed
+     */
+    public void finish() throws IOException
+    {
+        if (pool != null)
+        {
+            submitBatch();
+            execute(stripedSink::finish);
+        }
+    }
+
+    /**
+     * Cancels the processing of the entries left, if any (e.g. if the archive could not be read).
+     */
+    @Override
+    public void close()
+    {
+        if (stripedSink != null)
+        {
+            stripedSink.cancel();
+        }
+    }
+
+    private void submitBatch() throws IOException
+    {
+        if (!batchEntries.isEmpty())
+        {
+            submit(new ArrayList<>(batchEntries), new ArrayList<>(batchData));
+            batchEntries.clear();
+            batchData.clear();
+            batchBytes = 0;
+        }
+    }
+
+    private void submit(List<ZipEntry> entries, List<byte[]> data) throws IOException
+    {
+        execute(tasks::acquire);
+        stripedSink.fork(stripe -> pool.submit(() -> {
+            try
+            {
+                for (int i = 0; i < entries.size(); i++)
+                {
+                    final byte[] content = data.get(i);
+                    // the content is only missing for the entries no worker reads
+                    entryProcessor.processWarEntry(entries.get(i), EntryData.lazy(() -> content), stripe);
+                }
+                return null;
+            }
+            finally
+            {
+                tasks.release();
+            }
+        }));
+    }
+
+    private static void execute(Step step) throws IOException
+    {
+        try
+        {
+            step.run();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new RuntimeException("Failed processing entries from the archive stream", e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while processing entries from the archive stream");
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step
+    {
+        void run() throws ExecutionException, InterruptedException;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.stream.Collectors.toList;
+import static org.alfresco.extension_inspector.model.Resource.Type.FILE;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.alfresco.extension_inspector.inventory.worker.InventoryWorker;
+
+/**
+ * Routes the archive entries to the {@link InventoryWorker}s that may process them, based on the entry
+ * suffixes declared by the workers (see {@link InventoryWorker#getEntrySuffixes()}), so that each entry
+ * is only offered to a few workers instead of all of them.
+ * <p/>
+ * The table is built once from the workers and is immutable, hence thread safe.
+ */
+final class WorkerDispatchTable
+{
+    private final String[] suffixes;
+    private final List<InventoryWorker>[] warRoutes;
+    private final List<InventoryWorker>[] libraryRoutes;
+
+    @SuppressWarnings("unchecked")
+    WorkerDispatchTable(List<InventoryWorker> workers)
+    {
+        // the longest suffixes first, so that the most specific route is used
+        suffixes = workers.stream()
+            .flatMap(worker -> worker.getEntrySuffixes().stream())
+            .map(String::toLowerCase)
+            .distinct()
+            .sorted(comparingInt(String::length).reversed())
+            .toArray(String[]::new);
+
+        // the last route is the one for the entries without any of the suffixes
+        warRoutes = new List[suffixes.length + 1];
+        libraryRoutes = new List[suffixes.length + 1];
+        for (int i = 0; i <= suffixes.length; i++)
+        {
+            final String suffix = i < suffixes.length ? suffixes[i] : null;
+            final Predicate<InventoryWorker> accepts = worker -> worker.getEntrySuffixes().isEmpty() ||
+                (suffix != null && worker.getEntrySuffixes().stream().anyMatch(suffix::equalsIgnoreCase));
+            warRoutes[i] = workers.stream().filter(accepts).collect(toList());
+            // the files of the libraries are not part of the inventory, only the libraries themselves
+            libraryRoutes[i] = workers.stream().filter(accepts).filter(worker -> worker.getType() != FILE)
+                .collect(toList());
+        }
+    }
+
+    /**
+     * @param entryName the name of an entry of the WAR
+     * @return the workers that may process the entry
+     */
+    List<InventoryWorker> getWarEntryWorkers(String entryName)
+    {
+        return warRoutes[route(entryName)];
+    }
+
+    /**
+     * @param entryName the name of an entry of a library (WEB-INF/lib jar)
+     * @return the workers that may process the entry
+     */
+    List<InventoryWorker> getLibraryEntryWorkers(String entryName)
+    {
+        return libraryRoutes[route(entryName)];
+    }
+
+    private int route(String entryName)
+    {
+        for (int i = 0; i < suffixes.length; i++)
+        {
+            final String suffix = suffixes[i];
+            if (entryName.regionMatches(true, entryName.length() - suffix.length(), suffix, 0, suffix.length()))
+            {
+                return i;
+            }
+        }
+        return suffixes.length;
+    }
+}
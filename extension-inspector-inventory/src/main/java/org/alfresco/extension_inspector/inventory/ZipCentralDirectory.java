@@ -0,0 +1,339 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.alfresco.extension_inspector.commons.InventoryUtils;
+
+/**
+ * A read-only view of a zip archive held in a {@link ByteBuffer} (e.g. a memory-mapped WAR or a
+ * slice of it, for a library stored uncompressed inside the WAR).
+ * <p/>
+ * The entries are listed from the central directory of the archive, and the content of an entry is
+ * only read (and inflated, if needed) when requested, without copying the archive itself.
+ * <p/>
+ * Only the common subset of the zip format is supported. For archives using anything else (zip64,
+ * encryption, compression methods other than stored/deflated), {@link #parse(ByteBuffer)} returns null
+ * and the caller should fall back to {@link java.util.zip.ZipInputStream}.
+ * <p/>
+ * Instances are thread safe, as only absolute reads are used on the underlying buffer.
+ */
+public final class ZipCentralDirectory
+{
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int EOCD_LENGTH = 22;
+    private static final int CEN_SIGNATURE = 0x02014b50;
+    private static final int CEN_LENGTH = 46;
+    private static final int LOC_SIGNATURE = 0x04034b50;
+    private static final int LOC_LENGTH = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    /**
+     * Inflaters are reused by each thread (as {@link java.util.zip.ZipFile} does), as creating one per
+     * entry is expensive for the many small entries of a library.
+     */
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private final ByteBuffer buffer;
+    private final List<Entry> entries;
+
+    private ZipCentralDirectory(ByteBuffer buffer, List<Entry> entries)
+    {
+        this.buffer = buffer;
+        this.entries = unmodifiableList(entries);
+    }
+
+    /**
+     * Memory-maps the given archive and reads its central directory.
+     *
+     * @param path the archive path
+     * @return the archive, or null if it can't be mapped or its format is not supported
+     * @throws IOException if the file can't be read, or its central directory is not valid
+     */
+    public static ZipCentralDirectory map(Path path) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            if (channel.size() > Integer.MAX_VALUE)
+            {
+                return null;
+            }
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the central directory of the archive held in the given buffer (from index 0 to its limit).
+     *
+     * @param zip the archive content
+     * @return the archive, or null if the content is not a supported zip archive
+     * @throws ZipException if the central directory is not valid, e.g. truncated
+     */
+    public static ZipCentralDirectory parse(ByteBuffer zip) throws ZipException
+    {
+        final ByteBuffer buffer = zip.slice().order(ByteOrder.LITTLE_ENDIAN);
+
+        final int eocd = findEndOfCentralDirectory(buffer);
+        if (eocd < 0)
+        {
+            return null;
+        }
+        final int count = buffer.getShort(eocd + 10) & 0xFFFF;
+        final long size = buffer.getInt(eocd + 12) & 0xFFFFFFFFL;
+        final long offset = buffer.getInt(eocd + 16) & 0xFFFFFFFFL;
+        // zip64 archives and archives with leading data (e.g. self-extracting) are not supported
+        if (count == 0xFFFF || offset + size != eocd)
+        {
+            return null;
+        }
+
+        final List<Entry> entries = new ArrayList<>(count);
+        int position = (int) offset;
+        for (int i = 0; i < count; i++)
+        {
+            if (position + CEN_LENGTH > eocd)
+            {
+                throw new ZipException("Invalid central directory");
+            }
+            if (buffer.getInt(position) != CEN_SIGNATURE)
+            {
+                return null;
+            }
+            final int flags = buffer.getShort(position + 8) & 0xFFFF;
+            final int method = buffer.getShort(position + 10) & 0xFFFF;
+            final long compressedSize = buffer.getInt(position + 20) & 0xFFFFFFFFL;
+            final long uncompressedSize = buffer.getInt(position + 24) & 0xFFFFFFFFL;
+            final int nameLength = buffer.getShort(position + 28) & 0xFFFF;
+            final int extraLength = buffer.getShort(position + 30) & 0xFFFF;
+            final int commentLength = buffer.getShort(position + 32) & 0xFFFF;
+            final long localHeaderOffset = buffer.getInt(position + 42) & 0xFFFFFFFFL;
+            final int next = position + CEN_LENGTH + nameLength + extraLength + commentLength;
+            if (next > eocd)
+            {
+                throw new ZipException("Invalid central directory");
+            }
+
+            if ((flags & 1) != 0 // encrypted
+                || (method != ZipEntry.STORED && method != ZipEntry.DEFLATED)
+                || compressedSize == 0xFFFFFFFFL || uncompressedSize == 0xFFFFFFFFL
+                || localHeaderOffset == 0xFFFFFFFFL
+                || uncompressedSize > Integer.MAX_VALUE - 8)
+            {
+                return null;
+            }
+
+            final byte[] name = new byte[nameLength];
+            buffer.get(position + CEN_LENGTH, name);
+            entries.add(new Entry(new String(name, UTF_8), method, compressedSize, uncompressedSize,
+                localHeaderOffset));
+
+            position = next;
+        }
+        return new ZipCentralDirectory(buffer, entries);
+    }
+
+    private static int findEndOfCentralDirectory(ByteBuffer buffer)
+    {
+        final int limit = Math.max(0, buffer.limit() - EOCD_LENGTH - MAX_COMMENT_LENGTH);
+        for (int i = buffer.limit() - EOCD_LENGTH; i >= limit; i--)
+        {
+            if (buffer.getInt(i) == EOCD_SIGNATURE &&
+                i + EOCD_LENGTH + (buffer.getShort(i + 20) & 0xFFFF) == buffer.limit())
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the entries of the archive, in the central directory order
+     */
+    public List<Entry> getEntries()
+    {
+        return entries;
+    }
+
+    /**
+     * @param entry an entry of this archive
+     * @return the raw (possibly compressed) data of the entry, as a view of the archive buffer
+     * @throws ZipException if the local header of the entry is not valid
+     */
+    public ByteBuffer rawData(Entry entry) throws ZipException
+    {
+        final long header = entry.localHeaderOffset;
+        if (header + LOC_LENGTH > buffer.limit() || buffer.getInt((int) header) != LOC_SIGNATURE)
+        {
+            throw new ZipException("Invalid local header for entry " + entry.name);
+        }
+        final long start = header + LOC_LENGTH
+                           + (buffer.getShort((int) header + 26) & 0xFFFF)
+                           + (buffer.getShort((int) header + 28) & 0xFFFF);
+        if (start + entry.compressedSize > buffer.limit())
+        {
+            throw new ZipException("Invalid data length for entry " + entry.name);
+        }
+        return buffer.slice((int) start, (int) entry.compressedSize);
+    }
+
+    /**
+     * @param entry an entry of this archive
+     * @return the stored data of the entry, as a view of the archive buffer, or null if the entry is compressed
+     * @throws ZipException if the local header of the entry is not valid
+     */
+    public ByteBuffer storedData(Entry entry) throws ZipException
+    {
+        return entry.method == ZipEntry.STORED ? rawData(entry) : null;
+    }
+
+    /**
+     * @param entry an entry of this archive
+     * @return the (inflated) content of the entry
+     * @throws ZipException if the entry data is not valid
+     */
+    public byte[] read(Entry entry) throws ZipException
+    {
+        final ByteBuffer raw = rawData(entry);
+        final byte[] data = new byte[(int) entry.size];
+        if (entry.method == ZipEntry.STORED)
+        {
+            raw.get(data);
+        }
+        else
+        {
+            inflate(entry, raw, data);
+        }
+        return data;
+    }
+
+    /**
+     * Reads the content of an entry without allocating an array for it: stored entries are returned as
+     * a view of the archive buffer and compressed ones are inflated into the reusable buffer of the
+     * calling thread (see {@link InventoryUtils#threadBuffer(int)}).
+     *
+     * @param entry an entry of this archive
+     * @return a view of the (inflated) content of the entry, only valid until the next extraction on
+     * the same thread
+     * @throws ZipException if the entry data is not valid
+     */
+    public ByteBuffer readToBuffer(Entry entry) throws ZipException
+    {
+        final ByteBuffer raw = rawData(entry);
+        if (entry.method == ZipEntry.STORED)
+        {
+            return raw;
+        }
+        final byte[] data = InventoryUtils.threadBuffer((int) entry.size);
+        inflate(entry, raw, data);
+        return ByteBuffer.wrap(data, 0, (int) entry.size);
+    }
+
+    private static void inflate(Entry entry, ByteBuffer raw, byte[] data) throws ZipException
+    {
+        final Inflater inflater = INFLATER.get();
+        try
+        {
+            inflater.setInput(raw);
+            int length = 0;
+            while (length < entry.size)
+            {
+                final int inflated = inflater.inflate(data, length, (int) entry.size - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.finished() || inflater.needsDictionary()))
+                {
+                    throw new ZipException("Unexpected end of data for entry " + entry.name);
+                }
+                length += inflated;
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new ZipException("Invalid data for entry " + entry.name + ": " + e.getMessage());
+        }
+        finally
+        {
+            inflater.reset();
+        }
+    }
+
+    /**
+     * An entry of the archive, as described by the central directory.
+     */
+    public static final class Entry
+    {
+        private final String name;
+        private final int method;
+        private final long compressedSize;
+        private final long size;
+        private final long localHeaderOffset;
+
+        private Entry(String name, int method, long compressedSize, long size, long localHeaderOffset)
+        {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public int getMethod()
+        {
+            return method;
+        }
+
+        public long getSize()
+        {
+            return size;
+        }
+
+        public boolean isDirectory()
+        {
+            return name.endsWith("/");
+        }
+
+        /**
+         * @return a {@link ZipEntry} describing this entry, as expected by the inventory workers
+         */
+        public ZipEntry toZipEntry()
+        {
+            final ZipEntry zipEntry = new ZipEntry(name);
+            zipEntry.setMethod(method);
+            zipEntry.setSize(size);
+            zipEntry.setCompressedSize(compressedSize);
+            return zipEntry;
+        }
+    }
+}
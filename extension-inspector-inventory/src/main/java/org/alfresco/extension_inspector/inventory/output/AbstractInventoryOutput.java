@@ -0,0 +1,71 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.output;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolves the report file of an {@link InventoryOutput}: the given file, or a file with the default
+ * name (see {@link InventoryOutput#defaultPath(String, OutputType)}) in the given folder.
+ */
+public abstract class AbstractInventoryOutput implements InventoryOutput
+{
+    private static final Logger logger = LoggerFactory.getLogger(AbstractInventoryOutput.class);
+
+    private final Path outputPath;
+
+    protected AbstractInventoryOutput(String warPath, String outputPath, OutputType type)
+    {
+        this.outputPath = getNormalizedPath(warPath, outputPath, type);
+    }
+
+    private Path getNormalizedPath(String warPath, String outputPath, OutputType type)
+    {
+        if (outputPath == null)
+        {
+            outputPath = "";
+        }
+        outputPath = outputPath.trim();
+        Path path = Paths.get(outputPath);
+        if (StringUtils.isEmpty(outputPath) ||
+                FilenameUtils.getExtension(outputPath).isEmpty())
+        {
+            //use default inventory report name - <alfresco-war-name>.inventory.<extension>
+            String warFileName = FilenameUtils.getBaseName(warPath);
+            String defaultPath = defaultPath(warFileName, type);
+            path = path.resolve(defaultPath);
+        }
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug("Output file - " + path);
+        }
+
+        return path;
+    }
+
+    public Path getOutputPath()
+    {
+        return outputPath;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the report in the compact binary format (see {@link BinaryInventoryFormat}).
+ */
+public class BinaryInventoryOutput extends AbstractInventoryOutput
+{
+    private static final Logger logger = LoggerFactory.getLogger(BinaryInventoryOutput.class);
+
+    public BinaryInventoryOutput(String warPath, String outputPath)
+    {
+        super(warPath, outputPath, OutputType.BINARY);
+    }
+
+    @Override
+    public void generateOutput(InventoryReport report)
+    {
+        File reportFile = getOutputPath().toFile();
+        try
+        {
+            FileUtils.touch(reportFile);
+
+            try (OutputStream os = Files.newOutputStream(reportFile.toPath()))
+            {
+                BinaryInventoryFormat.write(report, os);
+            }
+
+            if (logger.isInfoEnabled())
+            {
+                logger.info("Inventory report generated - " + reportFile.getAbsolutePath());
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed writing report to file " + reportFile.getAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.InventoryDelta;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the report as a delta (see {@link InventoryDelta}) relative to the report of a base version,
+ * JSON or binary. The base version is the name of the base report without its extension, so the base
+ * report should be named after its version, as the bundled reports are.
+ */
+public class DeltaInventoryOutput extends AbstractInventoryOutput
+{
+    private static final Logger logger = LoggerFactory.getLogger(DeltaInventoryOutput.class);
+
+    private final Path baseReportPath;
+
+    public DeltaInventoryOutput(String warPath, String outputPath, String baseReportPath)
+    {
+        super(warPath, outputPath, OutputType.DELTA);
+        this.baseReportPath = Path.of(baseReportPath);
+    }
+
+    @Override
+    public void generateOutput(InventoryReport report)
+    {
+        final String baseVersion = FilenameUtils.removeExtension(baseReportPath.getFileName().toString());
+        final InventoryDelta delta = InventoryDelta.between(baseVersion, readBaseReport(), report);
+
+        File reportFile = getOutputPath().toFile();
+        try
+        {
+            FileUtils.touch(reportFile);
+
+            try (OutputStream os = Files.newOutputStream(reportFile.toPath()))
+            {
+                BinaryInventoryFormat.writeDelta(delta, os);
+            }
+
+            if (logger.isInfoEnabled())
+            {
+                logger.info("Inventory report generated - " + reportFile.getAbsolutePath() + ", relative to " +
+                            baseVersion);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed writing report to file " + reportFile.getAbsolutePath(), e);
+        }
+    }
+
+    private InventoryReport readBaseReport()
+    {
+        try (InputStream is = Files.newInputStream(baseReportPath))
+        {
+            return FilenameUtils.isExtension(baseReportPath.toString(), BinaryInventoryFormat.FILE_EXTENSION) ?
+                   BinaryInventoryFormat.read(is) :
+                   JSONInventoryOutput.objectMapper.readValue(is, InventoryReport.class);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            throw new RuntimeException("Failed to read the base report " + baseReportPath, e);
+        }
+    }
+}
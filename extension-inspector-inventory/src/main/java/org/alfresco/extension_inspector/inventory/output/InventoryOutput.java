@@ -18,13 +18,28 @@ package org.alfresco.extension_inspector.inventory.output;
 
 import static java.text.MessageFormat.format;
 
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
 import org.alfresco.extension_inspector.model.InventoryReport;
 
 public interface InventoryOutput
 {
     enum OutputType
     {
-        JSON
+        JSON("json"),
+        BINARY(BinaryInventoryFormat.FILE_EXTENSION),
+        DELTA(BinaryInventoryFormat.DELTA_FILE_EXTENSION);
+
+        private final String extension;
+
+        OutputType(String extension)
+        {
+            this.extension = extension;
+        }
+
+        public String getExtension()
+        {
+            return extension;
+        }
     }
 
     String DEFAULT_REPORT_PATH = "{0}.inventory.{1}";
@@ -38,6 +53,6 @@ public interface InventoryOutput
      */
     default String defaultPath(String sourceName, OutputType type)
     {
-        return  format(DEFAULT_REPORT_PATH, sourceName, type.name().toLowerCase());
+        return  format(DEFAULT_REPORT_PATH, sourceName, type.getExtension());
     }
 }
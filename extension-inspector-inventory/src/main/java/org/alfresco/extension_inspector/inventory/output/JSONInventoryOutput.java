@@ -18,48 +18,55 @@ package org.alfresco.extension_inspector.inventory.output;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.StringUtils;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
-public class JSONInventoryOutput implements InventoryOutput
+public class JSONInventoryOutput extends AbstractInventoryOutput
 {
     private static final Logger logger = LoggerFactory.getLogger(JSONInventoryOutput.class);
 
-    private static final OutputType type = OutputType.JSON;
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    protected static final ObjectMapper objectMapper = new ObjectMapper();
     static
     {
         objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
     }
 
-    private Path outputPath;
+    private final boolean compact;
 
     public JSONInventoryOutput(String warPath, String outputPath)
     {
-        this.outputPath = getNormalizedPath(warPath, outputPath);
+        this(warPath, outputPath, false);
+    }
+
+    /**
+     * @param warPath the path of the inventoried WAR, used for the default report name
+     * @param outputPath the report file or folder
+     * @param compact whether the report is written without indentation
+     */
+    public JSONInventoryOutput(String warPath, String outputPath, boolean compact)
+    {
+        super(warPath, outputPath, OutputType.JSON);
+        this.compact = compact;
     }
 
     @Override
     public void generateOutput(InventoryReport report)
     {
-        File reportFile = outputPath.toFile();
+        File reportFile = getOutputPath().toFile();
         try
         {
-            FileUtils.touch(outputPath.toFile());
+            FileUtils.touch(reportFile);
 
-            objectMapper.writeValue(reportFile, report);
+            writer().writeValue(reportFile, report);
 
             if (logger.isInfoEnabled())
             {
@@ -72,34 +79,14 @@ public class JSONInventoryOutput implements InventoryOutput
         }
     }
 
-    private Path getNormalizedPath(String warPath, String outputPath)
+    public boolean isCompact()
     {
-        if (outputPath == null)
-        {
-            outputPath = "";
-        }
-        outputPath = outputPath.trim();
-        Path path = Paths.get(outputPath);
-        if (StringUtils.isEmpty(outputPath) ||
-                FilenameUtils.getExtension(outputPath).isEmpty())
-        {
-            //use default inventory report name - <alfresco-war-name>.inventory.json
-            String warFileName = FilenameUtils.getBaseName(warPath);
-            String defaultPath = defaultPath(warFileName, type);
-            path = path.resolve(defaultPath);
-        }
-
-        if (logger.isDebugEnabled())
-        {
-            logger.debug("Output file - " + path);
-        }
-
-        return path;
+        return compact;
     }
 
-    public Path getOutputPath()
+    protected ObjectWriter writer()
     {
-        return outputPath;
+        return compact ? objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT) : objectMapper.writer();
     }
 
 }
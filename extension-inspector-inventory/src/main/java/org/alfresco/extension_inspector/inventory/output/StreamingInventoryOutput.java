@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.output;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.inventory.worker.ResourceSink;
+import org.alfresco.extension_inspector.model.Resource;
+
+/**
+ * An {@link InventoryOutput} that can be written while the inventory is extracted, so the whole
+ * report doesn't have to be held in memory.
+ * <p/>
+ * The methods mirror the ones used to build an {@link org.alfresco.extension_inspector.model.InventoryReport}:
+ * the resources are added (and merged) in the order they are extracted, as a {@link ResourceSink}, then
+ * {@link #finish()} writes the report. {@link #close()} releases anything left behind if the extraction failed.
+ */
+public interface StreamingInventoryOutput extends InventoryOutput, ResourceSink, Closeable
+{
+    void setAlfrescoVersion(String alfrescoVersion);
+
+    /**
+     * @param resources resources extracted from the WAR, grouped by their type; duplicates of the
+     * resources already added are ignored
+     */
+    default void addResources(Map<Resource.Type, Set<Resource>> resources)
+    {
+        resources.forEach((type, found) -> {
+            expectType(type);
+            addAll(found);
+        });
+    }
+
+    /**
+     * Writes the report with all the resources added so far.
+     */
+    void finish();
+}
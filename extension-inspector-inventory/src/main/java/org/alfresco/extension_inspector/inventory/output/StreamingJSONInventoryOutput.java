@@ -0,0 +1,374 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes the JSON report while the inventory is extracted, instead of serialising a complete
+ * {@link InventoryReport}.
+ * <p/>
+ * As the report groups the resources by type, the resources of each type are spooled (compact) to
+ * a temporary file as soon as they are added, and only a fingerprint of each one is kept to skip
+ * duplicates, along with the position of the resource in the spool to compare the resources of
+ * equal fingerprints. {@link #finish()} then writes the report, copying the spooled resources with a
+ * {@link JsonGenerator}. The report is the same, byte for byte, as the one {@link JSONInventoryOutput}
+ * writes for the {@link InventoryReport} merged from the same resources.
+ * <p/>
+ * Instances are not thread safe.
+ */
+public class StreamingJSONInventoryOutput extends JSONInventoryOutput implements StreamingInventoryOutput
+{
+    private static final Logger logger = LoggerFactory.getLogger(StreamingJSONInventoryOutput.class);
+
+    private static final ObjectWriter resourceWriter = objectMapper.writerFor(Resource.class)
+        .without(SerializationFeature.INDENT_OUTPUT)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    private static final ObjectReader resourceReader = objectMapper.readerFor(Resource.class);
+
+    private final Map<Resource.Type, Spool> spools = new EnumMap<>(Resource.Type.class);
+    private String alfrescoVersion;
+
+    public StreamingJSONInventoryOutput(String warPath, String outputPath, boolean compact)
+    {
+        super(warPath, outputPath, compact);
+    }
+
+    @Override
+    public void setAlfrescoVersion(String alfrescoVersion)
+    {
+        this.alfrescoVersion = alfrescoVersion;
+    }
+
+    @Override
+    public void add(Resource resource)
+    {
+        try
+        {
+            spools.computeIfAbsent(resource.getType(), Spool::new).write(resource);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Failed spooling resources for report " + getOutputPath(), e);
+        }
+    }
+
+    @Override
+    public void expectType(Resource.Type type)
+    {
+        spools.computeIfAbsent(type, Spool::new);
+    }
+
+    @Override
+    public void finish()
+    {
+        final Path reportFile = getOutputPath();
+        try
+        {
+            FileUtils.touch(reportFile.toFile());
+
+            try (JsonGenerator generator = objectMapper.getFactory()
+                .createGenerator(reportFile.toFile(), JsonEncoding.UTF8))
+            {
+                if (!isCompact())
+                {
+                    generator.useDefaultPrettyPrinter();
+                }
+                generator.writeStartObject();
+                generator.writeStringField("schemaVersion", InventoryReport.SCHEMA_VERSION);
+                if (alfrescoVersion != null)
+                {
+                    generator.writeStringField("alfrescoVersion", alfrescoVersion);
+                }
+                generator.writeObjectFieldStart("resources");
+                for (Spool spool : spools.values())
+                {
+                    generator.writeArrayFieldStart(spool.type.name());
+                    spool.copyTo(generator);
+                    generator.writeEndArray();
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+
+            if (logger.isInfoEnabled())
+            {
+                logger.info("Inventory report generated - " + reportFile.toFile().getAbsolutePath());
+            }
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Failed writing report to file " + reportFile.toFile().getAbsolutePath(), e);
+        }
+        finally
+        {
+            close();
+        }
+    }
+
+    /**
+     * Writes the given (complete) report, same as {@link JSONInventoryOutput}.
+     */
+    @Override
+    public void generateOutput(InventoryReport report)
+    {
+        setAlfrescoVersion(report.getAlfrescoVersion());
+        try
+        {
+            addResources(report.getResources());
+            finish();
+        }
+        catch (RuntimeException e)
+        {
+            logger.error(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Deletes the spooled resources.
+     */
+    @Override
+    public void close()
+    {
+        spools.values().forEach(Spool::delete);
+        spools.clear();
+    }
+
+    /**
+     * The resources of a type, spooled as a sequence of compact JSON values.
+     */
+    private static final class Spool
+    {
+        private final Resource.Type type;
+        private final FingerprintSet written = new FingerprintSet();
+        private Path file;
+        private CountingOutputStream output;
+        private JsonGenerator generator;
+
+        private Spool(Resource.Type type)
+        {
+            this.type = type;
+        }
+
+        private void write(Resource resource) throws IOException
+        {
+            if (generator == null)
+            {
+                file = Files.createTempFile("inventory-" + type.name().toLowerCase() + "-", ".json");
+                output = new CountingOutputStream(Files.newOutputStream(file));
+                generator = objectMapper.getFactory().createGenerator(output);
+            }
+            final long position = output.getByteCount() + generator.getOutputBuffered();
+            try
+            {
+                if (!written.add(resource, position, spooled -> resource.equals(read(spooled))))
+                {
+                    return;
+                }
+            }
+            catch (UncheckedIOException e)
+            {
+                throw e.getCause();
+            }
+            resourceWriter.writeValue(generator, resource);
+        }
+
+        /**
+         * Reads back the resource spooled at the given position.
+         */
+        private Resource read(long position)
+        {
+            try
+            {
+                generator.flush();
+                try (FileChannel channel = FileChannel.open(file))
+                {
+                    channel.position(position);
+                    return resourceReader.readValue(Channels.newInputStream(channel));
+                }
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void copyTo(JsonGenerator target) throws IOException
+        {
+            if (generator == null)
+            {
+                return;
+            }
+            generator.close();
+            try (JsonParser parser = objectMapper.getFactory().createParser(file.toFile()))
+            {
+                while (parser.nextToken() != null)
+                {
+                    target.copyCurrentStructure(parser);
+                }
+            }
+        }
+
+        private void delete()
+        {
+            if (file == null)
+            {
+                return;
+            }
+            try
+            {
+                generator.close();
+                Files.deleteIfExists(file);
+            }
+            catch (IOException e)
+            {
+                logger.debug("Failed deleting " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A set of 128-bit fingerprints of the resources, over the fields their equality is based on
+     * (see {@link org.alfresco.extension_inspector.model.AbstractResource#equals(Object)}), each
+     * with the position of its resource in the spool. A resource is only taken as a duplicate when
+     * the resource spooled with the same fingerprint is equal to it, so the set deduplicates the
+     * resources exactly as a {@link java.util.Set} of them would, without holding them in memory;
+     * a fingerprint collision only costs reading the spooled resource back.
+     */
+    static final class FingerprintSet
+    {
+        private static final long PRIME_1 = 0x100000001b3L;
+        private static final long PRIME_2 = 0x9E3779B97F4A7C15L;
+
+        // triples of fingerprint halves and spool position, (0, 0) marking a free slot
+        private long[] table = new long[3 * 1024];
+        private int size;
+
+        /**
+         * @param position        the position of the resource in the spool, if it is added
+         * @param spooledEquals   whether the resource spooled at a position is equal to this one
+         * @return false if an equal resource was already added
+         */
+        boolean add(Resource resource, long position, LongPredicate spooledEquals)
+        {
+            long h1 = hash(hash(0xcbf29ce484222325L, PRIME_1, resource.getId()), PRIME_1, resource.getDefiningObject());
+            long h2 = hash(hash(0x84222325cbf29ce4L, PRIME_2, resource.getId()), PRIME_2, resource.getDefiningObject());
+            if (resource instanceof BeanResource)
+            {
+                h1 = hash(h1, PRIME_1, ((BeanResource) resource).getBeanClass());
+                h2 = hash(h2, PRIME_2, ((BeanResource) resource).getBeanClass());
+            }
+            h1 = mix(h1);
+            h2 = mix(h2);
+            if (h1 == 0 && h2 == 0)
+            {
+                h2 = 1;
+            }
+
+            if (2 * (size + 1) > table.length / 3)
+            {
+                resize();
+            }
+            final int mask = table.length / 3 - 1;
+            int slot = (int) h1 & mask;
+            while (table[3 * slot] != 0 || table[3 * slot + 1] != 0)
+            {
+                if (table[3 * slot] == h1 && table[3 * slot + 1] == h2 && spooledEquals.test(table[3 * slot + 2]))
+                {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[3 * slot] = h1;
+            table[3 * slot + 1] = h2;
+            table[3 * slot + 2] = position;
+            size++;
+            return true;
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        private void resize()
+        {
+            final long[] resized = new long[table.length * 2];
+            final int mask = resized.length / 3 - 1;
+            for (int i = 0; i < table.length; i += 3)
+            {
+                if (table[i] != 0 || table[i + 1] != 0)
+                {
+                    int slot = (int) table[i] & mask;
+                    while (resized[3 * slot] != 0 || resized[3 * slot + 1] != 0)
+                    {
+                        slot = (slot + 1) & mask;
+                    }
+                    System.arraycopy(table, i, resized, 3 * slot, 3);
+                }
+            }
+            table = resized;
+        }
+
+        private static long hash(long h, long prime, String value)
+        {
+            if (value == null)
+            {
+                return (h ^ 0xFFFFFFFFL) * prime;
+            }
+            for (int i = 0; i < value.length(); i++)
+            {
+                h = (h ^ value.charAt(i)) * prime;
+            }
+            // the length separates the fields
+            return (h ^ value.length()) * prime;
+        }
+
+        private static long mix(long h)
+        {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
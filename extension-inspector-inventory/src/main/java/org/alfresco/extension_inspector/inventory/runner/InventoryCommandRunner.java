@@ -18,9 +18,21 @@ package org.alfresco.extension_inspector.inventory.runner;
 import static org.alfresco.extension_inspector.usage.UsagePrinter.printInventoryUsage;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.inventory.ExplodedWar;
+import org.alfresco.extension_inspector.inventory.InventoryStatistics;
+import org.alfresco.extension_inspector.inventory.output.BinaryInventoryOutput;
+import org.alfresco.extension_inspector.inventory.output.DeltaInventoryOutput;
 import org.alfresco.extension_inspector.inventory.output.InventoryOutput;
 import org.alfresco.extension_inspector.inventory.output.JSONInventoryOutput;
+import org.alfresco.extension_inspector.inventory.output.StreamingJSONInventoryOutput;
+import org.alfresco.extension_inspector.inventory.service.InventoryBatchService;
 import org.alfresco.extension_inspector.inventory.service.InventoryService;
 import org.apache.commons.io.FilenameUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,9 +43,19 @@ import org.springframework.stereotype.Service;
 public class InventoryCommandRunner
 {
     private static final String OUTPUT_ARG = "o";
+    private static final String STREAMING_ARG = "streaming";
+    private static final String COMPACT_ARG = "compact";
+    private static final String BINARY_ARG = "binary";
+    private static final String DELTA_BASE_ARG = "delta-base";
+    private static final String STATS_ARG = "stats";
+    private static final String STATS_FILE_ARG = "stats-file";
 
     @Autowired
     private InventoryService inventoryService;
+    @Autowired
+    private InventoryBatchService inventoryBatchService;
+    @Autowired
+    private InventoryStatistics inventoryStatistics;
 
     public void execute(final ApplicationArguments args)
     {
@@ -42,7 +64,23 @@ public class InventoryCommandRunner
             printInventoryUsage("Missing war file.");
             throw new IllegalArgumentException();
         }
-        final String warPath = args.getNonOptionArgs().get(0);
+        if (args.containsOption(DELTA_BASE_ARG) && !isBaseReportValid(getDeltaBaseReportPath(args)))
+        {
+            printInventoryUsage("The base report is not valid.");
+            throw new IllegalArgumentException();
+        }
+        if (args.containsOption(STATS_ARG) || args.containsOption(STATS_FILE_ARG))
+        {
+            inventoryStatistics.reset();
+            inventoryStatistics.setEnabled(true);
+        }
+        if (args.getNonOptionArgs().size() > 1 || isWarFolder(args.getNonOptionArgs().get(0)))
+        {
+            executeBatch(args);
+            return;
+        }
+        // without the trailing separator of a folder, the report is named after it
+        final String warPath = new File(args.getNonOptionArgs().get(0)).getPath();
         if (!isWarValid(warPath))
         {
             printInventoryUsage("The war file is not valid.");
@@ -50,16 +88,145 @@ public class InventoryCommandRunner
         }
 
         final String reportPath = getOutputReportPath(args, warPath);
-        // TODO: Make it a bean and inject it?
-        final InventoryOutput output = new JSONInventoryOutput(warPath, reportPath);
+        inventoryService.generateInventoryReport(warPath, createOutput(args, warPath, reportPath));
+        reportStatistics(args);
+    }
+
+    /**
+     * Generates the reports of several wars (given as files and/or folders containing them) in this JVM.
+     * The reports get their default name, in the folder given with --o if any.
+     */
+    private void executeBatch(final ApplicationArguments args)
+    {
+        final List<String> warPaths = new ArrayList<>();
+        for (String path : args.getNonOptionArgs())
+        {
+            final File file = new File(path);
+            if (isWarFolder(path))
+            {
+                final File[] wars = file.listFiles(
+                    (dir, name) -> FilenameUtils.getExtension(name).equalsIgnoreCase("war"));
+                if (wars != null)
+                {
+                    Arrays.stream(wars).map(File::getPath).sorted().forEach(warPaths::add);
+                }
+            }
+            else if (isWarValid(path))
+            {
+                warPaths.add(file.getPath());
+            }
+            else
+            {
+                printInventoryUsage("The war file is not valid: " + path);
+                throw new IllegalArgumentException();
+            }
+        }
+        if (warPaths.isEmpty())
+        {
+            printInventoryUsage("Missing war file.");
+            throw new IllegalArgumentException();
+        }
+
+        final String reportFolder = getOutputReportPath(args, null);
+        if (!FilenameUtils.getExtension(reportFolder).isEmpty())
+        {
+            printInventoryUsage("The output should be a folder when generating several reports.");
+            throw new IllegalArgumentException();
+        }
+
+        final long start = System.nanoTime();
+        final List<InventoryBatchService.Result> results = inventoryBatchService.generateInventoryReports(
+            warPaths, warPath -> createOutput(args, warPath, reportFolder));
+        printSummary(results, (System.nanoTime() - start) / 1_000_000);
+        reportStatistics(args);
 
-        inventoryService.generateInventoryReport(warPath, output);
+        final long failures = results.stream().filter(result -> !result.isSuccessful()).count();
+        if (failures > 0)
+        {
+            throw new RuntimeException(failures + " of " + results.size() + " inventory reports could not be generated");
+        }
+    }
+
+    /**
+     * Prints the statistics of the run with --stats and/or writes them to the --stats-file.
+     */
+    private void reportStatistics(final ApplicationArguments args)
+    {
+        if (args.containsOption(STATS_ARG))
+        {
+            inventoryStatistics.printSummary(System.out);
+        }
+        if (args.containsOption(STATS_FILE_ARG) && !args.getOptionValues(STATS_FILE_ARG).isEmpty())
+        {
+            final String statsPath = args.getOptionValues(STATS_FILE_ARG).get(0);
+            try
+            {
+                inventoryStatistics.writeJson(Path.of(statsPath));
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException("Failed writing the statistics to " + statsPath, e);
+            }
+        }
+    }
+
+    // TODO: Make it a bean and inject it?
+    private static InventoryOutput createOutput(ApplicationArguments args, String warPath, String reportPath)
+    {
+        if (args.containsOption(DELTA_BASE_ARG))
+        {
+            return new DeltaInventoryOutput(warPath, reportPath, getDeltaBaseReportPath(args));
+        }
+        if (args.containsOption(BINARY_ARG))
+        {
+            return new BinaryInventoryOutput(warPath, reportPath);
+        }
+        final boolean compact = args.containsOption(COMPACT_ARG);
+        if (args.containsOption(STREAMING_ARG))
+        {
+            return new StreamingJSONInventoryOutput(warPath, reportPath, compact);
+        }
+        return new JSONInventoryOutput(warPath, reportPath, compact);
+    }
+
+    private static void printSummary(List<InventoryBatchService.Result> results, long durationMillis)
+    {
+        final int width = results.stream().mapToInt(result -> result.getWarPath().length()).max().orElse(0);
+        final String format = "  %-" + width + "s  %s%n";
+        System.out.println("Inventory reports of " + results.size() + " wars processed in " + durationMillis + " ms:");
+        for (InventoryBatchService.Result result : results)
+        {
+            System.out.printf(format, result.getWarPath(), result.isSuccessful() ?
+                result.getDurationMillis() + " ms" :
+                "failed after " + result.getDurationMillis() + " ms: " + result.getFailure().getMessage());
+        }
     }
 
     private static boolean isWarValid(String warPath)
     {
         return FilenameUtils.getExtension(warPath).equalsIgnoreCase("war") &&
-               new File(warPath).exists();
+               new File(warPath).exists() ||
+               ExplodedWar.isExplodedWar(Path.of(warPath));
+    }
+
+    /**
+     * @return whether the path is a folder of wars, rather than an exploded war
+     */
+    private static boolean isWarFolder(String path)
+    {
+        return new File(path).isDirectory() && !ExplodedWar.isExplodedWar(Path.of(path));
+    }
+
+    private static boolean isBaseReportValid(String reportPath)
+    {
+        return reportPath != null &&
+               FilenameUtils.isExtension(reportPath.toLowerCase(), "json", BinaryInventoryFormat.FILE_EXTENSION) &&
+               new File(reportPath).isFile();
+    }
+
+    private static String getDeltaBaseReportPath(ApplicationArguments args)
+    {
+        return args.getOptionValues(DELTA_BASE_ARG).isEmpty() ? null : args.getOptionValues(DELTA_BASE_ARG).get(0);
     }
 
     private static String getOutputReportPath(ApplicationArguments args, String warPath)
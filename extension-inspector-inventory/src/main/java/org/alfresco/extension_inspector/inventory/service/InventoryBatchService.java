@@ -0,0 +1,238 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.alfresco.extension_inspector.inventory.output.InventoryOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Generates the inventory reports of several WARs in the same JVM, processing a bounded number of them
+ * concurrently. The WEB-INF/lib libraries of all the WARs are processed by the same (shared) pool of the
+ * {@link org.alfresco.extension_inspector.inventory.EntryProcessor}.
+ * <p/>
+ * Besides the number of WARs processed concurrently ({@code inventory-batch-parallelism}), the WARs in
+ * flight are limited by their total size, which must fit in a share of the maximum heap
+ * ({@code inventory-batch-memory-ratio}), as the memory used while processing a WAR grows with it. A WAR
+ * larger than that budget is still processed, on its own.
+ */
+@Service
+public class InventoryBatchService
+{
+    private static final Logger logger = LoggerFactory.getLogger(InventoryBatchService.class);
+
+    private static final int MB = 1024 * 1024;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    /**
+     * The number of WARs processed concurrently: 0 (or less) means half the available processors, as
+     * the libraries of each WAR are processed concurrently as well.
+     */
+    @Value("${inventory-batch-parallelism:0}")
+    private int parallelism;
+
+    /**
+     * The share of the maximum heap that the WARs processed concurrently may add up to.
+     */
+    @Value("${inventory-batch-memory-ratio:0.5}")
+    private double memoryRatio;
+
+    /**
+     * Generates the report of each of the given WARs. A WAR that fails doesn't stop the others, its
+     * failure is returned in its result instead.
+     *
+     * @param warPaths the archive paths
+     * @param outputs creates the report output of an archive
+     * @return the result of each archive, in the same order
+     */
+    public List<Result> generateInventoryReports(List<String> warPaths,
+        Function<String, InventoryOutput> outputs)
+    {
+        final int poolSize = Math.min(warPaths.size(), parallelism > 0 ? parallelism :
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        final int budget = getMemoryBudget();
+        logger.info("Generating " + warPaths.size() + " inventory reports, " + poolSize +
+                    " at a time, within " + budget + " MB");
+
+        final Semaphore memory = new Semaphore(budget);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, poolSize));
+        final List<Future<Result>> futures = new ArrayList<>(warPaths.size());
+        try
+        {
+            for (String warPath : warPaths)
+            {
+                final int weight = getWeight(warPath, budget);
+                // blocks while the WARs in flight don't leave enough room for this one
+                memory.acquire(weight);
+                try
+                {
+                    futures.add(executor.submit(() -> {
+                        try
+                        {
+                            return generateInventoryReport(warPath, outputs);
+                        }
+                        finally
+                        {
+                            memory.release(weight);
+                        }
+                    }));
+                }
+                catch (RuntimeException e)
+                {
+                    memory.release(weight);
+                    throw e;
+                }
+            }
+
+            final List<Result> results = new ArrayList<>(futures.size());
+            for (Future<Result> future : futures)
+            {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating the inventory reports", e);
+        }
+        catch (ExecutionException e)
+        {
+            // the failures are part of the results
+            throw new RuntimeException("Failed generating the inventory reports", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private Result generateInventoryReport(String warPath, Function<String, InventoryOutput> outputs)
+    {
+        final long start = System.nanoTime();
+        try
+        {
+            inventoryService.generateInventoryReport(warPath, outputs.apply(warPath));
+            return new Result(warPath, (System.nanoTime() - start) / 1_000_000, null);
+        }
+        catch (RuntimeException e)
+        {
+            logger.error("Failed generating the inventory report of " + warPath, e);
+            return new Result(warPath, (System.nanoTime() - start) / 1_000_000, e);
+        }
+    }
+
+    private int getMemoryBudget()
+    {
+        final long budget = (long) (Runtime.getRuntime().maxMemory() * memoryRatio) / MB;
+        return (int) Math.max(1, Math.min(budget, Integer.MAX_VALUE));
+    }
+
+    /**
+     * @return the share of the memory budget held while the given WAR is processed, in MB: the size of
+     * the WAR file, or the total size of the files of an exploded WAR, or the whole budget if that cannot
+     * be computed
+     */
+    static int getWeight(String warPath, int budget)
+    {
+        final File war = new File(warPath);
+        long size = war.length();
+        if (war.isDirectory())
+        {
+            try (Stream<Path> files = Files.walk(war.toPath()))
+            {
+                size = files.filter(Files::isRegularFile).mapToLong(file -> {
+                    try
+                    {
+                        return Files.size(file);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                }).sum();
+            }
+            catch (IOException | UncheckedIOException e)
+            {
+                logger.debug("Failed computing the size of " + warPath + ": " + e.getMessage());
+                return budget;
+            }
+        }
+        return (int) Math.max(1, Math.min(size / MB, budget));
+    }
+
+    /**
+     * The outcome of the generation of a report.
+     */
+    public static final class Result
+    {
+        private final String warPath;
+        private final long durationMillis;
+        private final RuntimeException failure;
+
+        public Result(String warPath, long durationMillis, RuntimeException failure)
+        {
+            this.warPath = warPath;
+            this.durationMillis = durationMillis;
+            this.failure = failure;
+        }
+
+        public String getWarPath()
+        {
+            return warPath;
+        }
+
+        public long getDurationMillis()
+        {
+            return durationMillis;
+        }
+
+        /**
+         * @return the failure, or null if the report was generated
+         */
+        public RuntimeException getFailure()
+        {
+            return failure;
+        }
+
+        public boolean isSuccessful()
+        {
+            return failure == null;
+        }
+    }
+}
@@ -16,12 +16,35 @@
 
 package org.alfresco.extension_inspector.inventory.service;
 
+import java.io.InputStream;
+
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.alfresco.extension_inspector.inventory.output.InventoryOutput;
 
 public interface InventoryService
 {
+    /**
+     * @param warPath the archive path, or the folder of an exploded WAR
+     * @return the inventory report
+     */
     InventoryReport extractInventoryReport(String warPath);
 
+    /**
+     * Extracts the inventory by reading the archive sequentially. To be used for sources that
+     * cannot be accessed randomly.
+     *
+     * @param warStream the archive content
+     * @return the inventory report
+     */
+    InventoryReport extractInventoryReport(InputStream warStream);
+
+    /**
+     * Extracts the inventory and writes it to the given output. A
+     * {@link org.alfresco.extension_inspector.inventory.output.StreamingInventoryOutput} is written while
+     * the archive is processed, without building the report in memory.
+     *
+     * @param warPath the archive path, or the folder of an exploded WAR
+     * @param output the report output
+     */
     void generateInventoryReport(String warPath, InventoryOutput output);
 }
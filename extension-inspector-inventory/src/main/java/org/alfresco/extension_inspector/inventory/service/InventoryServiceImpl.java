@@ -19,16 +19,28 @@ package org.alfresco.extension_inspector.inventory.service;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import org.alfresco.extension_inspector.commons.InventoryUtils;
 import org.alfresco.extension_inspector.inventory.EntryProcessor;
+import org.alfresco.extension_inspector.inventory.ExplodedWar;
+import org.alfresco.extension_inspector.inventory.InventoryStatistics;
+import org.alfresco.extension_inspector.inventory.LibraryInventoryCache;
+import org.alfresco.extension_inspector.inventory.SingleThreadedResourceSink;
+import org.alfresco.extension_inspector.inventory.WarStreamPipeline;
 import org.alfresco.extension_inspector.inventory.output.InventoryOutput;
+import org.alfresco.extension_inspector.inventory.output.StreamingInventoryOutput;
+import org.alfresco.extension_inspector.inventory.worker.ResourceSink;
 import org.alfresco.extension_inspector.model.InventoryReport;
-import org.alfresco.extension_inspector.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -43,51 +55,229 @@ public class InventoryServiceImpl implements InventoryService
     @Autowired
     private EntryProcessor entryProcessor;
 
+    @Autowired(required = false)
+    private LibraryInventoryCache libraryInventoryCache;
+
+    @Autowired(required = false)
+    private InventoryStatistics inventoryStatistics;
+
+    /**
+     * Extracts the inventory of the given archive. Regular files are scanned through their
+     * central directory (random access), so only the entries needed by the
+     * {@link org.alfresco.extension_inspector.inventory.worker.InventoryWorker}s are inflated.
+     * Any other (non-seekable) source, e.g. a named pipe, is read sequentially. The path can also be
+     * the folder of an exploded WAR (see {@link ExplodedWar}).
+     */
     @Override
     public InventoryReport extractInventoryReport(final String warPath)
     {
-        try (final ZipInputStream zis = new ZipInputStream((new FileInputStream(warPath))))
+        final InventoryReport report = new InventoryReport();
+        extractInventory(warPath, report::setAlfrescoVersion, new SingleThreadedResourceSink(report.getResources()));
+        return report;
+    }
+
+    @Override
+    public InventoryReport extractInventoryReport(final InputStream warStream)
+    {
+        final InventoryReport report = new InventoryReport();
+        extractInventory(warStream, report::setAlfrescoVersion, new SingleThreadedResourceSink(report.getResources()));
+        return report;
+    }
+
+    public void generateInventoryReport(final String warPath, final InventoryOutput output)
+    {
+        if (output instanceof StreamingInventoryOutput)
+        {
+            try (StreamingInventoryOutput streamingOutput = (StreamingInventoryOutput) output)
+            {
+                extractInventory(warPath, streamingOutput::setAlfrescoVersion, streamingOutput);
+                final long start = startPhase();
+                streamingOutput.finish();
+                recordPhase(InventoryStatistics.PHASE_OUTPUT, start);
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException("IO error while writing the report of " + warPath, e);
+            }
+            return;
+        }
+        InventoryReport report = extractInventoryReport(warPath);
+        final long start = startPhase();
+        output.generateOutput(report);
+        recordPhase(InventoryStatistics.PHASE_OUTPUT, start);
+    }
+
+    /**
+     * @param warPath the archive path
+     * @param versionConsumer receives the Alfresco version found in the manifest(s) of the archive
+     * @param sink receives the resources found, in the order of the entries (see
+     * {@link EntryProcessor#processWarFileEntries(ZipFile, List, ResourceSink)})
+     */
+    private void extractInventory(final String warPath, final Consumer<String> versionConsumer,
+        final ResourceSink sink)
+    {
+        if (ExplodedWar.isExplodedWar(Path.of(warPath)))
+        {
+            extractDirectoryInventory(Path.of(warPath), versionConsumer, sink);
+            return;
+        }
+        if (!Files.isRegularFile(Path.of(warPath)))
+        {
+            try (final InputStream is = new FileInputStream(warPath))
+            {
+                extractInventory(is, versionConsumer, sink);
+                return;
+            }
+            catch (FileNotFoundException e)
+            {
+                logger.error("Failed opening file " + warPath, e);
+                throw new IllegalArgumentException("Failed to open file " + warPath, e);
+            }
+            catch (IOException e)
+            {
+                logger.error("Failed reading web archive " + warPath, e);
+                throw new RuntimeException("IO error while reading archive " + warPath, e);
+            }
+        }
+
+        try (final ZipFile war = new ZipFile(warPath))
         {
             logger.info("Starting war processing");
 
-            final InventoryReport report = new InventoryReport();
+            final List<? extends ZipEntry> entries = Collections.list(war.entries());
+            for (ZipEntry ze : entries)
+            {
+                if (ze.getName().endsWith("MANIFEST.MF"))
+                {
+                    final long start = startPhase();
+                    try (final InputStream is = war.getInputStream(ze))
+                    {
+                        Map<String, String> versions = InventoryUtils.parseManifestForVersion(ze, is);
+                        if (versions != null)
+                        {
+                            versionConsumer.accept(versions.get(InventoryReport.IMPLEMENTATION_VERSION));
+                        }
+                    }
+                    recordPhase(InventoryStatistics.PHASE_MANIFEST, start);
+                }
+            }
+            final long start = startPhase();
+            entryProcessor.processWarFileEntries(war, entries, sink);
+            recordPhase(InventoryStatistics.PHASE_ENTRIES, start);
+            logger.info("War processing finished");
+            logCacheStatistics();
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed reading web archive " + warPath, e);
+            throw new RuntimeException("IO error while reading archive " + warPath, e);
+        }
+    }
+
+    /**
+     * Same as {@link #extractInventory(String, Consumer, ResourceSink)}, for an exploded WAR. The report is
+     * the same as the one of the archive, if its entries are in the order of their names.
+     */
+    private void extractDirectoryInventory(final Path warDirectory, final Consumer<String> versionConsumer,
+        final ResourceSink sink)
+    {
+        try
+        {
+            logger.info("Starting exploded war processing");
+
+            final ExplodedWar war = entryProcessor.scanWarDirectory(warDirectory);
+            for (ZipEntry ze : war.getEntries())
+            {
+                if (ze.getName().endsWith("MANIFEST.MF"))
+                {
+                    final long start = startPhase();
+                    try (final InputStream is = Files.newInputStream(war.resolve(ze)))
+                    {
+                        Map<String, String> versions = InventoryUtils.parseManifestForVersion(ze, is);
+                        if (versions != null)
+                        {
+                            versionConsumer.accept(versions.get(InventoryReport.IMPLEMENTATION_VERSION));
+                        }
+                    }
+                    recordPhase(InventoryStatistics.PHASE_MANIFEST, start);
+                }
+            }
+            final long start = startPhase();
+            entryProcessor.processWarDirectoryEntries(war, sink);
+            recordPhase(InventoryStatistics.PHASE_ENTRIES, start);
+            logger.info("War processing finished");
+            logCacheStatistics();
+        }
+        catch (IOException e)
+        {
+            logger.error("Failed reading exploded web archive " + warDirectory, e);
+            throw new RuntimeException("IO error while reading exploded archive " + warDirectory, e);
+        }
+    }
+
+    /**
+     * Same as {@link #extractInventory(String, Consumer, ResourceSink)}, reading the archive sequentially.
+     * The entries are processed concurrently while the archive is read (see {@link WarStreamPipeline}).
+     */
+    private void extractInventory(final InputStream warStream, final Consumer<String> versionConsumer,
+        final ResourceSink sink)
+    {
+        try (final ZipInputStream zis = new ZipInputStream(warStream);
+             final WarStreamPipeline pipeline = entryProcessor.newWarStreamPipeline(sink))
+        {
+            logger.info("Starting war processing");
 
+            // the entries are read while they are processed, so the manifests are part of this phase too
+            final long entriesStart = startPhase();
             ZipEntry ze = zis.getNextEntry();
             while (ze != null)
             {
                 if (ze.getName().endsWith("MANIFEST.MF"))
                 {
+                    final long start = startPhase();
                     Map<String, String> versions = InventoryUtils.parseManifestForVersion(ze, zis);
                     if (versions != null)
                     {
-                        report.setAlfrescoVersion(versions.get(InventoryReport.IMPLEMENTATION_VERSION));
+                        versionConsumer.accept(versions.get(InventoryReport.IMPLEMENTATION_VERSION));
                     }
+                    recordPhase(InventoryStatistics.PHASE_MANIFEST, start);
                 }
-                Map<Resource.Type, Set<Resource>> resources = entryProcessor.processWarEntry(ze, zis);
-                report.addResources(resources);
+                pipeline.add(ze, zis);
 
                 zis.closeEntry();
                 ze = zis.getNextEntry();
             }
+            pipeline.finish();
+            recordPhase(InventoryStatistics.PHASE_ENTRIES, entriesStart);
             logger.info("War processing finished");
-
-            return report;
+            logCacheStatistics();
         }
-        catch (FileNotFoundException e)
+        catch (IOException e)
         {
-            logger.error("Failed opening file " + warPath, e);
-            throw new IllegalArgumentException("Failed to open file " + warPath, e);
+            logger.error("Failed reading web archive stream", e);
+            throw new RuntimeException("IO error while reading archive stream", e);
         }
-        catch (IOException e)
+    }
+
+    private long startPhase()
+    {
+        return inventoryStatistics == null ? 0 : inventoryStatistics.start();
+    }
+
+    private void recordPhase(String phase, long start)
+    {
+        if (inventoryStatistics != null)
         {
-            logger.error("Failed reading web archive " + warPath, e);
-            throw new RuntimeException("IO error while reading archive " + warPath, e);
+            inventoryStatistics.record(phase, start);
         }
     }
 
-    public void generateInventoryReport(final String warPath, final InventoryOutput output)
+    private void logCacheStatistics()
     {
-        InventoryReport report = extractInventoryReport(warPath);
-        output.generateOutput(report);
+        if (libraryInventoryCache != null && libraryInventoryCache.isEnabled())
+        {
+            logger.info("Library inventory cache: " + libraryInventoryCache.getHits() + " hits, " +
+                        libraryInventoryCache.getMisses() + " misses");
+        }
     }
 }
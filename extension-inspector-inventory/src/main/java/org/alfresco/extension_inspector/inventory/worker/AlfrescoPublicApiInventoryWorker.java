@@ -16,37 +16,38 @@
 
 package org.alfresco.extension_inspector.inventory.worker;
 
-import static java.util.Arrays.stream;
 import static java.util.Collections.emptySet;
-import static java.util.Collections.unmodifiableSet;
-import static java.util.stream.Collectors.toCollection;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.util.Collection;
-import java.util.LinkedHashSet;
-import java.util.Objects;
+import java.nio.ByteBuffer;
 import java.util.Set;
-import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 
-import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.commons.ClassFileUtils;
+import org.alfresco.extension_inspector.commons.InventoryUtils;
 import org.alfresco.extension_inspector.model.Resource;
-import org.apache.bcel.classfile.AnnotationEntry;
-import org.apache.bcel.classfile.ClassParser;
-import org.apache.bcel.classfile.JavaClass;
-import org.apache.bcel.classfile.Method;
-import org.apache.bcel.generic.ObjectType;
+import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+/**
+ * Finds the classes annotated with {@code @AlfrescoPublicApi}, along with the Alfresco classes they use
+ * as method arguments and the Alfresco exceptions their methods throw.
+ * <p/>
+ * Only the class headers are read (with ASM, skipping the code, debug information and frames), as this
+ * worker processes every Alfresco class of the WAR. The classes whose constant pool does not reference
+ * the annotation are not parsed at all.
+ */
 @Component
 public class AlfrescoPublicApiInventoryWorker implements InventoryWorker
 {
+    private static final Set<String> ENTRY_SUFFIXES = Set.of(".class");
     private static final Logger LOG = LoggerFactory.getLogger(AlfrescoPublicApiInventoryWorker.class);
     private static final String ALFRESCO_SOURCE = "org/alfresco";
     private static final String ALFRESCO_PUBLIC_API_ANNOTATION = "Lorg/alfresco/api/AlfrescoPublicApi;";
+    private static final byte[] ALFRESCO_PUBLIC_API_ANNOTATION_UTF8 =
+        ClassFileUtils.toModifiedUtf8(ALFRESCO_PUBLIC_API_ANNOTATION);
+    private static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
 
     @Override
     public Set<Resource> processInternal(ZipEntry zipEntry, byte[] data, String definingObject)
@@ -55,32 +56,43 @@ public class AlfrescoPublicApiInventoryWorker implements InventoryWorker
         {
             return emptySet();
         }
-        ClassParser cp = new ClassParser(new ByteArrayInputStream(data), null);
+        return parseClass(data, 0, data.length);
+    }
+
+    @Override
+    public Set<Resource> processContent(ZipEntry zipEntry, EntryData data, String definingObject)
+    {
+        final ByteBuffer buffer = data.getBuffer();
+        if (buffer.hasArray())
+        {
+            return parseClass(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        // e.g. a class stored in a memory-mapped archive
+        final int length = buffer.remaining();
+        final byte[] classData = InventoryUtils.threadBuffer(length);
+        buffer.get(classData, 0, length);
+        return parseClass(classData, 0, length);
+    }
+
+    private Set<Resource> parseClass(byte[] data, int offset, int length)
+    {
+        // most classes are not annotated, and do not even reference the annotation in their constant pool
+        final String annotationType = getPublicAnnotationType();
+        if (!ClassFileUtils.mayContainUtf8Constant(data, offset, length,
+            ALFRESCO_PUBLIC_API_ANNOTATION.equals(annotationType) ?
+            ALFRESCO_PUBLIC_API_ANNOTATION_UTF8 :
+            ClassFileUtils.toModifiedUtf8(annotationType)))
+        {
+            return emptySet();
+        }
+
         try
         {
-            JavaClass jc = cp.parse();
-            AnnotationEntry[] aes = jc.getAnnotationEntries();
-            boolean isAlfrescoPublicApi = false;
-            boolean isDeprecated = false;
-            if (aes != null && aes.length > 0)
+            final PublicApiClassVisitor visitor = new PublicApiClassVisitor(annotationType);
+            new ClassReader(data, offset, length).accept(visitor, PARSING_OPTIONS);
+            if (visitor.isPublicApi())
             {
-                for (AnnotationEntry ae : aes)
-                {
-                    if (ae.getAnnotationType().equals(getPublicAnnotationType()))
-                    {
-                        isAlfrescoPublicApi = true;
-                    }
-                    if (ae.getAnnotationType().equals("Ljava/lang/Deprecated;"))
-                    {
-                        isDeprecated = true;
-                    }
-                }
-            }
-            if (isAlfrescoPublicApi)
-            {
-                Set<Resource> resources = new LinkedHashSet<>();
-                resources.add(new AlfrescoPublicApiResource(jc.getClassName(), isDeprecated));
-                resources.addAll(findImplicitAlfrescoPublicApis(jc));
+                Set<Resource> resources = visitor.getResources();
 
                 if (LOG.isTraceEnabled())
                 {
@@ -92,44 +104,14 @@ public class AlfrescoPublicApiInventoryWorker implements InventoryWorker
                 return resources;
             }
         }
-        catch (IOException e)
+        catch (RuntimeException e)
         {
-            LOG.error("Class parsing error: ", e.getMessage());
+            // ASM reports invalid (or unsupported) class files with unchecked exceptions
+            LOG.error("Class parsing error: " + e.getMessage());
         }
         return emptySet();
     }
 
-    private static Set<AlfrescoPublicApiResource> findImplicitAlfrescoPublicApis(JavaClass javaClass)
-    {
-        // Add to the AlfrescoPublicApi resources all Alfresco classes used as methods arguments in given javaClass
-        Set<AlfrescoPublicApiResource> methodArgs = stream(javaClass.getMethods())
-            .flatMap(method -> 
-                stream(method.getArgumentTypes())
-                    .filter(t -> t instanceof ObjectType)
-                    .map(t -> ((ObjectType) t).getClassName())
-                    .filter(classname -> classname.startsWith("org.alfresco.") || classname
-                        .startsWith("com.alfresco."))
-                    .map(classname -> new AlfrescoPublicApiResource(classname, false, true)))
-            .collect(toCollection(LinkedHashSet::new));
-
-        // Add to the AlfrescoPublicApi resources all Alfresco Exceptions thrown by the given javaClass's methods
-        Set<AlfrescoPublicApiResource> exceptions = stream(javaClass.getMethods())
-            .map(Method::getExceptionTable)
-            .filter(Objects::nonNull)
-            .flatMap(exceptionTable ->  stream(exceptionTable.getExceptionNames())
-                .filter(classname -> classname.startsWith("org.alfresco.") || 
-                    classname.startsWith("com.alfresco."))
-                .map(classname -> new AlfrescoPublicApiResource(classname, false, true)))
-            .collect(toCollection(LinkedHashSet::new));
-
-        LinkedHashSet<AlfrescoPublicApiResource> alfrescoPublicApiResources = 
-            Stream.of(methodArgs, exceptions)
-                .flatMap(Collection::stream)
-                .collect(toCollection(LinkedHashSet::new));
-
-        return unmodifiableSet(alfrescoPublicApiResources);
-    }
-
     public Resource.Type getType()
     {
         return Resource.Type.ALFRESCO_PUBLIC_API;
@@ -144,6 +126,12 @@ public class AlfrescoPublicApiInventoryWorker implements InventoryWorker
                entry.getName().startsWith(ALFRESCO_SOURCE);
     }
 
+    @Override
+    public Set<String> getEntrySuffixes()
+    {
+        return ENTRY_SUFFIXES;
+    }
+
     protected String getPublicAnnotationType()
     {
         return ALFRESCO_PUBLIC_API_ANNOTATION;
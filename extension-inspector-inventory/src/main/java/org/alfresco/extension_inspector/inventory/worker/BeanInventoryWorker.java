@@ -18,31 +18,48 @@ package org.alfresco.extension_inspector.inventory.worker;
 
 import static java.util.Collections.emptySet;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 
+import org.alfresco.extension_inspector.commons.InventoryUtils;
 import org.alfresco.extension_inspector.model.BeanResource;
 import org.alfresco.extension_inspector.model.Resource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 @Component
 public class BeanInventoryWorker implements InventoryWorker
 {
+    private static final Set<String> ENTRY_SUFFIXES = Set.of(".xml");
     private static final Logger LOG = LoggerFactory.getLogger(BeanInventoryWorker.class);
 
+    /**
+     * StAX factories are not guaranteed to be thread safe, so each thread reuses its own.
+     */
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY =
+        ThreadLocal.withInitial(BeanInventoryWorker::newXmlInputFactory);
+
     @Override
     public Set<Resource> processInternal(ZipEntry zipEntry, byte[] data, String definingObject)
+    {
+        return processXmlFile(zipEntry, data == null ? null : new ByteArrayInputStream(data), definingObject);
+    }
+
+    @Override
+    public Set<Resource> processContent(ZipEntry zipEntry, EntryData data, String definingObject)
+    {
+        return processXmlFile(zipEntry, InventoryUtils.newInputStream(data.getBuffer()), definingObject);
+    }
+
+    private Set<Resource> processXmlFile(ZipEntry zipEntry, InputStream data, String definingObject)
     {
         String filename = zipEntry.getName();
 
@@ -76,10 +93,19 @@ public class BeanInventoryWorker implements InventoryWorker
             && entry.getName().toLowerCase().endsWith(".xml");
     }
 
+    @Override
+    public Set<String> getEntrySuffixes()
+    {
+        return ENTRY_SUFFIXES;
+    }
+
     /**
      * Analyses a .xml file, looking for Alfresco beans
+     * <p/>
+     * The file is streamed and only the top level {@code <bean>} elements of {@code <beans>} are looked
+     * at. The whole file is still read, so that malformed files are ignored as a whole.
      *
-     * @param xmlData the content of the .xml file
+     * @param xmlData a stream reading the content of the .xml file
      * @param filename the name of the .xml file
      * @param definingObject the name of the parent of the .xml file (e.g. the .jar)
      *
@@ -87,88 +113,126 @@ public class BeanInventoryWorker implements InventoryWorker
      *
      * @throws Exception
      */
-    private Set<Resource> analyseXmlFile(byte[] xmlData, String filename, String definingObject)
+    private Set<Resource> analyseXmlFile(InputStream xmlData, String filename, String definingObject)
         throws Exception
     {
-        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-        DocumentBuilder db = dbf.newDocumentBuilder();
-        Document doc = db.parse(new ByteArrayInputStream(xmlData));
+        if (definingObject.startsWith("alfresco/subsystems/"))
+        {
+            return emptySet();
+        }
 
-        if (doc.getDocumentElement().getNodeName().equals("beans"))
+        XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(xmlData);
+        try
         {
-            if (!definingObject.startsWith("alfresco/subsystems/"))
+            Set<Resource> foundBeans = emptySet();
+            int depth = 0;
+            while (reader.hasNext())
             {
-                return findBeans(doc.getDocumentElement(), filename, definingObject);
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT)
+                {
+                    depth++;
+                    if (depth == 1)
+                    {
+                        if (!reader.getLocalName().equals("beans"))
+                        {
+                            return emptySet();
+                        }
+                        foundBeans = new LinkedHashSet<>();
+                    }
+                    else if (depth == 2 && reader.getLocalName().equals("bean"))
+                    {
+                        addBean(reader, filename, definingObject, foundBeans);
+                    }
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT)
+                {
+                    depth--;
+                }
             }
+            return foundBeans;
+        }
+        finally
+        {
+            reader.close();
         }
-        return emptySet();
     }
 
     /**
-     * Builds a set of Alfresco {@link BeanResource} objects that are present in the pr
+     * Adds the Alfresco {@link BeanResource} defined by a {@code <bean>} element
      *
-     * @param docElem the 'beans' tag in the .xml file
+     * @param reader the reader, positioned on the 'bean' tag in the .xml file
      * @param filename the .xml filename
      * @param definingObject the name of the parent of the .xml file (e.g. the .jar)
-     *
-     * @return a set of {@link BeanResource} found in the .xml file
+     * @param foundBeans the beans found so far in the .xml file
      */
-    private Set<Resource> findBeans(Element docElem, String filename, String definingObject)
+    private void addBean(XMLStreamReader reader, String filename, String definingObject, Set<Resource> foundBeans)
     {
-        final Set<Resource> foundBeans = new LinkedHashSet<>();
+        String beanId = getAttribute(reader, "id");
+        String beanName = getAttribute(reader, "name");
+        String beanClass = getAttribute(reader, "class");
 
-        NodeList nodeList = docElem.getChildNodes();
-        for (int i = 0; i < nodeList.getLength(); i++)
+        // If the bean does not have an id, use the name
+        if (beanId == null || beanId.trim().length() == 0)
         {
-            Node node = nodeList.item(i);
-            if (node instanceof Element)
-            {
-                Element elem = (Element) node;
-                if (elem.getTagName().equals("bean"))
-                {
-                    String beanId = elem.getAttribute("id");
-                    String beanName = elem.getAttribute("name");
-                    String beanClass = elem.getAttribute("class");
+            beanId = beanName;
+        }
 
-                    // If the bean does not have an id, use the name
-                    if (beanId == null || beanId.trim().length() == 0)
-                    {
-                        beanId = beanName;
-                    }
+        // If the bean does not have an id or a name, use the class
+        if (beanId == null || beanId.trim().length() == 0)
+        {
+            if (LOG.isTraceEnabled())
+            {
+                LOG.trace("Found anonymous bean in XML resource " + definingObject);
+                LOG.trace("Falling back and setting the id as the class: " + beanClass);
+            }
 
-                    // If the bean does not have an id or a name, use the class
-                    if (beanId == null || beanId.trim().length() == 0)
-                    {
-                        if (LOG.isTraceEnabled())
-                        {
-                            LOG.trace("Found anonymous bean in XML resource " + definingObject);
-                            LOG.trace("Falling back and setting the id as the class: " + beanClass);
-                        }
+            // The code might find beans that have none of the id/name/class defined. Tough luck
+            // The parent tag might be present and could be used.
 
-                        // The code might find beans that have none of the id/name/class defined. Tough luck
-                        // The parent tag might be present and could be used.
+            beanId = beanClass;
+        }
 
-                        beanId = beanClass;
-                    }
+        // Anonymous beans will not be added to the report.
+        if (beanId != null && !beanId.isEmpty())
+        {
+            BeanResource beanResource = new BeanResource(
+                beanId,
+                definingObject.endsWith("jar") ? filename + "@" + definingObject : filename,
+                beanClass);
+            foundBeans.add(beanResource);
 
-                    // Anonymous beans will not be added to the report.
-                    if (beanId != null && !beanId.isEmpty())
-                    {
-                        BeanResource beanResource = new BeanResource(
-                            beanId,
-                            definingObject.endsWith("jar") ? filename + "@" + definingObject : filename,
-                            beanClass);
-                        foundBeans.add(beanResource);
+            if (LOG.isTraceEnabled())
+            {
+                LOG.trace("Added bean: " + beanId + " found in file: " + filename + " parent: " + definingObject);
+            }
+        }
+    }
 
-                        if (LOG.isTraceEnabled())
-                        {
-                            LOG.trace("Added bean: " + beanId + " found in file: " + filename + " parent: " + definingObject);
-                        }
-                    }
-                }
+    /**
+     * @return the value of the (unprefixed) attribute, or an empty string if the element does not have it
+     */
+    private static String getAttribute(XMLStreamReader reader, String name)
+    {
+        for (int i = 0; i < reader.getAttributeCount(); i++)
+        {
+            String prefix = reader.getAttributePrefix(i);
+            if ((prefix == null || prefix.isEmpty()) && reader.getAttributeLocalName(i).equals(name))
+            {
+                return reader.getAttributeValue(i);
             }
         }
+        return "";
+    }
 
-        return foundBeans;
+    private static XMLInputFactory newXmlInputFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // element and attribute names are matched as written (e.g. "bean", not "p:bean")
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        // external DTDs and entities are never loaded, so parsing never blocks on their resolution
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setXMLResolver((publicId, systemId, baseUri, namespace) -> new ByteArrayInputStream(new byte[0]));
+        return factory;
     }
 }
@@ -35,7 +35,13 @@ public class ClasspathElementInventoryWorker implements InventoryWorker
     @Override
     public Set<Resource> processInternal(ZipEntry zipEntry, byte[] data, String definingObject)
     {
-        return processInternal(zipEntry, definingObject);
+        return singleton(newResource(zipEntry, definingObject));
+    }
+
+    @Override
+    public void processEntry(ZipEntry zipEntry, EntryData data, String definingObject, ResourceSink sink)
+    {
+        sink.add(newResource(zipEntry, definingObject));
     }
 
     @Override
@@ -54,13 +60,19 @@ public class ClasspathElementInventoryWorker implements InventoryWorker
                 || isFromJar(entry, definingObject));
     }
 
-    private Set<Resource> processInternal(ZipEntry zipEntry, String definingObject)
+    @Override
+    public boolean isDataRequired()
+    {
+        return false;
+    }
+
+    private static Resource newResource(ZipEntry zipEntry, String definingObject)
     {
         String resourceName = zipEntry.getName();
         if (resourceName.startsWith(WEB_INF_CLASSES))
         {
             resourceName = resourceName.substring(WEB_INF_CLASSES.length());
         }
-        return singleton(new ClasspathElementResource("/" + resourceName, "/" + definingObject));
+        return new ClasspathElementResource("/" + resourceName, "/" + definingObject);
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.worker;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import org.apache.commons.io.function.IOSupplier;
+
+/**
+ * The content of an archive entry, read on demand.
+ * <p/>
+ * The content is read (and inflated) at most once, the first time {@link #get()} or {@link #getBuffer()}
+ * is called. If none of the {@link InventoryWorker}s that process the entry need its content, the entry
+ * is never read. Instances are not thread safe and are meant to be used by the thread processing the
+ * entry only.
+ * <p/>
+ * The content may be read into a transient buffer (see {@link #lazyBuffer(IOSupplier)}), in which case
+ * it is only copied into an array for the workers that need one.
+ */
+public final class EntryData
+{
+    private IOSupplier<ByteBuffer> reader;
+    private final boolean transientBuffer;
+    private ByteBuffer buffer;
+    private byte[] data;
+
+    private EntryData(IOSupplier<ByteBuffer> reader, boolean transientBuffer, byte[] data)
+    {
+        this.reader = reader;
+        this.transientBuffer = transientBuffer;
+        this.data = data;
+        this.buffer = data == null ? null : ByteBuffer.wrap(data);
+    }
+
+    /**
+     * @param reader reads the content of the entry
+     * @return an {@link EntryData} that reads the content only when first needed
+     */
+    public static EntryData lazy(IOSupplier<byte[]> reader)
+    {
+        return new EntryData(() -> ByteBuffer.wrap(reader.get()), false, null);
+    }
+
+    /**
+     * @param reader reads the content of the entry into a transient buffer, e.g. with
+     * {@link org.alfresco.extension_inspector.commons.InventoryUtils#extractToBuffer}; the buffer has
+     * to stay valid while the entry is processed
+     * @return an {@link EntryData} that reads the content only when first needed
+     */
+    public static EntryData lazyBuffer(IOSupplier<ByteBuffer> reader)
+    {
+        return new EntryData(reader, true, null);
+    }
+
+    /**
+     * @param data the already read content of the entry
+     * @return an {@link EntryData} holding the given content
+     */
+    public static EntryData of(byte[] data)
+    {
+        return new EntryData(null, false, data);
+    }
+
+    /**
+     * @return the content of the entry
+     * @throws UncheckedIOException if the content cannot be read
+     */
+    public byte[] get()
+    {
+        if (data == null)
+        {
+            final ByteBuffer content = read();
+            if (!transientBuffer && content.hasArray() && content.arrayOffset() == 0 &&
+                content.position() == 0 && content.limit() == content.array().length)
+            {
+                data = content.array();
+            }
+            else
+            {
+                data = new byte[content.remaining()];
+                content.duplicate().get(data);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return a view of the content of the entry, that must not be modified and is only valid while the
+     * entry is processed
+     * @throws UncheckedIOException if the content cannot be read
+     */
+    public ByteBuffer getBuffer()
+    {
+        return read().duplicate();
+    }
+
+    /**
+     * @return whether the content has already been read
+     */
+    public boolean isRead()
+    {
+        return reader == null;
+    }
+
+    private ByteBuffer read()
+    {
+        if (reader != null)
+        {
+            try
+            {
+                buffer = reader.get();
+                reader = null;
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return buffer;
+    }
+}
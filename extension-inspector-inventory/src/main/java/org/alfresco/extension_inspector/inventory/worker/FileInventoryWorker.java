@@ -32,7 +32,18 @@ public class FileInventoryWorker implements InventoryWorker
     @Override
     public Set<Resource> processInternal(ZipEntry zipEntry, byte[] data, String definingObject)
     {
-        return singleton(new FileResource("/" + zipEntry.getName(), "/" + definingObject));
+        return singleton(newResource(zipEntry, definingObject));
+    }
+
+    @Override
+    public void processEntry(ZipEntry zipEntry, EntryData data, String definingObject, ResourceSink sink)
+    {
+        sink.add(newResource(zipEntry, definingObject));
+    }
+
+    private static Resource newResource(ZipEntry zipEntry, String definingObject)
+    {
+        return new FileResource("/" + zipEntry.getName(), "/" + definingObject);
     }
 
     @Override
@@ -46,4 +57,10 @@ public class FileInventoryWorker implements InventoryWorker
     {
         return !(entry == null || entry.isDirectory() || isFromJar(entry, definingObject));
     }
+
+    @Override
+    public boolean isDataRequired()
+    {
+        return false;
+    }
 }
@@ -38,9 +38,51 @@ public interface InventoryWorker
         return emptySet();
     }
 
+    /**
+     * Processes an entry that can be processed, with its content. By default, the content is read
+     * into an array for {@link #processInternal}; workers that can read it from a buffer view (see
+     * {@link EntryData#getBuffer()}) should override this, so the content is not copied.
+     */
+    default Set<Resource> processContent(ZipEntry entry, EntryData data, String definingObject)
+    {
+        return processInternal(entry, data.get(), definingObject);
+    }
+
+    /**
+     * Processes an entry that can be processed (see {@link #canProcessEntry}), adding the resources found to
+     * the given sink. By default, they are collected with {@link #processContent} (or {@link #processInternal},
+     * if the content is not needed); workers finding a single resource per entry should override this, so no
+     * set is created for each entry.
+     */
+    default void processEntry(ZipEntry entry, EntryData data, String definingObject, ResourceSink sink)
+    {
+        sink.addAll(isDataRequired() ?
+                    processContent(entry, data, definingObject) :
+                    processInternal(entry, null, definingObject));
+    }
+
     Set<Resource> processInternal(ZipEntry entry, byte[] data, String definingObject);
 
     Resource.Type getType();
 
     boolean canProcessEntry(ZipEntry entry, String definingObject);
+
+    /**
+     * @return the (case insensitive) suffixes of the entries this worker can process, e.g. ".class", so
+     * that it is not offered other entries, or an empty set if it may process any entry.
+     * {@link #canProcessEntry} is still checked for the entries with these suffixes.
+     */
+    default Set<String> getEntrySuffixes()
+    {
+        return emptySet();
+    }
+
+    /**
+     * @return whether {@link #processInternal} uses the content of the entry. Workers that only look at
+     * the entry (e.g. its name) should return false, so entries are not inflated for them.
+     */
+    default boolean isDataRequired()
+    {
+        return true;
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.worker;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.Resource;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Collects what {@link AlfrescoPublicApiInventoryWorker} needs from a class header: the class annotations
+ * and, for the classes annotated as public API, the Alfresco classes used as method arguments or thrown
+ * by the methods. Method bodies are never visited, so the class should be read with
+ * {@code SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES}.
+ */
+class PublicApiClassVisitor extends ClassVisitor
+{
+    private static final String DEPRECATED_ANNOTATION = "Ljava/lang/Deprecated;";
+
+    private final String publicApiAnnotation;
+
+    private String className;
+    private boolean publicApi;
+    private boolean deprecated;
+    private final Set<AlfrescoPublicApiResource> methodArgs = new LinkedHashSet<>();
+    private final Set<AlfrescoPublicApiResource> exceptions = new LinkedHashSet<>();
+
+    PublicApiClassVisitor(String publicApiAnnotation)
+    {
+        super(Opcodes.ASM9);
+        this.publicApiAnnotation = publicApiAnnotation;
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName,
+        String[] interfaces)
+    {
+        className = Type.getObjectType(name).getClassName();
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible)
+    {
+        // both visible and invisible annotations, as BCEL's JavaClass.getAnnotationEntries() did
+        if (descriptor.equals(publicApiAnnotation))
+        {
+            publicApi = true;
+        }
+        if (descriptor.equals(DEPRECATED_ANNOTATION))
+        {
+            deprecated = true;
+        }
+        return null;
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+        String[] exceptionNames)
+    {
+        // the class annotations are visited before the methods
+        if (!publicApi)
+        {
+            return null;
+        }
+        for (Type argumentType : Type.getArgumentTypes(descriptor))
+        {
+            if (argumentType.getSort() == Type.OBJECT && isAlfrescoClass(argumentType.getClassName()))
+            {
+                methodArgs.add(new AlfrescoPublicApiResource(argumentType.getClassName(), false, true));
+            }
+        }
+        if (exceptionNames != null)
+        {
+            for (String exceptionName : exceptionNames)
+            {
+                final String exceptionClassName = Type.getObjectType(exceptionName).getClassName();
+                if (isAlfrescoClass(exceptionClassName))
+                {
+                    exceptions.add(new AlfrescoPublicApiResource(exceptionClassName, false, true));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAlfrescoClass(String className)
+    {
+        return className.startsWith("org.alfresco.") || className.startsWith("com.alfresco.");
+    }
+
+    /**
+     * @return whether the class is annotated as Alfresco public API
+     */
+    boolean isPublicApi()
+    {
+        return publicApi;
+    }
+
+    /**
+     * @return the public API resources found in the class: the class itself, then the Alfresco classes
+     * used as method arguments and the Alfresco exceptions thrown by its methods
+     */
+    Set<Resource> getResources()
+    {
+        final Set<Resource> resources = new LinkedHashSet<>();
+        if (publicApi)
+        {
+            resources.add(new AlfrescoPublicApiResource(className, deprecated));
+            resources.addAll(methodArgs);
+            resources.addAll(exceptions);
+        }
+        return resources;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory.worker;
+
+import java.util.Collection;
+
+import org.alfresco.extension_inspector.model.Resource;
+
+/**
+ * Receives the resources found by the {@link InventoryWorker}s, e.g. to add them to the report or to
+ * spool them to the report file.
+ * <p/>
+ * Implementations are not required to be thread safe: unless stated otherwise, a sink is only written by
+ * one thread at a time. Duplicates of the resources already added are ignored.
+ */
+public interface ResourceSink
+{
+    /**
+     * @param resource a resource found, added to the resources of its type
+     */
+    void add(Resource resource);
+
+    /**
+     * @param resources resources found, in order
+     */
+    default void addAll(Collection<? extends Resource> resources)
+    {
+        for (Resource resource : resources)
+        {
+            add(resource);
+        }
+    }
+
+    /**
+     * Declares a type of resources that the workers look for, so that the result has an entry for it even if
+     * no such resource is found.
+     *
+     * @param type the type of resources
+     */
+    void expectType(Resource.Type type);
+}
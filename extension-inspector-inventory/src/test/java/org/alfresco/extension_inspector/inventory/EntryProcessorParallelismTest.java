@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.alfresco.extension_inspector.inventory.worker.AlfrescoPublicApiInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.BeanInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.ClasspathElementInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.FileInventoryWorker;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class EntryProcessorParallelismTest
+{
+    private static final String BEANS = "<beans><bean id=\"bean%d\" class=\"org.alfresco.Bean%d\"/></beans>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testParallelProcessingMatchesSequentialProcessing() throws IOException
+    {
+        final Path warPath = createWar(tempDir.resolve("test.war"));
+
+        try (ZipFile war = new ZipFile(warPath.toFile()))
+        {
+            final List<? extends ZipEntry> entries = Collections.list(war.entries());
+
+            final InventoryReport sequential = report(entryProcessor(1).processWarFileEntries(war, entries));
+            final InventoryReport parallel = report(entryProcessor(4).processWarFileEntries(war, entries));
+
+            assertFalse(sequential.getResources().get(Resource.Type.BEAN).isEmpty());
+            assertEquals(sequential, parallel);
+            // compare the iteration order as well, as the report is written in that order
+            assertEquals(sequential.getResources().toString(), parallel.getResources().toString());
+        }
+    }
+
+    private static InventoryReport report(Map<Resource.Type, Set<Resource>> resources)
+    {
+        final InventoryReport report = new InventoryReport();
+        report.addResources(resources);
+        return report;
+    }
+
+    private static EntryProcessor entryProcessor(int parallelism)
+    {
+        final EntryProcessor entryProcessor = new EntryProcessor();
+        ReflectionTestUtils.setField(entryProcessor, "inventoryWorkers", List.of(
+            new FileInventoryWorker(),
+            new BeanInventoryWorker(),
+            new AlfrescoPublicApiInventoryWorker(),
+            new ClasspathElementInventoryWorker()));
+        ReflectionTestUtils.setField(entryProcessor, "parallelism", parallelism);
+        return entryProcessor;
+    }
+
+    private static Path createWar(Path warPath) throws IOException
+    {
+        try (ZipOutputStream war = new ZipOutputStream(new FileOutputStream(warPath.toFile())))
+        {
+            addEntry(war, "index.jsp", "<html/>".getBytes(UTF_8));
+            addEntry(war, "WEB-INF/classes/alfresco/context.xml", String.format(BEANS, 0, 0).getBytes(UTF_8));
+            for (int i = 1; i <= 20; i++)
+            {
+                addEntry(war, "WEB-INF/lib/library-" + i + ".jar", createJar(i));
+            }
+        }
+        return warPath;
+    }
+
+    private static byte[] createJar(int index) throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream jar = new ZipOutputStream(bos))
+        {
+            addEntry(jar, "alfresco/context-" + index + ".xml", String.format(BEANS, index, index).getBytes(UTF_8));
+            for (int i = 0; i < 50; i++)
+            {
+                addEntry(jar, "org/library" + index + "/Class" + i + ".class", new byte[] {(byte) i});
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static void addEntry(ZipOutputStream zos, String name, byte[] data) throws IOException
+    {
+        zos.putNextEntry(new ZipEntry(name));
+        zos.write(data);
+        zos.closeEntry();
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.alfresco.extension_inspector.inventory.worker.AlfrescoPublicApiInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.BeanInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.ClasspathElementInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.FileInventoryWorker;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ExplodedWarTest
+{
+    private static final String BEANS = "<beans><bean id=\"bean%d\" class=\"org.alfresco.Bean%d\"/></beans>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testScan() throws IOException
+    {
+        final Path root = createExplodedWar(tempDir.resolve("alfresco"));
+        assertTrue(ExplodedWar.isExplodedWar(root));
+        assertFalse(ExplodedWar.isExplodedWar(tempDir));
+
+        final ExplodedWar sequential = ExplodedWar.scan(root, null);
+        final List<String> names = sequential.getEntries().stream().map(ZipEntry::getName).collect(toList());
+        assertEquals(names.stream().sorted().collect(toList()), names);
+        assertTrue(names.contains("WEB-INF/classes/alfresco/context.xml"));
+        assertFalse(names.contains("WEB-INF/classes/"));
+        assertEquals(Files.size(root.resolve("index.jsp")), sequential.getEntries().get(names.indexOf("index.jsp")).getSize());
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            assertEquals(names, ExplodedWar.scan(root, pool).getEntries().stream().map(ZipEntry::getName)
+                .collect(toList()));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testExplodedWarInventoryMatchesArchiveInventory() throws IOException
+    {
+        final Path root = createExplodedWar(tempDir.resolve("alfresco"));
+        final Path warPath = zip(root, tempDir.resolve("alfresco.war"));
+
+        for (int parallelism : new int[] {1, 4})
+        {
+            final EntryProcessor entryProcessor = entryProcessor(parallelism);
+            final InventoryReport exploded = report(
+                entryProcessor.processWarDirectoryEntries(entryProcessor.scanWarDirectory(root)));
+            final InventoryReport archive;
+            try (ZipFile war = new ZipFile(warPath.toFile()))
+            {
+                archive = report(entryProcessor.processWarFileEntries(war, war.stream().collect(toList())));
+            }
+            entryProcessor.shutdown();
+
+            assertFalse(exploded.getResources().get(Resource.Type.BEAN).isEmpty());
+            assertEquals(archive, exploded);
+            // the entries of the archive are in the order of their names, so the report is the same
+            assertEquals(archive.getResources().toString(), exploded.getResources().toString());
+        }
+    }
+
+    private static InventoryReport report(Map<Resource.Type, Set<Resource>> resources)
+    {
+        final InventoryReport report = new InventoryReport();
+        report.addResources(resources);
+        return report;
+    }
+
+    private static EntryProcessor entryProcessor(int parallelism)
+    {
+        final EntryProcessor entryProcessor = new EntryProcessor();
+        ReflectionTestUtils.setField(entryProcessor, "inventoryWorkers", List.of(
+            new FileInventoryWorker(),
+            new BeanInventoryWorker(),
+            new AlfrescoPublicApiInventoryWorker(),
+            new ClasspathElementInventoryWorker()));
+        ReflectionTestUtils.setField(entryProcessor, "parallelism", parallelism);
+        return entryProcessor;
+    }
+
+    private static Path createExplodedWar(Path root) throws IOException
+    {
+        write(root.resolve("index.jsp"), "<html/>".getBytes(UTF_8));
+        write(root.resolve("META-INF/MANIFEST.MF"), "Manifest-Version: 1.0\n".getBytes(UTF_8));
+        write(root.resolve("WEB-INF/classes/alfresco/context.xml"), String.format(BEANS, 0, 0).getBytes(UTF_8));
+        Files.createDirectories(root.resolve("WEB-INF/classes/empty"));
+        for (int i = 1; i <= 10; i++)
+        {
+            write(root.resolve("WEB-INF/lib/library-" + i + ".jar"), createJar(i));
+        }
+        return root;
+    }
+
+    private static Path zip(Path root, Path warPath) throws IOException
+    {
+        try (ZipOutputStream war = new ZipOutputStream(Files.newOutputStream(warPath));
+             Stream<Path> files = Files.walk(root))
+        {
+            for (Path file : files.filter(Files::isRegularFile)
+                .sorted((a, b) -> name(root, a).compareTo(name(root, b))).collect(toList()))
+            {
+                addEntry(war, name(root, file), Files.readAllBytes(file));
+            }
+        }
+        return warPath;
+    }
+
+    private static String name(Path root, Path file)
+    {
+        return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private static void write(Path file, byte[] data) throws IOException
+    {
+        Files.createDirectories(file.getParent());
+        Files.write(file, data);
+    }
+
+    private static byte[] createJar(int index) throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream jar = new ZipOutputStream(bos))
+        {
+            addEntry(jar, "alfresco/context-" + index + ".xml", String.format(BEANS, index, index).getBytes(UTF_8));
+            for (int i = 0; i < 20; i++)
+            {
+                addEntry(jar, "org/library" + index + "/Class" + i + ".class", new byte[] {(byte) i});
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static void addEntry(ZipOutputStream zos, String name, byte[] data) throws IOException
+    {
+        zos.putNextEntry(new ZipEntry(name));
+        zos.write(data);
+        zos.closeEntry();
+    }
+}
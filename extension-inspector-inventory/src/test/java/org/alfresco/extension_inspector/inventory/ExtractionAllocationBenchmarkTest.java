@@ -0,0 +1,190 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.alfresco.extension_inspector.commons.InventoryUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks the pooled extraction of the entries of a library, and compares the memory it allocates with a
+ * plain {@link java.io.InputStream#readAllBytes()} of each entry.
+ * <p/>
+ * The allocation counts depend on the JVM and its garbage collector, so their comparison only runs when the
+ * {@code inventory.benchmark} system property is {@code true} (e.g. {@code mvn test -Dinventory.benchmark=true}).
+ */
+public class ExtractionAllocationBenchmarkTest
+{
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionAllocationBenchmarkTest.class);
+    private static final int ENTRIES = 2000;
+    private static final int ITERATIONS = 5;
+
+    private static byte[] library;
+
+    @BeforeAll
+    public static void setUp() throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos))
+        {
+            for (int i = 0; i < ENTRIES; i++)
+            {
+                zos.putNextEntry(new ZipEntry("org/alfresco/Class" + i + ".class"));
+                zos.write(content(i));
+                zos.closeEntry();
+            }
+        }
+        library = bos.toByteArray();
+    }
+
+    @Test
+    public void testExtractToBufferReadsTheEntries() throws IOException
+    {
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(library)))
+        {
+            ZipEntry entry;
+            int i = 0;
+            while ((entry = zis.getNextEntry()) != null)
+            {
+                // the size of the entries is unknown while streaming, and known from the central directory
+                final ByteBuffer content = InventoryUtils.extractToBuffer(zis, i % 2 == 0 ? -1 : content(i).length);
+                assertArrayEquals(content(i), toArray(content), entry.getName());
+                i++;
+            }
+            assertEquals(ENTRIES, i);
+        }
+
+        final ZipCentralDirectory directory = ZipCentralDirectory.parse(ByteBuffer.wrap(library));
+        int i = 0;
+        for (ZipCentralDirectory.Entry entry : directory.getEntries())
+        {
+            assertArrayEquals(content(i++), toArray(directory.readToBuffer(entry)), entry.getName());
+        }
+        assertEquals(ENTRIES, i);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "inventory.benchmark", matches = "true")
+    public void testStreamExtractionAllocatesLess() throws IOException
+    {
+        final long before = measure(() -> readLibrary(false));
+        final long after = measure(() -> readLibrary(true));
+
+        logger.info("Extracting {} entries through ZipInputStream: {} bytes allocated before, {} after",
+            ENTRIES, before, after);
+        assertTrue(after < before, "Expected less than " + before + " bytes, but was " + after);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "inventory.benchmark", matches = "true")
+    public void testCentralDirectoryExtractionAllocatesLess() throws IOException
+    {
+        final ZipCentralDirectory directory = ZipCentralDirectory.parse(ByteBuffer.wrap(library));
+        final long before = measure(() -> {
+            long total = 0;
+            for (ZipCentralDirectory.Entry entry : directory.getEntries())
+            {
+                total += directory.read(entry).length;
+            }
+            return total;
+        });
+        final long after = measure(() -> {
+            long total = 0;
+            for (ZipCentralDirectory.Entry entry : directory.getEntries())
+            {
+                total += directory.readToBuffer(entry).remaining();
+            }
+            return total;
+        });
+
+        logger.info("Extracting {} entries through the central directory: {} bytes allocated before, {} after",
+            ENTRIES, before, after);
+        assertTrue(after < before, "Expected less than " + before + " bytes, but was " + after);
+    }
+
+    private static byte[] content(int i)
+    {
+        return ("content of entry " + i + ";").repeat(50 + i % 400).getBytes(UTF_8);
+    }
+
+    private static byte[] toArray(ByteBuffer content)
+    {
+        final byte[] data = new byte[content.remaining()];
+        content.get(data);
+        return data;
+    }
+
+    private static long readLibrary(boolean pooled) throws IOException
+    {
+        long total = 0;
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(library)))
+        {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null)
+            {
+                total += pooled ?
+                         InventoryUtils.extractToBuffer(zis, entry.getSize()).remaining() :
+                         zis.readAllBytes().length;
+            }
+        }
+        return total;
+    }
+
+    private static long measure(Extraction extraction) throws IOException
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        // warm up, so that class loading and the thread buffers are not accounted for
+        final long expected = extraction.run();
+
+        final long threadId = Thread.currentThread().getId();
+        final long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            assertEquals(expected, extraction.run());
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - start) / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface Extraction
+    {
+        long run() throws IOException;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.alfresco.extension_inspector.inventory.worker.AlfrescoPublicApiInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.BeanInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.ClasspathElementInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.FileInventoryWorker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class InventoryStatisticsTest
+{
+    private static final byte[] BEANS = "<beans><bean id=\"bean\" class=\"org.alfresco.Bean\"/></beans>".getBytes(UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testWorkersStatistics() throws IOException
+    {
+        final InventoryStatistics statistics = new InventoryStatistics();
+        statistics.setEnabled(true);
+
+        final Map<?, ?> resources = process(createWar(tempDir.resolve("test.war")), statistics);
+        final Map<?, ?> expected = process(tempDir.resolve("test.war"), new InventoryStatistics());
+        // the statistics don't change the result
+        assertEquals(expected, resources);
+
+        final Map<String, Map<String, Map<String, Long>>> snapshot = statistics.toMap();
+        final Map<String, Long> classpathElements = snapshot.get("workers").get("ClasspathElementInventoryWorker");
+        // every entry is offered to the worker, but the library archive is not a classpath element itself
+        assertEquals(4, classpathElements.get("entriesSeen"));
+        assertEquals(3, classpathElements.get("entriesProcessed"));
+        assertEquals(0, classpathElements.get("bytesInflated"));
+
+        final Map<String, Long> beans = snapshot.get("workers").get("BeanInventoryWorker");
+        assertEquals(2, beans.get("entriesProcessed"));
+        assertEquals(2L * BEANS.length, beans.get("bytesInflated"));
+        assertTrue(beans.get("processNanos") > 0);
+    }
+
+    @Test
+    public void testNothingIsRecordedWhenDisabled() throws IOException
+    {
+        final InventoryStatistics statistics = new InventoryStatistics();
+        process(createWar(tempDir.resolve("test.war")), statistics);
+
+        final long start = statistics.start();
+        statistics.record(InventoryStatistics.PHASE_OUTPUT, start);
+
+        assertEquals(Map.of("workers", Map.of(), "phases", Map.of()), statistics.toMap());
+    }
+
+    @Test
+    public void testJsonDump() throws IOException
+    {
+        final InventoryStatistics statistics = new InventoryStatistics();
+        statistics.setEnabled(true);
+        statistics.record(InventoryStatistics.PHASE_MANIFEST, statistics.start());
+        statistics.record(InventoryStatistics.PHASE_MANIFEST, statistics.start());
+
+        final Path json = tempDir.resolve("stats.json");
+        statistics.writeJson(json);
+
+        final Map<?, ?> read = new ObjectMapper().readValue(Files.readAllBytes(json), Map.class);
+        assertEquals(2, ((Map<?, ?>) ((Map<?, ?>) read.get("phases")).get("manifest")).get("count"));
+
+        statistics.reset();
+        assertTrue(statistics.toMap().get("phases").isEmpty());
+    }
+
+    private static Map<?, ?> process(Path warPath, InventoryStatistics statistics) throws IOException
+    {
+        final EntryProcessor entryProcessor = new EntryProcessor();
+        ReflectionTestUtils.setField(entryProcessor, "inventoryWorkers", List.of(
+            new FileInventoryWorker(),
+            new BeanInventoryWorker(),
+            new AlfrescoPublicApiInventoryWorker(),
+            new ClasspathElementInventoryWorker()));
+        ReflectionTestUtils.setField(entryProcessor, "parallelism", 1);
+        ReflectionTestUtils.setField(entryProcessor, "inventoryStatistics", statistics);
+        try (ZipFile war = new ZipFile(warPath.toFile()))
+        {
+            return entryProcessor.processWarFileEntries(war, Collections.list(war.entries()));
+        }
+    }
+
+    private static Path createWar(Path warPath) throws IOException
+    {
+        final ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(jar))
+        {
+            addEntry(zos, "alfresco/library-context.xml", BEANS);
+            addEntry(zos, "org/alfresco/Library.class", new byte[] {0});
+        }
+        try (ZipOutputStream war = new ZipOutputStream(new FileOutputStream(warPath.toFile())))
+        {
+            addEntry(war, "WEB-INF/classes/alfresco/context.xml", BEANS);
+            addEntry(war, "WEB-INF/lib/library.jar", jar.toByteArray());
+        }
+        return warPath;
+    }
+
+    private static void addEntry(ZipOutputStream zos, String name, byte[] data) throws IOException
+    {
+        zos.putNextEntry(new ZipEntry(name));
+        zos.write(data);
+        zos.closeEntry();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.alfresco.extension_inspector.inventory.worker.AlfrescoPublicApiInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.BeanInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.ClasspathElementInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.FileInventoryWorker;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class LibraryInventoryCacheTest
+{
+    private static final String BEANS = "<beans><bean id=\"bean%d\" class=\"org.alfresco.Bean%d\"/></beans>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testCachedLibrariesProduceTheSameReport() throws IOException
+    {
+        final Path war = createWar(tempDir.resolve("alfresco-1.war"), "library-");
+        final InventoryReport expected = inventory(war, null);
+
+        final LibraryInventoryCache cache = cache();
+        final InventoryReport firstRun = inventory(war, cache);
+        assertEquals(0, cache.getHits());
+        assertEquals(5, cache.getMisses());
+
+        final InventoryReport secondRun = inventory(war, cache);
+        assertEquals(5, cache.getHits());
+        assertEquals(5, cache.getMisses());
+
+        assertTrue(expected.getResources().get(Resource.Type.BEAN).size() > 1);
+        for (InventoryReport report : List.of(firstRun, secondRun))
+        {
+            assertEquals(expected, report);
+            // the report is written in that order
+            assertEquals(expected.getResources().toString(), report.getResources().toString());
+        }
+    }
+
+    @Test
+    public void testCachedLibrariesAreReboundToTheirPath() throws IOException
+    {
+        final LibraryInventoryCache cache = cache();
+        inventory(createWar(tempDir.resolve("alfresco-1.war"), "library-"), cache);
+
+        final Path renamed = createWar(tempDir.resolve("alfresco-2.war"), "renamed-library-");
+        final InventoryReport report = inventory(renamed, cache);
+        assertEquals(5, cache.getHits());
+
+        final InventoryReport expected = inventory(renamed, null);
+        assertEquals(expected, report);
+        assertEquals(expected.getResources().toString(), report.getResources().toString());
+    }
+
+    @Test
+    public void testInvalidCacheEntriesAreIgnored() throws IOException
+    {
+        final Path war = createWar(tempDir.resolve("alfresco-1.war"), "library-");
+        final LibraryInventoryCache cache = cache();
+        inventory(war, cache);
+
+        try (Stream<Path> entries = Files.list(tempDir.resolve("cache")))
+        {
+            for (Path entry : entries.toList())
+            {
+                Files.write(entry, "not an inventory".getBytes(UTF_8));
+            }
+        }
+
+        assertEquals(inventory(war, null), inventory(war, cache));
+        assertEquals(0, cache.getHits());
+        assertEquals(10, cache.getMisses());
+    }
+
+    private LibraryInventoryCache cache()
+    {
+        final LibraryInventoryCache cache = new LibraryInventoryCache();
+        ReflectionTestUtils.setField(cache, "cacheDir", tempDir.resolve("cache").toString());
+        return cache;
+    }
+
+    private static InventoryReport inventory(Path warPath, LibraryInventoryCache cache) throws IOException
+    {
+        final EntryProcessor entryProcessor = new EntryProcessor();
+        ReflectionTestUtils.setField(entryProcessor, "inventoryWorkers", List.of(
+            new FileInventoryWorker(),
+            new BeanInventoryWorker(),
+            new AlfrescoPublicApiInventoryWorker(),
+            new ClasspathElementInventoryWorker()));
+        ReflectionTestUtils.setField(entryProcessor, "parallelism", 1);
+        ReflectionTestUtils.setField(entryProcessor, "libraryInventoryCache", cache);
+
+        final InventoryReport report = new InventoryReport();
+        try (ZipFile war = new ZipFile(warPath.toFile()))
+        {
+            entryProcessor.processWarFileEntries(war, Collections.list(war.entries()),
+                new SingleThreadedResourceSink(report.getResources()));
+        }
+        return report;
+    }
+
+    private static Path createWar(Path warPath, String libraryPrefix) throws IOException
+    {
+        try (ZipOutputStream war = new ZipOutputStream(new FileOutputStream(warPath.toFile())))
+        {
+            addEntry(war, "WEB-INF/classes/alfresco/context.xml", String.format(BEANS, 0, 0).getBytes(UTF_8));
+            for (int i = 1; i <= 5; i++)
+            {
+                addEntry(war, "WEB-INF/lib/" + libraryPrefix + i + ".jar", createJar(i));
+            }
+        }
+        return warPath;
+    }
+
+    private static byte[] createJar(int index) throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream jar = new ZipOutputStream(bos))
+        {
+            addEntry(jar, "alfresco/context-" + index + ".xml", String.format(BEANS, index, index).getBytes(UTF_8));
+            for (int i = 0; i < 10; i++)
+            {
+                addEntry(jar, "org/library" + index + "/Class" + i + ".class", new byte[] {(byte) i});
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static void addEntry(ZipOutputStream zos, String name, byte[] data) throws IOException
+    {
+        final ZipEntry entry = new ZipEntry(name);
+        // fixed times, so the libraries have the same content in each war
+        entry.setTime(0);
+        zos.putNextEntry(entry);
+        zos.write(data);
+        zos.closeEntry();
+    }
+}
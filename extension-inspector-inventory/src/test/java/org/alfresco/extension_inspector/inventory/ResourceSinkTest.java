@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.alfresco.extension_inspector.inventory.worker.ResourceSink;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+
+public class ResourceSinkTest
+{
+    @Test
+    public void testSingleThreadedSinkAddsToTheGivenMap()
+    {
+        final Set<Resource> files = new LinkedHashSet<>();
+        files.add(file("/a"));
+        final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        resources.put(Resource.Type.FILE, files);
+
+        final SingleThreadedResourceSink sink = new SingleThreadedResourceSink(resources);
+        sink.add(file("/b"));
+        sink.add(file("/a"));
+        sink.add(new BeanResource("bean", "context.xml", null));
+        sink.expectType(Resource.Type.CLASSPATH_ELEMENT);
+
+        assertSame(files, resources.get(Resource.Type.FILE));
+        assertEquals(List.of(file("/a"), file("/b")), new ArrayList<>(files));
+        assertEquals(1, resources.get(Resource.Type.BEAN).size());
+        assertTrue(resources.get(Resource.Type.CLASSPATH_ELEMENT).isEmpty());
+    }
+
+    @Test
+    public void testStripedSinkKeepsTheOrderOfTheTasks() throws Exception
+    {
+        final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        final StripedResourceSink sink = new StripedResourceSink(new SingleThreadedResourceSink(resources));
+        final List<ResourceSink> stripes = new ArrayList<>();
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        sink.add(file("/0"));
+        fork(sink, stripes, tasks);
+        sink.add(file("/2"));
+        fork(sink, stripes, tasks);
+
+        // the tasks complete in the reverse order
+        stripes.get(1).add(file("/3"));
+        tasks.get(1).complete(null);
+        sink.flush();
+        assertEquals(List.of(file("/0")), new ArrayList<>(resources.get(Resource.Type.FILE)));
+
+        stripes.get(0).add(file("/1"));
+        tasks.get(0).complete(null);
+        sink.finish();
+        assertEquals(List.of(file("/0"), file("/1"), file("/2"), file("/3")),
+            new ArrayList<>(resources.get(Resource.Type.FILE)));
+    }
+
+    @Test
+    public void testStripedSinkFailure()
+    {
+        final StripedResourceSink sink = new StripedResourceSink(
+            new SingleThreadedResourceSink(new EnumMap<>(Resource.Type.class)));
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        fork(sink, new ArrayList<>(), tasks);
+        fork(sink, new ArrayList<>(), tasks);
+
+        tasks.get(0).completeExceptionally(new IllegalStateException());
+        assertThrows(ExecutionException.class, sink::finish);
+
+        sink.cancel();
+        assertTrue(tasks.get(1).isCancelled());
+    }
+
+    private static void fork(StripedResourceSink sink, List<ResourceSink> stripes, List<CompletableFuture<Void>> tasks)
+    {
+        sink.fork(stripe -> {
+            final CompletableFuture<Void> task = new CompletableFuture<>();
+            stripes.add(stripe);
+            tasks.add(task);
+            return task;
+        });
+    }
+
+    private static Resource file(String id)
+    {
+        return new FileResource(id, id);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ResourceTest
+{
+    private static final String LIBRARY = "/WEB-INF/lib/alfresco-repository.jar";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testJsonRoundTrip() throws Exception
+    {
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion("7.0.0");
+        report.addResources(Map.of(
+            Resource.Type.FILE, set(new FileResource("/index.jsp", "/index.jsp")),
+            Resource.Type.BEAN, set(new BeanResource("bean", "context.xml@" + LIBRARY, "org.alfresco.Bean")),
+            Resource.Type.ALFRESCO_PUBLIC_API, set(new AlfrescoPublicApiResource("org.alfresco.Api", true)),
+            Resource.Type.CLASSPATH_ELEMENT, set(
+                new ClasspathElementResource("org/alfresco/A.class", LIBRARY),
+                new ClasspathElementResource("org/alfresco/B.class", LIBRARY))));
+
+        final String json = objectMapper.writeValueAsString(report);
+        // the type is not a field anymore, but is still written first
+        assertTrue(json.contains("{\"type\":\"CLASSPATH_ELEMENT\",\"id\":\"org/alfresco/A.class\",\"definingObject\""),
+            json);
+
+        final InventoryReport read = objectMapper.readValue(json, InventoryReport.class);
+        assertEquals(report, read);
+        for (Resource.Type type : Resource.Type.values())
+        {
+            read.getResources().get(type).forEach(resource -> assertEquals(type, resource.getType()));
+        }
+    }
+
+    @Test
+    public void testDefiningObjectsAreShared() throws Exception
+    {
+        final String json = "[" +
+            "{\"type\":\"CLASSPATH_ELEMENT\",\"id\":\"org/alfresco/A.class\",\"definingObject\":\"" + LIBRARY + "\"}," +
+            "{\"type\":\"CLASSPATH_ELEMENT\",\"id\":\"org/alfresco/B.class\",\"definingObject\":\"" + LIBRARY + "\"}," +
+            "{\"type\":\"BEAN\",\"id\":\"a\",\"definingObject\":\"context.xml\",\"beanClass\":\"org.alfresco.Bean\"}," +
+            "{\"type\":\"BEAN\",\"id\":\"b\",\"definingObject\":\"context.xml\",\"beanClass\":\"org.alfresco.Bean\"}," +
+            "{\"type\":\"FILE\",\"id\":\"/index.jsp\",\"definingObject\":\"/index.jsp\"}]";
+        final List<Resource> resources = new ArrayList<>(List.of(objectMapper.readValue(json, Resource[].class)));
+
+        assertSame(resources.get(0).getDefiningObject(), resources.get(1).getDefiningObject());
+        assertSame(resources.get(2).getDefiningObject(), resources.get(3).getDefiningObject());
+        assertSame(((BeanResource) resources.get(2)).getBeanClass(), ((BeanResource) resources.get(3)).getBeanClass());
+        assertSame(resources.get(4).getId(), resources.get(4).getDefiningObject());
+    }
+
+    @Test
+    public void testSharedStringsAreReleased()
+    {
+        // a new string, rather than a constant that the class would keep
+        final WeakReference<String> beanClass = new WeakReference<>(
+            new BeanResource("bean", "context.xml", new String("org.alfresco.ReleasedBean")).getBeanClass());
+
+        for (int i = 0; i < 10 && beanClass.get() != null; i++)
+        {
+            System.gc();
+        }
+        assertNull(beanClass.get());
+    }
+
+    @Test
+    public void testHashCodeFollowsChanges()
+    {
+        final BeanResource bean = new BeanResource("bean", "context.xml", "org.alfresco.Bean");
+        final int hashCode = bean.hashCode();
+
+        bean.setBeanClass("org.alfresco.OtherBean");
+        assertNotEquals(hashCode, bean.hashCode());
+        assertEquals(new BeanResource("bean", "context.xml", "org.alfresco.OtherBean").hashCode(), bean.hashCode());
+
+        bean.setDefiningObject("other-context.xml");
+        assertEquals(new BeanResource("bean", "other-context.xml", "org.alfresco.OtherBean"), bean);
+        assertEquals(new BeanResource("bean", "other-context.xml", "org.alfresco.OtherBean").hashCode(),
+            bean.hashCode());
+
+        // same fields, different types
+        assertNotEquals(new FileResource("a", "b"), new ClasspathElementResource("a", "b"));
+    }
+
+    @Test
+    public void testTypeIsGivenByTheClass()
+    {
+        final FileResource file = new FileResource("/index.jsp", "/index.jsp");
+        file.setType(Resource.Type.FILE);
+
+        assertEquals(Resource.Type.FILE, file.getType());
+        assertThrows(IllegalArgumentException.class, () -> file.setType(Resource.Type.BEAN));
+    }
+
+    private static Set<Resource> set(Resource... resources)
+    {
+        return new LinkedHashSet<>(List.of(resources));
+    }
+}
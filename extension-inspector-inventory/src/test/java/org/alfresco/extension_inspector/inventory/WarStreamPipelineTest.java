@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.alfresco.extension_inspector.inventory.worker.AlfrescoPublicApiInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.BeanInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.ClasspathElementInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.FileInventoryWorker;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class WarStreamPipelineTest
+{
+    private static final String BEANS = "<beans><bean id=\"bean%d\" class=\"org.alfresco.Bean%d\"/></beans>";
+
+    @Test
+    public void testPipelineMatchesSequentialProcessing() throws IOException
+    {
+        final byte[] war = createWar();
+
+        final Map<Resource.Type, Set<Resource>> sequential = process(war, 1, 0);
+        assertFalse(sequential.get(Resource.Type.BEAN).isEmpty());
+
+        // a single task in flight makes the reader wait for each of them
+        for (int tasks : new int[] {1, 0})
+        {
+            final Map<Resource.Type, Set<Resource>> pipelined = process(war, 4, tasks);
+            assertEquals(sequential, pipelined);
+            // compare the iteration order as well, as the report is written in that order
+            assertEquals(sequential.toString(), pipelined.toString());
+        }
+    }
+
+    private static Map<Resource.Type, Set<Resource>> process(byte[] war, int parallelism, int tasks)
+        throws IOException
+    {
+        final EntryProcessor entryProcessor = new EntryProcessor();
+        ReflectionTestUtils.setField(entryProcessor, "inventoryWorkers", List.of(
+            new FileInventoryWorker(),
+            new BeanInventoryWorker(),
+            new AlfrescoPublicApiInventoryWorker(),
+            new ClasspathElementInventoryWorker()));
+        ReflectionTestUtils.setField(entryProcessor, "parallelism", parallelism);
+        ReflectionTestUtils.setField(entryProcessor, "pipelineTasks", tasks);
+
+        final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(war));
+             WarStreamPipeline pipeline = entryProcessor.newWarStreamPipeline(new SingleThreadedResourceSink(resources)))
+        {
+            ZipEntry ze = zis.getNextEntry();
+            while (ze != null)
+            {
+                pipeline.add(ze, zis);
+                zis.closeEntry();
+                ze = zis.getNextEntry();
+            }
+            pipeline.finish();
+        }
+        finally
+        {
+            entryProcessor.shutdown();
+        }
+        return resources;
+    }
+
+    private static byte[] createWar() throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream war = new ZipOutputStream(bos))
+        {
+            addEntry(war, "index.jsp", "<html/>".getBytes(UTF_8));
+            for (int i = 0; i < 100; i++)
+            {
+                addEntry(war, "WEB-INF/classes/alfresco/context-" + i + ".xml", String.format(BEANS, i, i).getBytes(UTF_8));
+            }
+            for (int i = 1; i <= 20; i++)
+            {
+                addEntry(war, "WEB-INF/lib/library-" + i + ".jar", createJar(i));
+            }
+            addEntry(war, "WEB-INF/web.xml", "<web-app/>".getBytes(UTF_8));
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] createJar(int index) throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream jar = new ZipOutputStream(bos))
+        {
+            addEntry(jar, "alfresco/context-" + index + ".xml", String.format(BEANS, 1000 + index, index).getBytes(UTF_8));
+            for (int i = 0; i < 50; i++)
+            {
+                addEntry(jar, "org/library" + index + "/Class" + i + ".class", new byte[] {(byte) i});
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static void addEntry(ZipOutputStream zos, String name, byte[] data) throws IOException
+    {
+        zos.putNextEntry(new ZipEntry(name));
+        zos.write(data);
+        zos.closeEntry();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.alfresco.extension_inspector.inventory.worker.AlfrescoPublicApiInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.BeanInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.ClasspathElementInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.FileInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.InventoryWorker;
+import org.junit.jupiter.api.Test;
+
+public class WorkerDispatchTableTest
+{
+    private final InventoryWorker fileWorker = new FileInventoryWorker();
+    private final InventoryWorker beanWorker = new BeanInventoryWorker();
+    private final InventoryWorker publicApiWorker = new AlfrescoPublicApiInventoryWorker();
+    private final InventoryWorker classpathWorker = new ClasspathElementInventoryWorker();
+
+    private final WorkerDispatchTable table = new WorkerDispatchTable(
+        List.of(fileWorker, beanWorker, publicApiWorker, classpathWorker));
+
+    @Test
+    public void testWarEntriesAreRoutedBySuffix()
+    {
+        assertEquals(List.of(fileWorker, publicApiWorker, classpathWorker),
+            table.getWarEntryWorkers("WEB-INF/classes/org/alfresco/AClass.class"));
+        assertEquals(List.of(fileWorker, beanWorker, classpathWorker),
+            table.getWarEntryWorkers("WEB-INF/classes/alfresco/context.xml"));
+        assertEquals(List.of(fileWorker, beanWorker, classpathWorker),
+            table.getWarEntryWorkers("WEB-INF/classes/alfresco/CONTEXT.XML"));
+        assertEquals(List.of(fileWorker, classpathWorker),
+            table.getWarEntryWorkers("WEB-INF/lib/library.jar"));
+        assertEquals(List.of(fileWorker, classpathWorker), table.getWarEntryWorkers("xml"));
+    }
+
+    @Test
+    public void testLibraryEntriesAreNotRoutedToTheFileWorker()
+    {
+        assertEquals(List.of(publicApiWorker, classpathWorker),
+            table.getLibraryEntryWorkers("org/alfresco/AClass.class"));
+        assertEquals(List.of(beanWorker, classpathWorker),
+            table.getLibraryEntryWorkers("alfresco/context.xml"));
+        assertEquals(List.of(classpathWorker), table.getLibraryEntryWorkers("alfresco/messages.properties"));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ZipCentralDirectoryTest
+{
+    private static final byte[] CONTENT = "<beans><bean id=\"a\"/></beans>".repeat(100).getBytes(UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testReadStoredAndDeflatedEntries() throws IOException
+    {
+        final byte[] zip = createZip(false);
+
+        final ZipCentralDirectory directory = ZipCentralDirectory.parse(ByteBuffer.wrap(zip));
+        assertNotNull(directory);
+        assertEquals(List.of("dir/", "dir/stored.xml", "dir/deflated.xml", "empty.txt"),
+            directory.getEntries().stream().map(ZipCentralDirectory.Entry::getName).collect(toList()));
+
+        final ZipCentralDirectory.Entry stored = directory.getEntries().get(1);
+        final ZipCentralDirectory.Entry deflated = directory.getEntries().get(2);
+        assertTrue(directory.getEntries().get(0).isDirectory());
+        assertArrayEquals(CONTENT, directory.read(stored));
+        assertArrayEquals(CONTENT, directory.read(deflated));
+        assertEquals(0, directory.read(directory.getEntries().get(3)).length);
+
+        assertEquals(CONTENT.length, directory.storedData(stored).remaining());
+        assertNull(directory.storedData(deflated));
+    }
+
+    @Test
+    public void testReadLibraryStoredInMappedArchive() throws IOException
+    {
+        final byte[] library = createZip(false);
+        final Path war = tempDir.resolve("test.war");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(war)))
+        {
+            putStoredEntry(zos, "WEB-INF/lib/library.jar", library);
+        }
+
+        final ZipCentralDirectory mappedWar = ZipCentralDirectory.map(war);
+        assertNotNull(mappedWar);
+        final ByteBuffer storedLibrary = mappedWar.storedData(mappedWar.getEntries().get(0));
+        assertNotNull(storedLibrary);
+
+        final ZipCentralDirectory mappedLibrary = ZipCentralDirectory.parse(storedLibrary);
+        assertNotNull(mappedLibrary);
+        assertEquals(4, mappedLibrary.getEntries().size());
+        assertArrayEquals(CONTENT, mappedLibrary.read(mappedLibrary.getEntries().get(2)));
+    }
+
+    @Test
+    public void testUnsupportedContent() throws IOException
+    {
+        assertNull(ZipCentralDirectory.parse(ByteBuffer.wrap(new byte[0])));
+        assertNull(ZipCentralDirectory.parse(ByteBuffer.wrap(CONTENT)));
+
+        // archives with leading data are not supported
+        final byte[] zip = createZip(true);
+        assertNull(ZipCentralDirectory.parse(ByteBuffer.wrap(zip)));
+    }
+
+    @Test
+    public void testTruncatedOrCorruptCentralDirectory() throws IOException
+    {
+        final byte[] zip = createZip(false);
+
+        // without its end of central directory, a truncated archive is left to ZipInputStream
+        assertNull(ZipCentralDirectory.parse(ByteBuffer.wrap(Arrays.copyOf(zip, zip.length / 2))));
+
+        // a directory missing a record
+        final ByteBuffer missingRecord = ByteBuffer.wrap(zip.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        final int eocd = zip.length - 22;
+        missingRecord.putShort(eocd + 10, (short) (missingRecord.getShort(eocd + 10) + 1));
+        assertThrows(ZipException.class, () -> ZipCentralDirectory.parse(missingRecord));
+
+        // a record whose name runs past the directory
+        final ByteBuffer longName = ByteBuffer.wrap(zip.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        final int firstRecord = longName.getInt(eocd + 16);
+        longName.putShort(firstRecord + 28, (short) 0xFFFF);
+        assertThrows(ZipException.class, () -> ZipCentralDirectory.parse(longName));
+    }
+
+    private static byte[] createZip(boolean withPrefix) throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        if (withPrefix)
+        {
+            bos.write(CONTENT);
+        }
+        try (ZipOutputStream zos = new ZipOutputStream(bos))
+        {
+            zos.putNextEntry(new ZipEntry("dir/"));
+            zos.closeEntry();
+            putStoredEntry(zos, "dir/stored.xml", CONTENT);
+            zos.putNextEntry(new ZipEntry("dir/deflated.xml"));
+            zos.write(CONTENT);
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("empty.txt"));
+            zos.closeEntry();
+        }
+        return bos.toByteArray();
+    }
+
+    private static void putStoredEntry(ZipOutputStream zos, String name, byte[] data) throws IOException
+    {
+        final CRC32 crc = new CRC32();
+        crc.update(data);
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(data.length);
+        entry.setCompressedSize(data.length);
+        entry.setCrc(crc.getValue());
+        zos.putNextEntry(entry);
+        zos.write(data);
+        zos.closeEntry();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BinaryInventoryOutputTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDefaultOutputPath()
+    {
+        BinaryInventoryOutput output = new BinaryInventoryOutput("alfresco-7.0.0.war", "");
+
+        assertEquals("alfresco-7.0.0.inventory.bin", output.getOutputPath().toString());
+    }
+
+    @Test
+    public void testReportIsReadBack() throws IOException
+    {
+        final InventoryReport report = report();
+        final BinaryInventoryOutput output = new BinaryInventoryOutput("alfresco.war", tempDir.toString());
+        output.generateOutput(report);
+
+        final InventoryReport read;
+        try (InputStream is = Files.newInputStream(output.getOutputPath()))
+        {
+            read = BinaryInventoryFormat.read(is);
+        }
+        assertEquals(report, read);
+        assertEquals(InventoryReport.SCHEMA_VERSION, read.getSchemaVersion());
+
+        // not part of the resource equality
+        final Map<String, AlfrescoPublicApiResource> publicApis = new HashMap<>();
+        read.getResources().get(Resource.Type.ALFRESCO_PUBLIC_API)
+            .forEach(resource -> publicApis.put(resource.getId(), (AlfrescoPublicApiResource) resource));
+        assertTrue(publicApis.get("org.alfresco.service.Deprecated").isDeprecated());
+        assertFalse(publicApis.get("org.alfresco.service.Deprecated").isImplicit());
+        assertTrue(publicApis.get("org.alfresco.service.Implicit").isImplicit());
+        assertFalse(publicApis.get("org.alfresco.service.Implicit").isDeprecated());
+    }
+
+    @Test
+    public void testEmptyReport() throws IOException
+    {
+        final InventoryReport report = new InventoryReport();
+        final InventoryReport read = BinaryInventoryFormat.read(new ByteArrayInputStream(write(report)));
+
+        assertEquals(report, read);
+        assertTrue(read.getResources().isEmpty());
+    }
+
+    @Test
+    public void testInvalidContent() throws IOException
+    {
+        assertThrows(IllegalArgumentException.class,
+            () -> BinaryInventoryFormat.read(new ByteArrayInputStream("{\"schemaVersion\":\"1.0\"}".getBytes())));
+
+        final byte[] data = write(report());
+        final byte[] truncated = Arrays.copyOf(data, data.length / 2);
+        assertThrows(IllegalArgumentException.class,
+            () -> BinaryInventoryFormat.read(new ByteArrayInputStream(truncated)));
+    }
+
+    private static byte[] write(InventoryReport report) throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        BinaryInventoryFormat.write(report, bos);
+        return bos.toByteArray();
+    }
+
+    private static InventoryReport report()
+    {
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion("7.0.0");
+        report.addResources(Map.of(
+            Resource.Type.FILE, set(
+                new FileResource("/WEB-INF/lib/alfresco-repository.jar", "/WEB-INF/lib/alfresco-repository.jar"),
+                new FileResource("/WEB-INF/lib/alfresco-remote-api.jar", "/WEB-INF/lib/alfresco-remote-api.jar"),
+                new FileResource("/WEB-INF/classes/\uD83D\uDE00.txt", "/WEB-INF/classes/\uD83D\uDE00.txt"),
+                new FileResource("/WEB-INF/classes/\uD83D\uDE01.txt", "/WEB-INF/classes/\uD83D\uDE01.txt"),
+                new FileResource("/index.jsp", null)),
+            Resource.Type.BEAN, set(
+                new BeanResource("bean1", "alfresco/context.xml@/WEB-INF/lib/alfresco-repository.jar",
+                    "org.alfresco.Bean"),
+                new BeanResource("bean2", "alfresco/context.xml@/WEB-INF/lib/alfresco-repository.jar",
+                    "org.alfresco.Bean"),
+                new BeanResource("bean2", "alfresco/other-context.xml@/WEB-INF/lib/alfresco-repository.jar",
+                    null)),
+            Resource.Type.ALFRESCO_PUBLIC_API, set(
+                new AlfrescoPublicApiResource("org.alfresco.service.Deprecated", true),
+                new AlfrescoPublicApiResource("org.alfresco.service.Implicit", false, true),
+                new AlfrescoPublicApiResource("org.alfresco.service.ServiceRegistry", false)),
+            Resource.Type.CLASSPATH_ELEMENT, set(
+                new ClasspathElementResource("org/alfresco/repo/A.class", "/WEB-INF/lib/alfresco-repository.jar"),
+                new ClasspathElementResource("org/alfresco/repo/B.class", "/WEB-INF/lib/alfresco-repository.jar"),
+                new ClasspathElementResource("org/alfresco/rest/C.class", "/WEB-INF/lib/alfresco-remote-api.jar"),
+                new ClasspathElementResource("org/alfresco/repo/A.class", "/WEB-INF/lib/alfresco-remote-api.jar"))));
+        return report;
+    }
+
+    private static Set<Resource> set(Resource... resources)
+    {
+        return new LinkedHashSet<>(List.of(resources));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory.output;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.alfresco.extension_inspector.commons.BinaryInventoryFormat;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.InventoryDelta;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DeltaInventoryOutputTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testDefaultOutputPath()
+    {
+        DeltaInventoryOutput output = new DeltaInventoryOutput("alfresco-7.1.0.war", "", "7.0.0.json");
+
+        assertEquals("alfresco-7.1.0.inventory.delta", output.getOutputPath().toString());
+    }
+
+    @Test
+    public void testDeltaRelativeToJsonBaseReport() throws IOException
+    {
+        final InventoryReport base = report("7.0.0", "org/alfresco/repo/A.class", "org/alfresco/repo/B.class");
+        final Path baseReport = tempDir.resolve("7.0.0.json");
+        new JSONInventoryOutput("alfresco.war", baseReport.toString()).generateOutput(base);
+
+        assertDeltaIsApplicable(base, baseReport);
+    }
+
+    @Test
+    public void testDeltaRelativeToBinaryBaseReport() throws IOException
+    {
+        final InventoryReport base = report("7.0.0", "org/alfresco/repo/A.class", "org/alfresco/repo/B.class");
+        final Path baseReport = tempDir.resolve("7.0.0.bin");
+        new BinaryInventoryOutput("alfresco.war", baseReport.toString()).generateOutput(base);
+
+        assertDeltaIsApplicable(base, baseReport);
+    }
+
+    @Test
+    public void testMissingBaseReport()
+    {
+        final DeltaInventoryOutput output = new DeltaInventoryOutput("alfresco.war", tempDir.toString(),
+            tempDir.resolve("6.2.0.json").toString());
+
+        assertThrows(RuntimeException.class, () -> output.generateOutput(report("7.0.0")));
+    }
+
+    private void assertDeltaIsApplicable(InventoryReport base, Path baseReport) throws IOException
+    {
+        final InventoryReport report = report("7.1.0", "org/alfresco/repo/A.class", "org/alfresco/repo/C.class");
+        final DeltaInventoryOutput output = new DeltaInventoryOutput("alfresco.war", tempDir.toString(),
+            baseReport.toString());
+        output.generateOutput(report);
+
+        final InventoryDelta delta;
+        try (InputStream is = Files.newInputStream(output.getOutputPath()))
+        {
+            delta = BinaryInventoryFormat.readDelta(is);
+        }
+        assertEquals("7.0.0", delta.getBaseVersion());
+        assertEquals(1, delta.getRemoved().get(Resource.Type.CLASSPATH_ELEMENT).size());
+        assertEquals(1, delta.getAdded().get(Resource.Type.CLASSPATH_ELEMENT).size());
+        assertTrue(delta.getAdded().get(Resource.Type.BEAN).isEmpty());
+        assertEquals(report, delta.apply(base));
+    }
+
+    private static InventoryReport report(String version, String... classes)
+    {
+        final Set<Resource> classpathElements = new LinkedHashSet<>();
+        for (String clazz : classes)
+        {
+            classpathElements.add(new ClasspathElementResource(clazz, "/WEB-INF/lib/alfresco-repository.jar"));
+        }
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion(version);
+        report.addResources(Map.of(
+            Resource.Type.CLASSPATH_ELEMENT, classpathElements,
+            Resource.Type.BEAN, new LinkedHashSet<>(List.of(
+                new BeanResource("bean", "alfresco/context.xml@/WEB-INF/lib/alfresco-repository.jar", null)))));
+        return report;
+    }
+}
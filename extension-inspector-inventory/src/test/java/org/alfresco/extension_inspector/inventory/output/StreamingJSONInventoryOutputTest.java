@@ -0,0 +1,284 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.output;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.alfresco.extension_inspector.inventory.EntryProcessor;
+import org.alfresco.extension_inspector.inventory.service.InventoryServiceImpl;
+import org.alfresco.extension_inspector.inventory.worker.AlfrescoPublicApiInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.BeanInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.ClasspathElementInventoryWorker;
+import org.alfresco.extension_inspector.inventory.worker.FileInventoryWorker;
+import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
+import org.alfresco.extension_inspector.model.BeanResource;
+import org.alfresco.extension_inspector.model.ClasspathElementResource;
+import org.alfresco.extension_inspector.model.FileResource;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.alfresco.extension_inspector.model.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class StreamingJSONInventoryOutputTest
+{
+    private static final String BEANS = "<beans><bean id=\"bean%d\" class=\"org.alfresco.Bean%d\"/></beans>";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testStreamedReportIsTheSameAsTheReportWrittenAtOnce() throws IOException
+    {
+        final StreamingJSONInventoryOutput streamed =
+            new StreamingJSONInventoryOutput("alfresco.war", tempDir.resolve("streamed.json").toString(), false);
+        final JSONInventoryOutput written =
+            new JSONInventoryOutput("alfresco.war", tempDir.resolve("written.json").toString());
+
+        final InventoryReport report = new InventoryReport();
+        report.setAlfrescoVersion("7.0.0");
+        streamed.setAlfrescoVersion("7.0.0");
+        for (Map<Resource.Type, Set<Resource>> resources : partialResults())
+        {
+            // the report adopts (and then modifies) the sets of the first partial result
+            streamed.addResources(resources);
+            report.addResources(resources);
+        }
+        streamed.finish();
+        written.generateOutput(report);
+
+        assertArrayEquals(Files.readAllBytes(written.getOutputPath()), Files.readAllBytes(streamed.getOutputPath()));
+    }
+
+    @Test
+    public void testCompactReportIsReadable() throws IOException
+    {
+        final StreamingJSONInventoryOutput output =
+            new StreamingJSONInventoryOutput("alfresco.war", tempDir.resolve("compact.json").toString(), true);
+
+        final InventoryReport report = new InventoryReport();
+        for (Map<Resource.Type, Set<Resource>> resources : partialResults())
+        {
+            output.addResources(resources);
+            report.addResources(resources);
+        }
+        output.finish();
+
+        final String json = Files.readString(output.getOutputPath());
+        assertFalse(json.contains("\n"));
+        // as read by the analyser's JSONInventoryParser
+        final InventoryReport parsed = new ObjectMapper().readValue(json, InventoryReport.class);
+        assertEquals(report, parsed);
+        assertEquals(InventoryReport.SCHEMA_VERSION, parsed.getSchemaVersion());
+        // of the equal resources, the first one is kept, as in the report
+        assertTrue(parsed.getResources().get(Resource.Type.ALFRESCO_PUBLIC_API).stream()
+            .filter(resource -> resource.getId().equals("org.alfresco.Api"))
+            .allMatch(resource -> ((AlfrescoPublicApiResource) resource).isImplicit()));
+    }
+
+    @Test
+    public void testGenerateInventoryReportFromWar() throws IOException
+    {
+        final Path warPath = createWar(tempDir.resolve("test.war"));
+        final InventoryServiceImpl inventoryService = new InventoryServiceImpl();
+        ReflectionTestUtils.setField(inventoryService, "entryProcessor", entryProcessor());
+
+        final JSONInventoryOutput written = new JSONInventoryOutput(warPath.toString(), tempDir.toString());
+        inventoryService.generateInventoryReport(warPath.toString(), written);
+        final byte[] expected = Files.readAllBytes(written.getOutputPath());
+        Files.delete(written.getOutputPath());
+
+        final StreamingJSONInventoryOutput streamed =
+            new StreamingJSONInventoryOutput(warPath.toString(), tempDir.toString(), false);
+        inventoryService.generateInventoryReport(warPath.toString(), streamed);
+
+        assertEquals(written.getOutputPath(), streamed.getOutputPath());
+        assertArrayEquals(expected, Files.readAllBytes(streamed.getOutputPath()));
+    }
+
+    @Test
+    public void testFingerprintSet()
+    {
+        final List<Resource> spooled = new ArrayList<>();
+        final StreamingJSONInventoryOutput.FingerprintSet fingerprints = new StreamingJSONInventoryOutput.FingerprintSet();
+        for (int i = 0; i < 10_000; i++)
+        {
+            assertTrue(add(fingerprints, spooled, new FileResource("/file" + i, "/file" + i)));
+        }
+        for (int i = 0; i < 10_000; i++)
+        {
+            assertFalse(add(fingerprints, spooled, new FileResource("/file" + i, "/file" + i)));
+        }
+        assertEquals(10_000, fingerprints.size());
+
+        // the fields are not concatenated
+        assertTrue(add(fingerprints, spooled, new FileResource("/a", "b/c")));
+        assertTrue(add(fingerprints, spooled, new FileResource("/a/b", "c")));
+        assertTrue(add(fingerprints, spooled, new FileResource("/a/b", null)));
+        // the bean class is part of the bean equality
+        assertTrue(add(fingerprints, spooled, new BeanResource("bean", "context.xml", "org.alfresco.Bean")));
+        assertTrue(add(fingerprints, spooled, new BeanResource("bean", "context.xml", "org.alfresco.OtherBean")));
+        assertFalse(add(fingerprints, spooled, new BeanResource("bean", "context.xml", "org.alfresco.Bean")));
+    }
+
+    @Test
+    public void testFingerprintCollisionKeepsBothResources()
+    {
+        final StreamingJSONInventoryOutput.FingerprintSet fingerprints = new StreamingJSONInventoryOutput.FingerprintSet();
+        final FileResource resource = new FileResource("/index.jsp", "/index.jsp");
+        assertTrue(fingerprints.add(resource, 0, position -> fail("Nothing is spooled yet")));
+        // a resource with the same fingerprint, that the spooled one turns out not to be equal to
+        assertTrue(fingerprints.add(resource, 1, position -> position != 0));
+        assertFalse(fingerprints.add(resource, 2, position -> position == 1));
+        assertEquals(2, fingerprints.size());
+    }
+
+    @Test
+    public void testDuplicatesAreComparedWithTheSpooledResources() throws IOException
+    {
+        final StreamingJSONInventoryOutput output =
+            new StreamingJSONInventoryOutput("alfresco.war", tempDir.resolve("duplicates.json").toString(), true);
+        final List<Resource> resources = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++)
+        {
+            resources.add(new BeanResource("bean" + i, "/WEB-INF/lib/library" + i + ".jar", "org.alfresco.Bean\"" + i));
+        }
+        resources.forEach(output::add);
+        resources.forEach(output::add);
+        output.finish();
+
+        final InventoryReport report = new ObjectMapper().readValue(output.getOutputPath().toFile(), InventoryReport.class);
+        assertEquals(Set.copyOf(resources), report.getResources().get(Resource.Type.BEAN));
+    }
+
+    private static boolean add(StreamingJSONInventoryOutput.FingerprintSet fingerprints, List<Resource> spooled,
+        Resource resource)
+    {
+        if (!fingerprints.add(resource, spooled.size(), position -> resource.equals(spooled.get((int) position))))
+        {
+            return false;
+        }
+        spooled.add(resource);
+        return true;
+    }
+
+    private static List<Map<Resource.Type, Set<Resource>>> partialResults()
+    {
+        return List.of(
+            resources(
+                List.of(new FileResource("/index.jsp", "/index.jsp")),
+                List.of(new BeanResource("bean0", "/WEB-INF/classes/context.xml", "org.alfresco.Bean0")),
+                List.of(),
+                List.of(new ClasspathElementResource("/org/alfresco/Class0.class",
+                    "/WEB-INF/classes/org/alfresco/Class0.class"))),
+            resources(
+                List.of(),
+                List.of(new BeanResource("bean1", "/WEB-INF/lib/library.jar", "org.alfresco.Bean1é\"")),
+                List.of(new AlfrescoPublicApiResource("org.alfresco.Api", false, true),
+                    new AlfrescoPublicApiResource("org.alfresco.OtherApi", true)),
+                List.of(new ClasspathElementResource("/org/alfresco/Api.class", "/WEB-INF/lib/library.jar"))),
+            resources(
+                List.of(new FileResource("/index.jsp", "/index.jsp")),
+                List.of(),
+                // duplicates an implicit resource of a previous library
+                List.of(new AlfrescoPublicApiResource("org.alfresco.Api", false, false)),
+                List.of()));
+    }
+
+    private static Map<Resource.Type, Set<Resource>> resources(List<Resource> files, List<Resource> beans,
+        List<Resource> publicApis, List<Resource> classpathElements)
+    {
+        final Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        resources.put(Resource.Type.FILE, new LinkedHashSet<>(files));
+        resources.put(Resource.Type.BEAN, new LinkedHashSet<>(beans));
+        resources.put(Resource.Type.ALFRESCO_PUBLIC_API, new LinkedHashSet<>(publicApis));
+        resources.put(Resource.Type.CLASSPATH_ELEMENT, new LinkedHashSet<>(classpathElements));
+        return resources;
+    }
+
+    private static EntryProcessor entryProcessor()
+    {
+        final EntryProcessor entryProcessor = new EntryProcessor();
+        ReflectionTestUtils.setField(entryProcessor, "inventoryWorkers", List.of(
+            new FileInventoryWorker(),
+            new BeanInventoryWorker(),
+            new AlfrescoPublicApiInventoryWorker(),
+            new ClasspathElementInventoryWorker()));
+        ReflectionTestUtils.setField(entryProcessor, "parallelism", 1);
+        return entryProcessor;
+    }
+
+    private static Path createWar(Path warPath) throws IOException
+    {
+        try (ZipOutputStream war = new ZipOutputStream(new FileOutputStream(warPath.toFile())))
+        {
+            addEntry(war, "META-INF/MANIFEST.MF",
+                "Manifest-Version: 1.0\r\nImplementation-Version: 7.0.0\r\n\r\n".getBytes(UTF_8));
+            addEntry(war, "index.jsp", "<html/>".getBytes(UTF_8));
+            addEntry(war, "WEB-INF/classes/alfresco/context.xml", String.format(BEANS, 0, 0).getBytes(UTF_8));
+            for (int i = 1; i <= 5; i++)
+            {
+                addEntry(war, "WEB-INF/lib/library-" + i + ".jar", createJar(i));
+                addEntry(war, "WEB-INF/classes/alfresco/context-" + i + ".xml",
+                    String.format(BEANS, i, i).getBytes(UTF_8));
+            }
+        }
+        return warPath;
+    }
+
+    private static byte[] createJar(int index) throws IOException
+    {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream jar = new ZipOutputStream(bos))
+        {
+            addEntry(jar, "alfresco/context-" + index + ".xml", String.format(BEANS, index, index).getBytes(UTF_8));
+            for (int i = 0; i < 20; i++)
+            {
+                addEntry(jar, "org/library" + index + "/Class" + i + ".class", new byte[] {(byte) i});
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static void addEntry(ZipOutputStream zos, String name, byte[] data) throws IOException
+    {
+        zos.putNextEntry(new ZipEntry(name));
+        zos.write(data);
+        zos.closeEntry();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.alfresco.extension_inspector.inventory.service;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.alfresco.extension_inspector.inventory.output.InventoryOutput;
+import org.alfresco.extension_inspector.inventory.output.JSONInventoryOutput;
+import org.alfresco.extension_inspector.model.InventoryReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class InventoryBatchServiceTest
+{
+    private static final List<String> WARS = IntStream.range(0, 8).mapToObj(i -> "alfresco-" + i + ".war")
+                                                      .collect(toList());
+
+    @TempDir
+    Path tempDir;
+
+    private final InventoryBatchService inventoryBatchService = new InventoryBatchService();
+
+    /**
+     * What the reports generation does, on the batch threads (a stub rather than a mock, as it is
+     * called concurrently).
+     */
+    private volatile Consumer<String> generation = warPath -> {};
+
+    @BeforeEach
+    public void setUp()
+    {
+        ReflectionTestUtils.setField(inventoryBatchService, "inventoryService", new InventoryService()
+        {
+            @Override
+            public InventoryReport extractInventoryReport(String warPath)
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public InventoryReport extractInventoryReport(InputStream warStream)
+            {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void generateInventoryReport(String warPath, InventoryOutput output)
+            {
+                generation.accept(warPath);
+            }
+        });
+    }
+
+    @Test
+    public void testReportsAreGeneratedConcurrentlyWithinTheParallelism()
+    {
+        ReflectionTestUtils.setField(inventoryBatchService, "parallelism", 3);
+        ReflectionTestUtils.setField(inventoryBatchService, "memoryRatio", 0.5);
+
+        assertEquals(3, maxConcurrentReports());
+    }
+
+    @Test
+    public void testReportsInFlightAreLimitedByTheMemoryBudget()
+    {
+        ReflectionTestUtils.setField(inventoryBatchService, "parallelism", 3);
+        // a budget of 1 MB only leaves room for one war at a time
+        ReflectionTestUtils.setField(inventoryBatchService, "memoryRatio",
+            1024.0 * 1024 / Runtime.getRuntime().maxMemory());
+
+        assertEquals(1, maxConcurrentReports());
+    }
+
+    @Test
+    public void testFailureDoesNotStopTheOtherReports()
+    {
+        ReflectionTestUtils.setField(inventoryBatchService, "parallelism", 2);
+        ReflectionTestUtils.setField(inventoryBatchService, "memoryRatio", 0.5);
+        generation = warPath -> {
+            if (warPath.equals(WARS.get(1)))
+            {
+                throw new IllegalArgumentException("Failed to open file");
+            }
+        };
+
+        final List<InventoryBatchService.Result> results = inventoryBatchService.generateInventoryReports(
+            WARS, warPath -> new JSONInventoryOutput(warPath, ""));
+
+        assertEquals(WARS, results.stream().map(InventoryBatchService.Result::getWarPath).collect(toList()));
+        assertFalse(results.get(1).isSuccessful());
+        assertEquals("Failed to open file", results.get(1).getFailure().getMessage());
+        assertEquals(WARS.size() - 1, results.stream().filter(InventoryBatchService.Result::isSuccessful).count());
+    }
+
+    @Test
+    public void testWeightOfWarFileOrDirectory() throws IOException
+    {
+        createFile(tempDir.resolve("alfresco.war"), 5);
+        assertEquals(5, InventoryBatchService.getWeight(tempDir.resolve("alfresco.war").toString(), 100));
+        assertEquals(3, InventoryBatchService.getWeight(tempDir.resolve("alfresco.war").toString(), 3));
+
+        // an exploded war weighs as much as its files
+        final Path exploded = tempDir.resolve("exploded");
+        createFile(exploded.resolve("WEB-INF/lib/library1.jar"), 6);
+        createFile(exploded.resolve("WEB-INF/lib/library2.jar"), 4);
+        createFile(exploded.resolve("WEB-INF/classes/org/alfresco/Class.class"), 1);
+        assertEquals(11, InventoryBatchService.getWeight(exploded.toString(), 100));
+        assertEquals(8, InventoryBatchService.getWeight(exploded.toString(), 8));
+
+        assertEquals(1, InventoryBatchService.getWeight(tempDir.resolve("missing.war").toString(), 100));
+    }
+
+    private static void createFile(Path path, int sizeMb) throws IOException
+    {
+        Files.createDirectories(path.getParent());
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw"))
+        {
+            file.setLength(sizeMb * 1024L * 1024);
+        }
+    }
+
+    private int maxConcurrentReports()
+    {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        generation = warPath -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try
+            {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        };
+
+        final List<InventoryBatchService.Result> results = inventoryBatchService.generateInventoryReports(
+            WARS, warPath -> new JSONInventoryOutput(warPath, ""));
+
+        assertEquals(WARS.size(), results.size());
+        assertTrue(results.stream().allMatch(InventoryBatchService.Result::isSuccessful));
+        return maxRunning.get();
+    }
+}
@@ -16,25 +16,35 @@
 
 package org.alfresco.extension_inspector.inventory.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.LinkedHashSet;
-import java.util.Map;
 import java.util.Set;
 
 import org.alfresco.extension_inspector.inventory.EntryProcessor;
+import org.alfresco.extension_inspector.inventory.ExplodedWar;
+import org.alfresco.extension_inspector.inventory.WarStreamPipeline;
+import org.alfresco.extension_inspector.inventory.worker.ResourceSink;
 import org.alfresco.extension_inspector.model.FileResource;
 import org.alfresco.extension_inspector.model.InventoryReport;
 import org.alfresco.extension_inspector.model.Resource;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -80,14 +90,51 @@ public class InventoryServiceImplTest
     {
         Set<Resource> resourceList = new LinkedHashSet<>();
         resourceList.add(new FileResource("file.txt", "file.txt"));
-        Map<Resource.Type, Set<Resource>> resources = Map.of(Resource.Type.FILE, resourceList);
-        when(entryProcessor.processWarEntry(any(), any())).thenReturn(resources);
+        doAnswer(invocation -> {
+            invocation.<ResourceSink>getArgument(2).addAll(resourceList);
+            return null;
+        }).when(entryProcessor).processWarFileEntries(any(), any(), any(ResourceSink.class));
 
         String warPath = ResourceUtils.getFile("classpath:test.war").getPath();
         InventoryReport report = inventoryService.extractInventoryReport(warPath);
         assertTrue(!report.getResources().isEmpty());
         assertTrue(!report.getResources().get(Resource.Type.FILE).isEmpty());
-        verify(entryProcessor, times(3)).processWarEntry(any(), any());
+        verify(entryProcessor).processWarFileEntries(any(), argThat(entries -> entries.size() == 3),
+            any(ResourceSink.class));
+    }
+
+    @Test
+    public void testExtractInventoryReportFromWarStream() throws IOException
+    {
+        doAnswer(invocation -> {
+            invocation.<ResourceSink>getArgument(2).add(new FileResource("file.txt", "file.txt"));
+            return null;
+        }).when(entryProcessor).processWarEntry(any(), any(), any(ResourceSink.class));
+        when(entryProcessor.newWarStreamPipeline(any()))
+            .thenAnswer(invocation -> WarStreamPipeline.sequential(entryProcessor, invocation.getArgument(0)));
+
+        try (InputStream is = new FileInputStream(ResourceUtils.getFile("classpath:test.war")))
+        {
+            InventoryReport report = inventoryService.extractInventoryReport(is);
+            assertTrue(!report.getResources().isEmpty());
+            assertTrue(!report.getResources().get(Resource.Type.FILE).isEmpty());
+        }
+        verify(entryProcessor, times(3)).processWarEntry(any(), any(), any(ResourceSink.class));
+    }
+
+    @Test
+    public void testExtractInventoryReportFromExplodedWar(@TempDir Path warDirectory) throws IOException
+    {
+        Files.createDirectories(warDirectory.resolve("WEB-INF/lib"));
+        Files.createDirectories(warDirectory.resolve("META-INF"));
+        Files.writeString(warDirectory.resolve("META-INF/MANIFEST.MF"),
+            "Manifest-Version: 1.0\nImplementation-Version: 7.0.0\n");
+        when(entryProcessor.scanWarDirectory(warDirectory)).thenReturn(ExplodedWar.scan(warDirectory, null));
+
+        InventoryReport report = inventoryService.extractInventoryReport(warDirectory.toString());
+        assertEquals("7.0.0", report.getAlfrescoVersion());
+        verify(entryProcessor).processWarDirectoryEntries(argThat(war -> war.getEntries().size() == 1),
+            any(ResourceSink.class));
     }
 
 }
@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Iterator;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 
@@ -141,4 +142,53 @@ public class BeanInventoryTest
         assertEquals("org.alfresco.extension_inspector.inventory.Test", br.getId());
         assertEquals(zipEntry.getName() + "@" + definingObject, br.getDefiningObject());
     }
+
+    @Test
+    public void onlyTopLevelBeansAreFound()
+    {
+        ZipEntry zipEntry = new ZipEntry("file.xml");
+        byte[] data = (
+            "<beans xmlns:p='http://www.springframework.org/schema/p'>"
+            + "    <bean id='top-level' class='org.alfresco.Test'>"
+            + "        <property name='inner'><bean id='inner-bean' class='org.alfresco.Inner'/></property>"
+            + "    </bean>"
+            + "    <beans profile='test'><bean id='nested-beans'/></beans>"
+            + "    <p:bean id='prefixed-bean'/>"
+            + "    <bean p:id='prefixed-id' name='bean-with-name'/>"
+            + "</beans>").getBytes();
+
+        Set<Resource> resources = beanInventoryWorker.processZipEntry(zipEntry, data, "source");
+
+        assertEquals(2, resources.size());
+        Iterator<Resource> iterator = resources.iterator();
+        assertEquals("top-level", iterator.next().getId());
+        assertEquals("bean-with-name", iterator.next().getId());
+    }
+
+    @Test
+    public void externalDtdIsNotLoaded()
+    {
+        ZipEntry zipEntry = new ZipEntry("file.xml");
+        byte[] data = (
+            "<?xml version='1.0' encoding='UTF-8'?>"
+            + "<!DOCTYPE beans PUBLIC '-//SPRING//DTD BEAN//EN' 'http://localhost:1/dtd/spring-beans.dtd'>"
+            + "<beans><bean id='bean-with-id' class='org.alfresco.Test'/></beans>").getBytes();
+
+        Set<Resource> resources = beanInventoryWorker.processZipEntry(zipEntry, data, "source");
+
+        assertEquals(1, resources.size());
+        assertEquals("bean-with-id", resources.iterator().next().getId());
+    }
+
+    @Test
+    public void noBeansAreFoundInOtherFiles()
+    {
+        ZipEntry zipEntry = new ZipEntry("file.xml");
+        byte[] beans = "<beans><bean id='bean-with-id'/></beans>".getBytes();
+
+        assertTrue(beanInventoryWorker.processZipEntry(zipEntry, "<other><bean id='a'/></other>".getBytes(), "source").isEmpty());
+        assertTrue(beanInventoryWorker.processZipEntry(zipEntry, "<beans><bean id='a'/>".getBytes(), "source").isEmpty());
+        assertTrue(beanInventoryWorker.processZipEntry(zipEntry, beans, "alfresco/subsystems/test.xml").isEmpty());
+        assertEquals(1, beanInventoryWorker.processZipEntry(zipEntry, beans, "source").size());
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.worker;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.alfresco.extension_inspector.commons.ClassFileUtils.mayContainUtf8Constant;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.alfresco.extension_inspector.commons.ClassFileUtils;
+import org.alfresco.extension_inspector.inventory.data.classes.ClassWithAlfrescoApiAnnotation;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Compares the constant pool pre-filter with a full parse of the classes of real archives: the jars of
+ * the test classpath, or the WAR given with the {@code inventory.test.war} system property (e.g. an
+ * Alfresco WAR, including the classes of its libraries).
+ */
+public class ConstantPoolPreFilterTest
+{
+    private static final String ALFRESCO_PUBLIC_API = "Lorg/alfresco/api/AlfrescoPublicApi;";
+
+    @Test
+    public void testPreFilterMatchesFullParse() throws IOException
+    {
+        final AtomicInteger classes = new AtomicInteger();
+        final String war = System.getProperty("inventory.test.war");
+        if (war != null)
+        {
+            try (InputStream is = new FileInputStream(war))
+            {
+                checkClasses(is, classes);
+            }
+        }
+        else
+        {
+            for (String path : System.getProperty("java.class.path").split(File.pathSeparator))
+            {
+                if (path.endsWith(".jar"))
+                {
+                    try (InputStream is = new FileInputStream(path))
+                    {
+                        checkClasses(is, classes);
+                    }
+                }
+            }
+        }
+        assertTrue(classes.get() > 1000, "Expected real archives, but found only " + classes + " classes");
+    }
+
+    @Test
+    public void testPreFilterOnTestClass() throws IOException
+    {
+        final byte[] classData;
+        try (InputStream is = ClassWithAlfrescoApiAnnotation.class.getResourceAsStream(
+            ClassWithAlfrescoApiAnnotation.class.getSimpleName() + ".class"))
+        {
+            classData = is.readAllBytes();
+        }
+        final String annotation = "Lorg/alfresco/extension_inspector/inventory/data/classes/TestAlfrescoPublicApi;";
+        assertTrue(mayContainUtf8Constant(classData, 0, classData.length, annotation));
+        assertFalse(mayContainUtf8Constant(classData, 0, classData.length, ALFRESCO_PUBLIC_API));
+        // a prefix of a constant is not a match
+        assertFalse(mayContainUtf8Constant(classData, 0, classData.length, annotation.substring(0, 20)));
+
+        // the class can be anywhere in the buffer
+        final byte[] buffer = new byte[classData.length + 20];
+        System.arraycopy(classData, 0, buffer, 10, classData.length);
+        assertTrue(mayContainUtf8Constant(buffer, 10, classData.length, ClassFileUtils.toModifiedUtf8(annotation)));
+        assertFalse(mayContainUtf8Constant(buffer, 10, classData.length, ALFRESCO_PUBLIC_API));
+
+        // invalid or truncated class files are left to the full parse
+        assertTrue(mayContainUtf8Constant(new byte[] {1, 2, 3}, 0, 3, ALFRESCO_PUBLIC_API));
+        assertTrue(mayContainUtf8Constant(classData, 0, 30, ALFRESCO_PUBLIC_API));
+    }
+
+    private static void checkClass(byte[] classData)
+    {
+        final Set<String> annotations = readAnnotations(classData);
+        final String className = new ClassReader(classData).getClassName();
+
+        // a class annotated with any annotation must pass the pre-filter for it
+        for (String annotation : annotations)
+        {
+            assertTrue(mayContainUtf8Constant(classData, 0, classData.length, annotation),
+                className + " is annotated with " + annotation);
+        }
+
+        // and a class passing the pre-filter must contain the constant
+        for (String constant : new String[] {ALFRESCO_PUBLIC_API, "Ljava/lang/Deprecated;"})
+        {
+            assertTrue(!mayContainUtf8Constant(classData, 0, classData.length, constant) ||
+                       contains(classData, constant), className + " does not reference " + constant);
+        }
+    }
+
+    private static void checkClasses(InputStream archive, AtomicInteger classes) throws IOException
+    {
+        final ZipInputStream zis = new ZipInputStream(archive);
+        ZipEntry entry;
+        while ((entry = zis.getNextEntry()) != null)
+        {
+            if (entry.getName().endsWith(".class") && !entry.getName().endsWith("module-info.class"))
+            {
+                checkClass(zis.readAllBytes());
+                classes.incrementAndGet();
+            }
+            else if (entry.getName().endsWith(".jar"))
+            {
+                checkClasses(new ByteArrayInputStream(zis.readAllBytes()), classes);
+            }
+        }
+    }
+
+    private static Set<String> readAnnotations(byte[] classData)
+    {
+        final Set<String> annotations = new HashSet<>();
+        new ClassReader(classData).accept(new ClassVisitor(Opcodes.ASM9)
+        {
+            @Override
+            public AnnotationVisitor visitAnnotation(String descriptor, boolean visible)
+            {
+                annotations.add(descriptor);
+                return null;
+            }
+        }, 0);
+        return annotations;
+    }
+
+    private static boolean contains(byte[] data, String value)
+    {
+        return new String(data, ISO_8859_1).contains(value);
+    }
+}
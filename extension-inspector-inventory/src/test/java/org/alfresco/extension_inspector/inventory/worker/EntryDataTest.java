@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Alfresco Software, Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.alfresco.extension_inspector.inventory.worker;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.alfresco.extension_inspector.commons.InventoryUtils.extract;
+import static org.alfresco.extension_inspector.commons.InventoryUtils.extractToBuffer;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.alfresco.extension_inspector.commons.InventoryUtils;
+import org.junit.jupiter.api.Test;
+
+public class EntryDataTest
+{
+    private static final byte[] CONTENT = "<beans><bean id=\"a\"/></beans>".repeat(1000).getBytes(UTF_8);
+
+    @Test
+    public void testExtractWithKnownUnknownAndWrongSizes() throws IOException
+    {
+        for (long size : new long[] {-1, 0, 10, CONTENT.length, CONTENT.length + 10})
+        {
+            assertArrayEquals(CONTENT, extract(new ByteArrayInputStream(CONTENT), size), "size " + size);
+            assertEquals(ByteBuffer.wrap(CONTENT), extractToBuffer(new ByteArrayInputStream(CONTENT), size),
+                "size " + size);
+        }
+        assertEquals(0, extract(new ByteArrayInputStream(new byte[0]), -1).length);
+    }
+
+    @Test
+    public void testExtractToBufferReusesTheThreadBuffer() throws IOException
+    {
+        final ByteBuffer first = extractToBuffer(new ByteArrayInputStream(CONTENT), CONTENT.length);
+        final ByteBuffer second = extractToBuffer(new ByteArrayInputStream(CONTENT), -1);
+        assertSame(first.array(), second.array());
+        assertSame(second.array(), InventoryUtils.threadBuffer(CONTENT.length));
+    }
+
+    @Test
+    public void testTransientBufferIsCopiedOnlyForArrays() throws IOException
+    {
+        final AtomicInteger reads = new AtomicInteger();
+        final EntryData data = EntryData.lazyBuffer(() -> {
+            reads.incrementAndGet();
+            return extractToBuffer(new ByteArrayInputStream(CONTENT), CONTENT.length);
+        });
+        assertFalse(data.isRead());
+
+        final ByteBuffer buffer = data.getBuffer();
+        assertTrue(data.isRead());
+        assertEquals(ByteBuffer.wrap(CONTENT), buffer);
+
+        final byte[] array = data.get();
+        assertArrayEquals(CONTENT, array);
+        assertNotSame(buffer.array(), array);
+        assertSame(array, data.get());
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    public void testOwnedArrayIsNotCopied()
+    {
+        final EntryData data = EntryData.lazy(() -> CONTENT);
+        assertEquals(ByteBuffer.wrap(CONTENT), data.getBuffer());
+        assertSame(CONTENT, data.get());
+        assertSame(CONTENT, EntryData.of(CONTENT).get());
+    }
+}
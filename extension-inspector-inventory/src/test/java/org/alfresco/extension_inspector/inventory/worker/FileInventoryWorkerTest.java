@@ -21,9 +21,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.zip.ZipEntry;
 
+import org.alfresco.extension_inspector.inventory.SingleThreadedResourceSink;
 import org.alfresco.extension_inspector.model.FileResource;
 import org.alfresco.extension_inspector.model.Resource;
 import org.junit.jupiter.api.Test;
@@ -54,6 +58,20 @@ public class FileInventoryWorkerTest
         assertEquals("/" + entry.getName(), resourceSet.iterator().next().getDefiningObject());
     }
 
+    @Test
+    public void testEntryIsNotReadWhenNotNeeded()
+    {
+        ZipEntry entry = new ZipEntry("TestEntry.txt");
+        EntryData data = EntryData.lazy(() -> {
+            throw new IOException("The entry should not be read");
+        });
+
+        Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+        fileInventoryWorker.processEntry(entry, data, entry.getName(), new SingleThreadedResourceSink(resources));
+        assertEquals(1, resources.get(Resource.Type.FILE).size());
+        assertFalse(data.isRead());
+    }
+
     @Test
     public void testCanProcessJarEntry()
     {
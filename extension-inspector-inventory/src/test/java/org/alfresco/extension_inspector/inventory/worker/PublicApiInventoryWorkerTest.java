@@ -16,6 +16,7 @@
 
 package org.alfresco.extension_inspector.inventory.worker;
 
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -24,12 +25,19 @@ import static org.mockito.Mockito.doReturn;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 
+import org.alfresco.extension_inspector.inventory.SingleThreadedResourceSink;
 import org.alfresco.extension_inspector.inventory.data.classes.ClassDeprecated;
 import org.alfresco.extension_inspector.inventory.data.classes.ClassWithAlfrescoApiAnnotation;
 import org.alfresco.extension_inspector.inventory.data.classes.ClassWithAlfrescoApiAnnotationDeprecated;
+import org.alfresco.extension_inspector.inventory.data.classes.ClassWithImplicitAlfrescoPublicApis;
+import org.alfresco.extension_inspector.inventory.data.classes.TestAlfrescoException;
 import org.alfresco.extension_inspector.model.AlfrescoPublicApiResource;
 import org.alfresco.extension_inspector.model.Resource;
 import org.junit.jupiter.api.Test;
@@ -125,6 +133,61 @@ public class PublicApiInventoryWorkerTest
         assertEquals(0, resources.size());
     }
 
+    @Test
+    public void testAlfrescoClassesUsedByPublicApiAreImplicitPublicApis() throws Exception
+    {
+        Class testClass = ClassWithImplicitAlfrescoPublicApis.class;
+
+        ZipEntry zipEntry = new ZipEntry(getClassRelativePath(testClass));
+        byte[] data = getClassData(testClass);
+
+        doReturn(TEST_ALFRESCO_PUBLIC_API).when(worker).getPublicAnnotationType();
+        Set<Resource> resources = worker.processZipEntry(zipEntry, data, "source");
+
+        // the class itself, then the method arguments (not the arrays), then the exceptions
+        assertEquals(List.of(
+                testClass.getName(),
+                ClassDeprecated.class.getName(),
+                ClassWithAlfrescoApiAnnotation.class.getName(),
+                TestAlfrescoException.class.getName()),
+            resources.stream().map(Resource::getId).collect(toList()));
+        assertEquals(List.of(false, true, true, true),
+            resources.stream().map(r -> ((AlfrescoPublicApiResource) r).isImplicit()).collect(toList()));
+    }
+
+    @Test
+    public void testClassWithoutAlfrescoPublicApiAnnotation() throws Exception
+    {
+        Class testClass = ClassWithImplicitAlfrescoPublicApis.class;
+
+        ZipEntry zipEntry = new ZipEntry(getClassRelativePath(testClass));
+        assertTrue(worker.processZipEntry(zipEntry, getClassData(testClass), "source").isEmpty());
+        assertTrue(worker.processZipEntry(zipEntry, new byte[] {1, 2, 3}, "source").isEmpty());
+    }
+
+    @Test
+    public void testClassDataIsReadOnce() throws Exception
+    {
+        Class testClass = ClassWithAlfrescoApiAnnotation.class;
+
+        ZipEntry zipEntry = new ZipEntry(getClassRelativePath(testClass));
+        byte[] classData = getClassData(testClass);
+        AtomicInteger reads = new AtomicInteger();
+        EntryData data = EntryData.lazy(() -> {
+            reads.incrementAndGet();
+            return classData;
+        });
+
+        doReturn(TEST_ALFRESCO_PUBLIC_API).when(worker).getPublicAnnotationType();
+        for (int i = 0; i < 2; i++)
+        {
+            Map<Resource.Type, Set<Resource>> resources = new EnumMap<>(Resource.Type.class);
+            worker.processEntry(zipEntry, data, "source", new SingleThreadedResourceSink(resources));
+            assertEquals(1, resources.get(Resource.Type.ALFRESCO_PUBLIC_API).size());
+        }
+        assertEquals(1, reads.get());
+    }
+
     private static byte[] getClassData(Class clazz) throws IOException
     {
         String name = clazz.getName();
@@ -32,7 +32,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest(properties = {"inventory-report-resource-pattern=classpath:bundled-inventories-test/*.json"})
+@SpringBootTest(properties = {
+    "inventory-report-resource-pattern=classpath:bundled-inventories-test/*.json",
+    "inventory-index-resource="})
 class WarInventoryReportStoreTest
 {
     @Autowired
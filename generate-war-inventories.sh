@@ -23,15 +23,18 @@ echo "Inventory tool executable jar: ${JAR_EXECUTABLE}"
 
 INVENTORY_DIR="extension-inspector-analyser/src/main/resources/bundled-inventories"
 echo "Inventory dir: ${INVENTORY_DIR}"
+
+# the libraries shared by the wars are only scanned once
+CACHE_DIR="wars/.inventory-cache"
+echo "Library inventory cache dir: ${CACHE_DIR}"
 rm ${INVENTORY_DIR}/*.json
 
-for file in wars/*.war ; do
-  version=${file#"wars/"}
-  version=${version%".war"}
-  echo "Generating report for version [${version}]..."
-  java -jar "${JAR_EXECUTABLE}" "${file}" --o="${INVENTORY_DIR}/${version}.json"
+# all the reports are generated in the same JVM, a few wars at a time
+echo "Generating reports..."
+java -jar "${JAR_EXECUTABLE}" --inventory wars --o="${INVENTORY_DIR}" --inventory-cache-dir="${CACHE_DIR}" || exit 5
 
-  #mv -f "${version}.inventory.json" "${INVENTORY_DIR}/${version}.json"
+for file in ${INVENTORY_DIR}/*.inventory.json ; do
+  mv -f "${file}" "${file%".inventory.json"}.json"
 done
 
 popd || exit 4